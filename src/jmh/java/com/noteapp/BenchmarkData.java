@@ -0,0 +1,43 @@
+package com.noteapp;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public final class BenchmarkData {
+    private static final int VOCABULARY_SIZE = 5_000;
+    private static final String[] SEPARATORS = {" ", " ", " ", ", ", ". ", "\n"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds deterministic prose of roughly {@code size} chars. Word frequencies are skewed towards the
+     * start of the vocabulary so the distribution resembles natural text.
+     */
+    public static String text(int size) {
+        Random random = new Random(size);
+        StringBuilder text = new StringBuilder(size + 16);
+        while (text.length() < size) {
+            int rank = (int) Math.floor(Math.pow(random.nextDouble(), 3) * VOCABULARY_SIZE);
+            String word = "w" + Integer.toString(rank, 36);
+            text.append(rank % 7 == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+            text.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+        }
+        return text.toString();
+    }
+
+    public static Note note(int index, int textSize) {
+        Note note = new Note();
+        note.setId(String.format("%024x", index));
+        note.setTitle("Benchmark note " + index);
+        note.setText(text(textSize));
+        note.setTags(new ArrayList<>(List.of(NoteTagEnum.values()[index % NoteTagEnum.values().length])));
+        note.setCreatedDate(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(index));
+        return note;
+    }
+}
@@ -0,0 +1,64 @@
+package com.noteapp.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noteapp.BenchmarkData;
+import com.noteapp.dto.NoteDto;
+import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.mapper.NoteMapper;
+import com.noteapp.mapper.NoteMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serializes responses the way the controller does: {@code Page} results go out as {@link PagedModel},
+ * which is what {@code PageSerializationMode.VIA_DTO} wraps them in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoteSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int textSize;
+
+    private ObjectMapper objectMapper;
+    private NoteDto noteDto;
+    private PagedModel<NotePreviewDto> previewPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        NoteMapper noteMapper = new NoteMapperImpl();
+        noteDto = noteMapper.toDto(BenchmarkData.note(1, textSize));
+
+        List<NotePreviewDto> previews = IntStream.range(0, 10)
+                .mapToObj(i -> noteMapper.toPreviewDto(BenchmarkData.note(i, 0)))
+                .toList();
+        previewPage = new PagedModel<>(new PageImpl<>(previews, PageRequest.of(0, 10), 10_000));
+    }
+
+    @Benchmark
+    public byte[] noteDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(noteDto);
+    }
+
+    @Benchmark
+    public byte[] previewPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(previewPage);
+    }
+}
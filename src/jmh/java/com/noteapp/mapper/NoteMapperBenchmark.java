@@ -0,0 +1,54 @@
+package com.noteapp.mapper;
+
+import com.noteapp.BenchmarkData;
+import com.noteapp.dto.NoteDto;
+import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.model.Note;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NoteMapperBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private NoteMapper noteMapper;
+    private Note note;
+    private Page<Note> notePage;
+
+    @Setup
+    public void setUp() {
+        noteMapper = new NoteMapperImpl();
+        note = BenchmarkData.note(1, 1_000);
+        List<Note> notes = IntStream.range(0, pageSize)
+                .mapToObj(i -> BenchmarkData.note(i, 1_000))
+                .toList();
+        notePage = new PageImpl<>(notes, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public NoteDto toDto() {
+        return noteMapper.toDto(note);
+    }
+
+    @Benchmark
+    public List<NotePreviewDto> toPreviewDtoList() {
+        return noteMapper.toPreviewDtoList(notePage);
+    }
+}
@@ -0,0 +1,286 @@
+package com.noteapp.repository;
+
+import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.model.WordCount;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Map-backed {@link NoteRepository} stand-in so benchmarks run without MongoDB.
+ * Only the methods the services call are supported; anything else throws.
+ */
+public final class InMemoryNoteRepository implements InvocationHandler {
+    private static final Comparator<Note> NEWEST_FIRST = Comparator.comparing(Note::getCreatedDate)
+            .thenComparing(Note::getId)
+            .reversed();
+
+    private final Map<String, Note> notes = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Duration latency;
+
+    private InMemoryNoteRepository(Duration latency) {
+        this.latency = latency;
+    }
+
+    public static NoteRepository create() {
+        return create(Duration.ZERO);
+    }
+
+    /**
+     * Blocks every repository call for {@code latency} to stand in for a MongoDB round trip.
+     */
+    public static NoteRepository create(Duration latency) {
+        return (NoteRepository) Proxy.newProxyInstance(
+                NoteRepository.class.getClassLoader(),
+                new Class<?>[]{NoteRepository.class},
+                new InMemoryNoteRepository(latency)
+        );
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) throws InterruptedException {
+        if (!latency.isZero() && method.getDeclaringClass() != Object.class) {
+            Thread.sleep(latency);
+        }
+
+        switch (method.getName()) {
+            case "save", "insert" -> {
+                if (args[0] instanceof Note note) return save(note);
+            }
+            case "findById" -> {
+                return Optional.ofNullable(notes.get((String) args[0]));
+            }
+            case "findForRead" -> {
+                return Optional.ofNullable(notes.get((String) args[0])).map(InMemoryNoteRepository::withoutStats);
+            }
+            case "findStatsById" -> {
+                return Optional.ofNullable(notes.get((String) args[0])).map(InMemoryNoteRepository::statsView);
+            }
+            case "findVersionById" -> {
+                return Optional.ofNullable(notes.get((String) args[0]))
+                        .map(note -> (NoteVersionView) note::getVersion);
+            }
+            case "findPreviews" -> {
+                return previews((List<NoteTagEnum>) args[0], (Pageable) args[1]);
+            }
+            case "findPreviewSlice" -> {
+                Page<NotePreviewDto> page = previews((List<NoteTagEnum>) args[0], (Pageable) args[1]);
+                return new SliceImpl<>(page.getContent(), page.getPageable(), page.hasNext());
+            }
+            case "countByTags" -> {
+                return matching((List<NoteTagEnum>) args[0]).count();
+            }
+            case "findPreviewsBefore" -> {
+                return previewsBefore((List<NoteTagEnum>) args[0], (Instant) args[1], (String) args[2], (int) args[3]);
+            }
+            case "patch" -> {
+                return patch((String) args[0], (Long) args[1], (NotePatch) args[2]);
+            }
+            case "setStatsIfUnset" -> {
+                return setStatsIfUnset((String) args[0], (Long) args[1], (List<WordCount>) args[2]);
+            }
+            case "insertAll" -> {
+                ((List<Note>) args[0]).forEach(this::save);
+                return new BulkWriteOutcome(((List<Note>) args[0]).size(), Map.of());
+            }
+            case "updateAll" -> {
+                return updateAll((List<NoteBulkUpdate>) args[0]);
+            }
+            case "findVersions" -> {
+                Map<String, Long> versions = new HashMap<>();
+                for (String id : (Collection<String>) args[0]) {
+                    Note note = notes.get(id);
+                    if (note != null) versions.put(id, note.getVersion());
+                }
+                return versions;
+            }
+            case "existsById" -> {
+                return notes.containsKey((String) args[0]);
+            }
+            case "removeById" -> {
+                return notes.remove((String) args[0]);
+            }
+            case "removeByIds" -> {
+                return ((List<String>) args[0]).stream().filter(id -> notes.remove(id) != null).count();
+            }
+            case "findSummariesByIds" -> {
+                return ((Collection<String>) args[0]).stream().map(notes::get).filter(Objects::nonNull).map(InMemoryNoteRepository::copy).toList();
+            }
+            case "streamSummariesByTags" -> {
+                return matching((List<NoteTagEnum>) args[0]).map(InMemoryNoteRepository::copy).toList().stream();
+            }
+            case "streamSearchFields" -> {
+                return notes.values().stream().map(InMemoryNoteRepository::copy).peek(note -> note.setText(null)).toList().stream();
+            }
+            case "streamSummaries" -> {
+                return notes.values().stream().map(InMemoryNoteRepository::copy).toList().stream();
+            }
+            case "streamNotes" -> {
+                Instant from = (Instant) args[1];
+                Instant to = (Instant) args[2];
+                return matching((List<NoteTagEnum>) args[0])
+                        .filter(note -> from == null || !note.getCreatedDate().isBefore(from))
+                        .filter(note -> to == null || note.getCreatedDate().isBefore(to))
+                        .sorted(NEWEST_FIRST.reversed())
+                        .toList()
+                        .stream();
+            }
+            case "delete" -> {
+                notes.remove(((Note) args[0]).getId());
+                return null;
+            }
+            case "deleteById" -> {
+                notes.remove((String) args[0]);
+                return null;
+            }
+            case "count" -> {
+                if (args == null) return (long) notes.size();
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            case "equals" -> {
+                return proxy == args[0];
+            }
+            case "toString" -> {
+                return "InMemoryNoteRepository(" + notes.size() + " notes)";
+            }
+            default -> {
+            }
+        }
+        throw new UnsupportedOperationException("Not supported by the in-memory repository: " + method);
+    }
+
+    private Note save(Note note) {
+        if (note.getId() == null) {
+            note.setId(String.format("%024x", sequence.incrementAndGet()));
+        }
+        if (note.getVersion() == null) {
+            note.setVersion(0L);
+        }
+        notes.put(note.getId(), note);
+        return note;
+    }
+
+    private Note patch(String id, Long expectedVersion, NotePatch patch) {
+        Note note = notes.get(id);
+        if (note == null || (expectedVersion != null && !expectedVersion.equals(note.getVersion()))) {
+            return null;
+        }
+
+        Note before = copy(note);
+        if (patch.title() != null) note.setTitle(patch.title());
+        if (patch.text() != null) {
+            note.setText(patch.text());
+            note.setStats(patch.stats());
+        }
+        if (patch.tags() != null) note.setTags(patch.tags());
+        note.setVersion(note.getVersion() == null ? 1 : note.getVersion() + 1);
+        return before;
+    }
+
+    private boolean setStatsIfUnset(String id, Long version, List<WordCount> stats) {
+        Note note = notes.get(id);
+        if (note == null || !Objects.equals(note.getVersion(), version) || note.getStats() != null) {
+            return false;
+        }
+        note.setStats(stats);
+        return true;
+    }
+
+    private BulkWriteOutcome updateAll(List<NoteBulkUpdate> updates) {
+        long matched = 0;
+        for (NoteBulkUpdate update : updates) {
+            Note note = notes.get(update.id());
+            if (note != null && Objects.equals(note.getVersion(), update.version())) {
+                patch(update.id(), null, update.patch());
+                matched++;
+            }
+        }
+        return new BulkWriteOutcome(matched, Map.of());
+    }
+
+    private Page<NotePreviewDto> previews(List<NoteTagEnum> tags, Pageable pageable) {
+        List<NotePreviewDto> sorted = matching(tags)
+                .sorted(NEWEST_FIRST)
+                .map(InMemoryNoteRepository::toPreview)
+                .toList();
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return new PageImpl<>(sorted.subList(from, to), pageable, sorted.size());
+    }
+
+    private List<NotePreviewDto> previewsBefore(List<NoteTagEnum> tags, Instant createdDate, String id, int limit) {
+        Note key = new Note();
+        key.setCreatedDate(createdDate);
+        key.setId(id);
+        return matching(tags)
+                .filter(note -> createdDate == null || NEWEST_FIRST.compare(note, key) > 0)
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .map(InMemoryNoteRepository::toPreview)
+                .toList();
+    }
+
+    private Stream<Note> matching(List<NoteTagEnum> tags) {
+        return notes.values().stream()
+                .filter(note -> tags == null || tags.isEmpty() || note.getTags().stream().anyMatch(tags::contains));
+    }
+
+    private static NoteStatsView statsView(Note note) {
+        return new NoteStatsView() {
+            @Override
+            public List<WordCount> getStats() {
+                return note.getStats();
+            }
+
+            @Override
+            public Long getVersion() {
+                return note.getVersion();
+            }
+        };
+    }
+
+    private static Note copy(Note note) {
+        Note copy = new Note();
+        copy.setId(note.getId());
+        copy.setTitle(note.getTitle());
+        copy.setText(note.getText());
+        copy.setTags(note.getTags());
+        copy.setStats(note.getStats());
+        copy.setCreatedDate(note.getCreatedDate());
+        copy.setVersion(note.getVersion());
+        return copy;
+    }
+
+    private static Note withoutStats(Note note) {
+        Note copy = copy(note);
+        copy.setStats(null);
+        return copy;
+    }
+
+    private static NotePreviewDto toPreview(Note note) {
+        return new NotePreviewDto(note.getId(), note.getTitle(), note.getCreatedDate());
+    }
+}
@@ -0,0 +1,85 @@
+package com.noteapp.repository;
+
+import com.noteapp.BenchmarkData;
+import com.noteapp.model.Note;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts a note to and from the BSON the driver sends, with the text compressed above each threshold.
+ * {@code storedBytes} in the write results is the size of the document as MongoDB stores it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoteTextCompressionBenchmark {
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    @Param({"off", "1024", "4096", "16384"})
+    private String minLength;
+
+    @Param({"1000", "10000", "100000"})
+    private int textSize;
+
+    private MappingMongoConverter converter;
+    private Note note;
+    private Document stored;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StoredSize {
+        public long storedBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        int threshold = minLength.equals("off") ? Integer.MAX_VALUE : Integer.parseInt(minLength);
+        NoteTextConverter textConverter = new NoteTextConverter(threshold, 6);
+        MongoCustomConversions conversions = MongoCustomConversions.create(adapter -> adapter.configurePropertyConversions(
+                registrar -> registrar.registerConverter(Note.class, "text", textConverter)));
+
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        note = BenchmarkData.note(1, textSize);
+        stored = toBson(note).decode(CODEC);
+    }
+
+    @Benchmark
+    public RawBsonDocument write(StoredSize size) {
+        RawBsonDocument bson = toBson(note);
+        size.storedBytes = bson.getByteBuffer().remaining();
+        return bson;
+    }
+
+    @Benchmark
+    public Note read() {
+        return converter.read(Note.class, stored);
+    }
+
+    private RawBsonDocument toBson(Note source) {
+        Document document = new Document();
+        converter.write(source, document);
+        return new RawBsonDocument(document, CODEC);
+    }
+}
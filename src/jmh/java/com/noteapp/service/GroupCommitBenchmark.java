@@ -0,0 +1,96 @@
+package com.noteapp.service;
+
+import com.noteapp.config.BatchProperties;
+import com.noteapp.config.CountCacheProperties;
+import com.noteapp.config.GroupCommitProperties;
+import com.noteapp.config.NoteCacheProperties;
+import com.noteapp.config.WordCountProperties;
+import com.noteapp.dto.CreateNoteRequest;
+import com.noteapp.mapper.NoteMapperImpl;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.repository.InMemoryNoteRepository;
+import com.noteapp.repository.NoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of concurrent creates against a repository with a simulated round trip, each create on its own
+ * insert or coalesced by {@link NoteInsertBatcher}. Per-note latency is in the {@code noteapp.group-commit.*}
+ * meters when running the application; here throughput is the measure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GroupCommitBenchmark {
+    private static final WordCountProperties WORD_COUNT_DEFAULTS = new WordCountProperties(1_048_576, 262_144, 0);
+    private static final BatchProperties BATCH_DEFAULTS = new BatchProperties(10_000, 1_000, 4, 16_777_216);
+    private static final int REQUESTS = 2_000;
+
+    @Param({"false", "true"})
+    private boolean groupCommit;
+
+    @Param({"64", "256"})
+    private int maxBatchSize;
+
+    @Param({"2"})
+    private int latencyMillis;
+
+    private ExecutorService executor;
+    private NoteInsertBatcher insertBatcher;
+    private NoteService noteService;
+    private CreateNoteRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NoteRepository noteRepository = InMemoryNoteRepository.create(Duration.ofMillis(latencyMillis));
+        NoteCountCache noteCountCache = new NoteCountCache(noteRepository, new CountCacheProperties(Duration.ofSeconds(30)));
+        NoteCache noteCache = new NoteCache(new NoteCacheProperties(false, 0, Duration.ZERO));
+        insertBatcher = new NoteInsertBatcher(noteRepository,
+                new GroupCommitProperties(groupCommit, maxBatchSize, Duration.ofMillis(2), REQUESTS), new SimpleMeterRegistry());
+        insertBatcher.start();
+        noteService = new NoteService(noteRepository, new NoteMapperImpl(), noteCountCache, noteCache,
+                new NoteSearchIndex(noteRepository), event -> {
+                }, insertBatcher, new ParallelWordCounter(WORD_COUNT_DEFAULTS), BATCH_DEFAULTS);
+
+        request = new CreateNoteRequest("Benchmark", "A short note body", List.of(NoteTagEnum.BUSINESS));
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.close();
+        insertBatcher.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public int createBurst() throws Exception {
+        List<Future<?>> responses = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(executor.submit(() -> noteService.createNote(request)));
+        }
+
+        for (Future<?> response : responses) {
+            response.get();
+        }
+        return responses.size();
+    }
+}
@@ -0,0 +1,95 @@
+package com.noteapp.service;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandSucceededEvent;
+import com.noteapp.BenchmarkData;
+import com.noteapp.config.BatchProperties;
+import com.noteapp.config.CountCacheProperties;
+import com.noteapp.config.GroupCommitProperties;
+import com.noteapp.config.NoteCacheProperties;
+import com.noteapp.config.WordCountProperties;
+import com.noteapp.dto.NoteDto;
+import com.noteapp.mapper.NoteMapperImpl;
+import com.noteapp.repository.InMemoryNoteRepository;
+import com.noteapp.repository.MongoCommandMetricsListener;
+import com.noteapp.repository.NoteRepository;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.RawBsonDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the metrics add per call: a cached note read with and without the {@code @Timed} aspect, and one
+ * command reply through {@link MongoCommandMetricsListener}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsOverheadBenchmark {
+    private static final WordCountProperties WORD_COUNT_DEFAULTS = new WordCountProperties(1_048_576, 262_144, 0);
+    private static final BatchProperties BATCH_DEFAULTS = new BatchProperties(10_000, 1_000, 4, 16_777_216);
+    private static final GroupCommitProperties GROUP_COMMIT_OFF =
+            new GroupCommitProperties(false, 256, Duration.ofMillis(2), 10_000);
+
+    private NoteService plainService;
+    private NoteService timedService;
+    private MongoCommandMetricsListener commandListener;
+    private CommandSucceededEvent findSucceeded;
+    private String id;
+
+    @Setup
+    public void setUp() {
+        NoteRepository noteRepository = InMemoryNoteRepository.create();
+        NoteCountCache noteCountCache = new NoteCountCache(noteRepository, new CountCacheProperties(Duration.ofSeconds(30)));
+        NoteCache noteCache = new NoteCache(new NoteCacheProperties(true, 16_777_216, Duration.ofMinutes(10)));
+        plainService = new NoteService(noteRepository, new NoteMapperImpl(), noteCountCache, noteCache,
+                new NoteSearchIndex(noteRepository), event -> {
+                }, new NoteInsertBatcher(noteRepository, GROUP_COMMIT_OFF, new SimpleMeterRegistry()),
+                new ParallelWordCounter(WORD_COUNT_DEFAULTS), BATCH_DEFAULTS);
+        id = noteRepository.save(BenchmarkData.note(1, 1_000)).getId();
+        plainService.getNoteDtoById(id);
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(plainService);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new TimedAspect(meterRegistry));
+        timedService = proxyFactory.getProxy();
+
+        commandListener = new MongoCommandMetricsListener(meterRegistry);
+        RawBsonDocument reply = RawBsonDocument.parse("""
+                {"cursor": {"firstBatch": [{"_id": "a", "title": "t"}, {"_id": "b", "title": "t"}], "id": 0,
+                 "ns": "noteapp.notes"}, "ok": 1}
+                """);
+        ConnectionDescription connection = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+        findSucceeded = new CommandSucceededEvent(null, 1L, 1, connection, "noteapp", "find", reply, 1_000L);
+    }
+
+    @Benchmark
+    public NoteDto getNotePlain() {
+        return plainService.getNoteDtoById(id);
+    }
+
+    @Benchmark
+    public NoteDto getNoteTimed() {
+        return timedService.getNoteDtoById(id);
+    }
+
+    @Benchmark
+    public void commandSucceeded() {
+        commandListener.commandSucceeded(findSucceeded);
+    }
+}
@@ -0,0 +1,104 @@
+package com.noteapp.service;
+
+import com.noteapp.BenchmarkData;
+import com.noteapp.config.BatchProperties;
+import com.noteapp.config.CountCacheProperties;
+import com.noteapp.config.GroupCommitProperties;
+import com.noteapp.config.NoteCacheProperties;
+import com.noteapp.config.WordCountProperties;
+import com.noteapp.dto.CreateNoteRequest;
+import com.noteapp.dto.NoteDto;
+import com.noteapp.dto.NoteStatsResponse;
+import com.noteapp.mapper.NoteMapperImpl;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.model.WordCount;
+import com.noteapp.repository.InMemoryNoteRepository;
+import com.noteapp.repository.NoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoteServiceBenchmark {
+    private static final WordCountProperties WORD_COUNT_DEFAULTS = new WordCountProperties(1_048_576, 262_144, 0);
+    private static final BatchProperties BATCH_DEFAULTS = new BatchProperties(10_000, 1_000, 4, 16_777_216);
+    private static final GroupCommitProperties GROUP_COMMIT_OFF =
+            new GroupCommitProperties(false, 256, Duration.ofMillis(2), 10_000);
+
+    @Param({"1000", "100000", "1000000"})
+    private int textSize;
+
+    @Param({"false", "true"})
+    private boolean cacheEnabled;
+
+    private NoteRepository noteRepository;
+    private NoteService noteService;
+    private String text;
+    private String computedId;
+    private String precomputedId;
+    private CreateNoteRequest createRequest;
+
+    @Setup
+    public void setUp() {
+        noteRepository = InMemoryNoteRepository.create();
+        NoteCountCache noteCountCache = new NoteCountCache(noteRepository, new CountCacheProperties(Duration.ofSeconds(30)));
+        NoteCache noteCache = new NoteCache(new NoteCacheProperties(cacheEnabled, 16_777_216, Duration.ofMinutes(10)));
+        noteService = new NoteService(noteRepository, new NoteMapperImpl(), noteCountCache, noteCache,
+                new NoteSearchIndex(noteRepository), event -> {
+                }, new NoteInsertBatcher(noteRepository, GROUP_COMMIT_OFF, new SimpleMeterRegistry()),
+                new ParallelWordCounter(WORD_COUNT_DEFAULTS), BATCH_DEFAULTS);
+        text = BenchmarkData.text(textSize);
+        createRequest = new CreateNoteRequest("Benchmark", text, List.of(NoteTagEnum.BUSINESS));
+
+        computedId = noteRepository.save(BenchmarkData.note(1, textSize)).getId();
+        Note precomputed = BenchmarkData.note(2, textSize);
+        precomputed.setStats(WordCounter.of(precomputed.getText()).toSortedList());
+        precomputedId = noteRepository.save(precomputed).getId();
+    }
+
+    @Benchmark
+    public List<WordCount> calculateStats() {
+        return WordCounter.of(text).toSortedList();
+    }
+
+    @Benchmark
+    public List<WordCount> calculateTop50() {
+        return WordCounter.of(text).top(50);
+    }
+
+    @Benchmark
+    public NoteDto createNote() {
+        NoteDto created = noteService.createNote(createRequest);
+        // Keep the in-memory store from growing across invocations
+        noteRepository.deleteById(created.id());
+        return created;
+    }
+
+    @Benchmark
+    public NoteStatsResponse getStatsComputed() {
+        return noteService.getStats(computedId, null);
+    }
+
+    @Benchmark
+    public NoteDto getNote() {
+        return noteService.getNoteDtoById(precomputedId);
+    }
+
+    @Benchmark
+    public NoteStatsResponse getStatsPrecomputed() {
+        return noteService.getStats(precomputedId, null);
+    }
+}
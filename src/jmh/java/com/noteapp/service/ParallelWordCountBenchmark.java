@@ -0,0 +1,59 @@
+package com.noteapp.service;
+
+import com.noteapp.BenchmarkData;
+import com.noteapp.config.WordCountProperties;
+import com.noteapp.model.WordCount;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the words of one large text sequentially and on the fork-join word-count pool at several pool sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelWordCountBenchmark {
+    @Param({"1000000", "10000000", "50000000"})
+    private int textSize;
+
+    @Param({"2", "4", "8"})
+    private int parallelism;
+
+    @Param({"262144"})
+    private int chunkSize;
+
+    private ParallelWordCounter wordCounter;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        wordCounter = new ParallelWordCounter(new WordCountProperties(0, chunkSize, parallelism));
+        text = BenchmarkData.text(textSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        wordCounter.shutdown();
+    }
+
+    @Benchmark
+    public List<WordCount> sequential() {
+        return WordCounter.of(text).toSortedList();
+    }
+
+    @Benchmark
+    public List<WordCount> parallel() {
+        return wordCounter.count(text).toSortedList();
+    }
+}
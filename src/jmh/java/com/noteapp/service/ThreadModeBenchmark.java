@@ -0,0 +1,124 @@
+package com.noteapp.service;
+
+import com.noteapp.BenchmarkData;
+import com.noteapp.config.BatchProperties;
+import com.noteapp.config.CountCacheProperties;
+import com.noteapp.config.GroupCommitProperties;
+import com.noteapp.config.NoteCacheProperties;
+import com.noteapp.config.WordCountProperties;
+import com.noteapp.exception.BulkheadFullException;
+import com.noteapp.mapper.NoteMapperImpl;
+import com.noteapp.repository.InMemoryNoteRepository;
+import com.noteapp.repository.NoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves a burst of concurrent note reads against a repository with a simulated round trip, once on a
+ * platform-thread pool sized like Tomcat's default and once on virtual threads, each behind a bulkhead. With the
+ * note cache on, as in production, the cache is cleared before every burst so its requests queue up behind one load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ThreadModeBenchmark {
+    private static final WordCountProperties WORD_COUNT_DEFAULTS = new WordCountProperties(1_048_576, 262_144, 0);
+    private static final BatchProperties BATCH_DEFAULTS = new BatchProperties(10_000, 1_000, 4, 16_777_216);
+    private static final GroupCommitProperties GROUP_COMMIT_OFF =
+            new GroupCommitProperties(false, 256, Duration.ofMillis(2), 10_000);
+    private static final int REQUESTS = 2_000;
+    // server.tomcat.threads.max
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    // Concurrent calls the bulkhead lets through; the larger value leaves the thread mode as the only limit
+    @Param({"100", "2000"})
+    private int bulkheadLimit;
+
+    @Param({"2"})
+    private int latencyMillis;
+
+    @Param({"false", "true"})
+    private boolean cacheEnabled;
+
+    private ExecutorService executor;
+    private NoteService noteService;
+    private NoteCache noteCache;
+    private Bulkhead bulkhead;
+    private String id;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NoteRepository noteRepository = InMemoryNoteRepository.create(Duration.ofMillis(latencyMillis));
+        NoteCountCache noteCountCache = new NoteCountCache(noteRepository, new CountCacheProperties(Duration.ofSeconds(30)));
+        noteCache = new NoteCache(new NoteCacheProperties(cacheEnabled, 16_777_216, Duration.ofMinutes(10)));
+        noteService = new NoteService(noteRepository, new NoteMapperImpl(), noteCountCache, noteCache,
+                new NoteSearchIndex(noteRepository), event -> {
+                }, new NoteInsertBatcher(noteRepository, GROUP_COMMIT_OFF, new SimpleMeterRegistry()),
+                new ParallelWordCounter(WORD_COUNT_DEFAULTS), BATCH_DEFAULTS);
+        id = noteRepository.save(BenchmarkData.note(1, 1_000)).getId();
+
+        executor = mode.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        bulkhead = new Bulkhead("NoteController.getNote", bulkheadLimit, Duration.ofSeconds(30), new SimpleMeterRegistry());
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        noteCache.invalidateAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public int getNoteBurst() throws Exception {
+        List<Future<Boolean>> responses = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(executor.submit(this::getNote));
+        }
+
+        int served = 0;
+        for (Future<Boolean> response : responses) {
+            if (response.get()) served++;
+        }
+        return served;
+    }
+
+    private boolean getNote() {
+        try {
+            bulkhead.acquire();
+        } catch (BulkheadFullException e) {
+            return false;
+        }
+        try {
+            return noteService.getNoteDtoById(id) != null;
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
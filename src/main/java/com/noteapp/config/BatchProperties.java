@@ -0,0 +1,27 @@
+package com.noteapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param maxItems largest batch a single request may carry
+ * @param chunkSize number of items sent to MongoDB per bulk write
+ * @param importWindow chunks an import may have in flight at once before it stops reading the upload
+ * @param maxImportLineLength chars a single import line may hold; longer lines are rejected without being read
+ *                            into memory. The default matches the largest document MongoDB stores
+ */
+@ConfigurationProperties("noteapp.batch")
+public record BatchProperties(
+        @DefaultValue("10000")
+        int maxItems,
+
+        @DefaultValue("1000")
+        int chunkSize,
+
+        @DefaultValue("4")
+        int importWindow,
+
+        @DefaultValue("16777216")
+        int maxImportLineLength
+) {
+}
@@ -0,0 +1,36 @@
+package com.noteapp.config;
+
+import com.noteapp.controller.BulkheadInterceptor;
+import com.noteapp.service.BulkheadRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig implements WebMvcConfigurer {
+    private final BulkheadProperties properties;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public BulkheadConfig(BulkheadProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.bulkheadRegistry = new BulkheadRegistry(properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry() {
+        return bulkheadRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (properties.enabled()) {
+            registry.addInterceptor(new BulkheadInterceptor(bulkheadRegistry));
+        }
+    }
+}
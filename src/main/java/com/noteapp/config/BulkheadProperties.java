@@ -0,0 +1,48 @@
+package com.noteapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * @param defaults limits of every endpoint without its own entry
+ * @param total limits of all endpoints together, which every call also has to pass; keep its
+ *              {@code maxConcurrentCalls} below the MongoDB pool size, as the endpoint limits add up to more
+ * @param endpoints limits keyed by handler name, e.g. {@code NoteController.getNote}
+ */
+@ConfigurationProperties("noteapp.bulkhead")
+public record BulkheadProperties(
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue
+        Limits defaults,
+
+        @DefaultValue
+        Limits total,
+
+        Map<String, Limits> endpoints
+) {
+    public BulkheadProperties {
+        endpoints = endpoints == null ? Map.of() : Map.copyOf(endpoints);
+    }
+
+    public Limits limits(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaults);
+    }
+
+    /**
+     * @param maxConcurrentCalls calls of the endpoint allowed to run at once
+     * @param maxWait how long a call queues for a free slot before it is rejected; zero rejects immediately
+     */
+    public record Limits(
+            @DefaultValue("64")
+            int maxConcurrentCalls,
+
+            @DefaultValue("100ms")
+            Duration maxWait
+    ) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.noteapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("noteapp.count-cache")
+public record CountCacheProperties(
+        @DefaultValue("30s")
+        Duration ttl
+) {
+}
@@ -0,0 +1,34 @@
+package com.noteapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param directory where the segment files live; created on startup
+ * @param segmentSize size each segment file is mapped at; a note larger than this gets a segment of its own
+ * @param syncWrites whether every write is forced to disk before it returns
+ * @param compactionInterval how often sealed segments are checked for compaction
+ * @param compactionThreshold share of dead bytes from which a sealed segment is rewritten
+ */
+@ConfigurationProperties("noteapp.storage.embedded")
+public record EmbeddedStorageProperties(
+        @DefaultValue("./data")
+        Path directory,
+
+        @DefaultValue("64MB")
+        DataSize segmentSize,
+
+        @DefaultValue("true")
+        boolean syncWrites,
+
+        @DefaultValue("1m")
+        Duration compactionInterval,
+
+        @DefaultValue("0.5")
+        double compactionThreshold
+) {
+}
@@ -0,0 +1,27 @@
+package com.noteapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maxBatchSize notes sent to MongoDB in one insert
+ * @param maxDelay how long the first queued note waits for others before its batch is flushed anyway
+ * @param queueCapacity notes that may wait for a flush; creates beyond that are rejected
+ */
+@ConfigurationProperties("noteapp.group-commit")
+public record GroupCommitProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("256")
+        int maxBatchSize,
+
+        @DefaultValue("2ms")
+        Duration maxDelay,
+
+        @DefaultValue("10000")
+        int queueCapacity
+) {
+}
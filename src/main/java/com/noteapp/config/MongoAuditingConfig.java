@@ -0,0 +1,14 @@
+package com.noteapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+
+/**
+ * Kept off the application class so the {@code embedded} profile, which has no MongoDB mapping context, can start.
+ */
+@Configuration
+@Profile("!embedded")
+@EnableMongoAuditing
+public class MongoAuditingConfig {
+}
@@ -0,0 +1,44 @@
+package com.noteapp.config;
+
+import com.mongodb.MongoCompressor;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoClientConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoClientSettingsCustomizer(MongoClientProperties properties) {
+        MongoClientProperties.Pool pool = properties.pool();
+        List<MongoCompressor> compressors = properties.compressors().stream()
+                .map(MongoClientConfig::compressor)
+                .toList();
+
+        return settings -> settings
+                .applyToConnectionPoolSettings(poolSettings -> poolSettings
+                        .maxSize(pool.maxSize())
+                        .minSize(pool.minSize())
+                        .maxConnecting(pool.maxConnecting())
+                        .maxWaitTime(pool.maxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(pool.maxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(properties.connectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout(properties.readTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(properties.serverSelectionTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .compressorList(compressors);
+    }
+
+    private static MongoCompressor compressor(String name) {
+        return switch (name) {
+            case "zstd" -> MongoCompressor.createZstdCompressor();
+            case "snappy" -> MongoCompressor.createSnappyCompressor();
+            case "zlib" -> MongoCompressor.createZlibCompressor();
+            default -> throw new IllegalArgumentException("Unknown MongoDB compressor " + name);
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.noteapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Driver settings applied on top of the connection URI; where both set an option, these win.
+ *
+ * @param readTimeout socket read timeout; zero waits indefinitely
+ * @param compressors wire compressors offered to the server in order of preference: {@code zstd}, {@code snappy},
+ *                    {@code zlib}. Empty sends uncompressed
+ */
+@ConfigurationProperties("noteapp.mongo")
+public record MongoClientProperties(
+        @DefaultValue
+        Pool pool,
+
+        @DefaultValue("10s")
+        Duration connectTimeout,
+
+        @DefaultValue("0s")
+        Duration readTimeout,
+
+        @DefaultValue("30s")
+        Duration serverSelectionTimeout,
+
+        List<String> compressors,
+
+        @DefaultValue
+        Reads reads
+) {
+    public MongoClientProperties {
+        compressors = compressors == null ? List.of() : List.copyOf(compressors);
+    }
+
+    /**
+     * @param maxConnecting connections a pool establishes at once; further requests wait in the queue
+     * @param maxWaitTime how long a request waits in the queue for a connection before failing
+     */
+    public record Pool(
+            @DefaultValue("100")
+            int maxSize,
+
+            @DefaultValue("0")
+            int minSize,
+
+            @DefaultValue("2")
+            int maxConnecting,
+
+            @DefaultValue("2s")
+            Duration maxWaitTime,
+
+            @DefaultValue("10m")
+            Duration maxConnectionIdleTime
+    ) {
+    }
+
+    /**
+     * @param readPreference mode used by read-only endpoints, e.g. {@code secondaryPreferred}; writes always go
+     *                       to the primary
+     * @param maxStaleness how far a secondary may lag and still serve reads; MongoDB requires at least 90s
+     * @param readYourWritesWindow how long after a write the note is read from the primary; keep it above
+     *                             {@code maxStaleness}
+     * @param maxRecentWrites ids remembered within the window; past this every read goes to the primary until
+     *                        the window has passed
+     */
+    public record Reads(
+            @DefaultValue("secondaryPreferred")
+            String readPreference,
+
+            @DefaultValue("90s")
+            Duration maxStaleness,
+
+            @DefaultValue("100s")
+            Duration readYourWritesWindow,
+
+            @DefaultValue("100000")
+            int maxRecentWrites
+    ) {
+    }
+}
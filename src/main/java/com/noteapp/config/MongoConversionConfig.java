@@ -0,0 +1,24 @@
+package com.noteapp.config;
+
+import com.noteapp.model.Note;
+import com.noteapp.repository.NoteTextConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+@Configuration
+public class MongoConversionConfig {
+
+    /**
+     * Shared by the blocking and the reactive templates, so both read and write compressed texts, including
+     * the text set by a patch. With compression disabled the converter still inflates texts written earlier.
+     */
+    @Bean
+    public MongoCustomConversions mongoCustomConversions(TextCompressionProperties properties) {
+        int minLength = properties.enabled() ? properties.minLength() : Integer.MAX_VALUE;
+        NoteTextConverter textConverter = new NoteTextConverter(minLength, properties.level());
+
+        return MongoCustomConversions.create(adapter -> adapter.configurePropertyConversions(registrar ->
+                registrar.registerConverter(Note.class, "text", textConverter)));
+    }
+}
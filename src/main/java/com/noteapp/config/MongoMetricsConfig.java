@@ -0,0 +1,21 @@
+package com.noteapp.config;
+
+import com.noteapp.repository.MongoCommandMetricsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoMetricsConfig {
+
+    /**
+     * Applies to the blocking and the reactive client alike; Spring Boot adds its own command timer and pool
+     * listeners next to this one.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetricsCustomizer(MeterRegistry meterRegistry) {
+        MongoCommandMetricsListener listener = new MongoCommandMetricsListener(meterRegistry);
+        return settings -> settings.addCommandListener(listener);
+    }
+}
@@ -1,33 +1,60 @@
 package com.noteapp.config;
 
+import com.mongodb.MongoException;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.CreateCollectionOptions;
 import com.mongodb.client.model.ValidationLevel;
 import com.mongodb.client.model.ValidationOptions;
+import com.noteapp.repository.NoteTextConverter;
+import com.noteapp.service.NoteIndexService;
+import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.EventListener;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.data.mongodb.core.schema.JsonSchemaProperty;
 import org.springframework.data.mongodb.core.schema.MongoJsonSchema;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.schema.JsonSchemaProperty.int32;
 import static org.springframework.data.mongodb.core.schema.JsonSchemaProperty.string;
 
+@Slf4j
 @Configuration
+@Profile("!reactive & !embedded")
 public class MongoSchemaConfig {
 
     private final MongoTemplate mongoTemplate;
+    private final NoteIndexService noteIndexService;
 
-    public MongoSchemaConfig(MongoTemplate mongoTemplate) {
+    public MongoSchemaConfig(MongoTemplate mongoTemplate, NoteIndexService noteIndexService) {
         this.mongoTemplate = mongoTemplate;
+        this.noteIndexService = noteIndexService;
     }
 
     @EventListener(org.springframework.boot.context.event.ApplicationReadyEvent.class)
     public void initSchema() {
 
+        // A text is either a plain string or the compressed form written by NoteTextConverter
+        JsonSchemaObject compressedText = JsonSchemaObject.object()
+                .required(NoteTextConverter.CODEC, NoteTextConverter.LENGTH, NoteTextConverter.DATA)
+                .properties(
+                        string(NoteTextConverter.CODEC).possibleValues(NoteTextConverter.DEFLATE),
+                        int32(NoteTextConverter.LENGTH).gte(1),
+                        JsonSchemaProperty.named(NoteTextConverter.DATA).ofType(JsonSchemaObject.Type.binaryType())
+                );
+
         MongoJsonSchema schema = MongoJsonSchema.builder()
                 .required("title", "text")
                 .properties(
                         string("title").minLength(1),
-                        string("text").minLength(1)
+                        JsonSchemaProperty.untyped("text").oneOf(List.of(
+                                JsonSchemaObject.string().minLength(1),
+                                compressedText
+                        ))
                 )
                 .build();
 
@@ -46,7 +73,17 @@ public class MongoSchemaConfig {
                                             .validationLevel(ValidationLevel.STRICT)
                             )
             );
+        } else {
+            // Collections created before texts could be compressed still carry the string-only validator
+            try {
+                db.runCommand(new Document("collMod", collectionName)
+                        .append("validator", jsonSchemaDoc)
+                        .append("validationLevel", ValidationLevel.STRICT.getValue()));
+            } catch (MongoException e) {
+                log.error("Failed to update the validator on {}: {}", collectionName, e.getMessage());
+            }
         }
+
+        noteIndexService.ensureIndexes();
     }
 }
-
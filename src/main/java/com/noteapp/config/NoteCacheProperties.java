@@ -0,0 +1,23 @@
+package com.noteapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maximumWeight upper bound on the summed title, text and stats length, in chars, of all cached notes
+ * @param expireAfterWrite bounds how long an entry can outlive a write made through another instance
+ */
+@ConfigurationProperties("noteapp.note-cache")
+public record NoteCacheProperties(
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("16777216")
+        long maximumWeight,
+
+        @DefaultValue("10m")
+        Duration expireAfterWrite
+) {
+}
@@ -0,0 +1,21 @@
+package com.noteapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param minLength texts shorter than this many chars are stored as plain strings
+ * @param level deflate level from 1 (fastest) to 9 (smallest)
+ */
+@ConfigurationProperties("noteapp.text-compression")
+public record TextCompressionProperties(
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("4096")
+        int minLength,
+
+        @DefaultValue("6")
+        int level
+) {
+}
@@ -0,0 +1,22 @@
+package com.noteapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param parallelThreshold texts from this many chars on are counted on the word-count pool
+ * @param chunkSize chars a single fork-join task counts without splitting further
+ * @param parallelism threads of the word-count pool; 0 uses half the available processors
+ */
+@ConfigurationProperties("noteapp.word-count")
+public record WordCountProperties(
+        @DefaultValue("1048576")
+        int parallelThreshold,
+
+        @DefaultValue("262144")
+        int chunkSize,
+
+        @DefaultValue("0")
+        int parallelism
+) {
+}
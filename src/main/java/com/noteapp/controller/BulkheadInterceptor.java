@@ -0,0 +1,55 @@
+package com.noteapp.controller;
+
+import com.noteapp.service.Bulkhead;
+import com.noteapp.service.BulkheadRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Runs every controller call inside the bulkhead of its handler, named {@code Controller.method}, and the
+ * bulkhead all handlers share. The handler slot is taken first, so a call its own endpoint rejects never
+ * holds a shared slot.
+ * <p>
+ * A streaming response keeps its slot until the async dispatch that completes it, since the stream holds a
+ * database cursor for its whole length.
+ */
+@RequiredArgsConstructor
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+    private static final String PERMIT = BulkheadInterceptor.class.getName() + ".permit";
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || request.getAttribute(PERMIT) != null) {
+            return true;
+        }
+
+        Bulkhead bulkhead = bulkheadRegistry.get(endpointName(method));
+        bulkhead.acquire();
+        try {
+            bulkheadRegistry.total().acquire();
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+        request.setAttribute(PERMIT, bulkhead);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT) instanceof Bulkhead bulkhead) {
+            request.removeAttribute(PERMIT);
+            bulkheadRegistry.total().release();
+            bulkhead.release();
+        }
+    }
+
+    static String endpointName(HandlerMethod method) {
+        return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+    }
+}
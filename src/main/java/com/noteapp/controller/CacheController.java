@@ -0,0 +1,25 @@
+package com.noteapp.controller;
+
+import com.noteapp.dto.CacheStatsResponse;
+import com.noteapp.service.NoteService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+    private final NoteService noteService;
+
+    @GetMapping("/notes")
+    public ResponseEntity<CacheStatsResponse> getNoteCacheStats() {
+        CacheStatsResponse cacheStats = noteService.getCacheStats();
+
+        return ResponseEntity.ok(cacheStats);
+    }
+}
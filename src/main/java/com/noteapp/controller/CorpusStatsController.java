@@ -0,0 +1,38 @@
+package com.noteapp.controller;
+
+import com.noteapp.dto.CorpusStatsResponse;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.service.CorpusStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/notes/stats")
+@RequiredArgsConstructor
+public class CorpusStatsController {
+    private final CorpusStatsService corpusStatsService;
+
+    @GetMapping
+    public ResponseEntity<CorpusStatsResponse> getCorpusStats(
+            @RequestParam(required = false) NoteTagEnum tag,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        CorpusStatsResponse corpusStats = corpusStatsService.getStats(tag, limit);
+
+        return ResponseEntity.ok(corpusStats);
+    }
+
+    @PostMapping("/recompute")
+    public ResponseEntity<Void> recompute() {
+        corpusStatsService.recompute();
+
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.noteapp.controller;
+
+/**
+ * Weak entity tags derived from the note version. Tomcat does not compress a response carrying a strong tag,
+ * since compression changes its bytes; the version still identifies the note exactly, so {@code If-Match}
+ * accepts the tag in either form.
+ */
+final class ETags {
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return WEAK_PREFIX + "\"" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * Returns the version an {@code If-Match} header requires, or null when the header is absent or {@code *}.
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.startsWith(WEAK_PREFIX)) {
+            tag = tag.substring(WEAK_PREFIX.length());
+        }
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must be a single entity tag");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be a single entity tag", e);
+        }
+    }
+}
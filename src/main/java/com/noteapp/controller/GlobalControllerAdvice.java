@@ -1,12 +1,17 @@
 package com.noteapp.controller;
 
 import com.noteapp.dto.ErrorDto;
+import com.noteapp.exception.BulkheadFullException;
 import com.noteapp.exception.NotFoundException;
+import com.noteapp.exception.PreconditionFailedException;
+import com.noteapp.exception.SearchIndexNotReadyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -22,6 +27,15 @@ public class GlobalControllerAdvice {
         return ResponseEntity.badRequest().body(errors);
     }
 
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleNotValidRequestBody(WebExchangeBindException e) {
+        Map<String, String> errors = new HashMap<>();
+        e.getBindingResult().getFieldErrors().forEach(error -> {
+            errors.put(error.getField(), error.getDefaultMessage());
+        });
+        return ResponseEntity.badRequest().body(errors);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorDto> handleIllegalArgumentException(IllegalArgumentException e) {
         return ResponseEntity.badRequest().body(new ErrorDto(
@@ -40,5 +54,34 @@ public class GlobalControllerAdvice {
         ));
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorDto> handlePreconditionFailedException(PreconditionFailedException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(new ErrorDto(
+                HttpStatus.PRECONDITION_FAILED.getReasonPhrase(),
+                HttpStatus.PRECONDITION_FAILED.value(),
+                e.getMessage()
+        ));
+    }
 
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ErrorDto> handleBulkheadFullException(BulkheadFullException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorDto(
+                        HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        e.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(SearchIndexNotReadyException.class)
+    public ResponseEntity<ErrorDto> handleSearchIndexNotReadyException(SearchIndexNotReadyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(new ErrorDto(
+                        HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        e.getMessage()
+                ));
+    }
 }
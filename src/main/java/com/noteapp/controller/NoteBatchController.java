@@ -0,0 +1,55 @@
+package com.noteapp.controller;
+
+import com.noteapp.dto.BatchResponse;
+import com.noteapp.dto.BatchUpdateNoteRequest;
+import com.noteapp.dto.CreateNoteRequest;
+import com.noteapp.service.NoteBatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Items are validated one by one in the service rather than with {@code @Valid}, so an invalid item is
+ * reported in its own result instead of rejecting the whole batch.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/notes/batch")
+@RequiredArgsConstructor
+public class NoteBatchController {
+    private final NoteBatchService noteBatchService;
+
+    @PostMapping
+    public ResponseEntity<BatchResponse> createNotes(
+            @RequestBody List<CreateNoteRequest> body
+    ) {
+        BatchResponse batchResponse = noteBatchService.createNotes(body);
+
+        return ResponseEntity.ok(batchResponse);
+    }
+
+    @PatchMapping
+    public ResponseEntity<BatchResponse> updateNotes(
+            @RequestBody List<BatchUpdateNoteRequest> body
+    ) {
+        BatchResponse batchResponse = noteBatchService.updateNotes(body);
+
+        return ResponseEntity.ok(batchResponse);
+    }
+
+    @PostMapping("/delete")
+    public ResponseEntity<BatchResponse> deleteNotes(
+            @RequestBody List<String> body
+    ) {
+        BatchResponse batchResponse = noteBatchService.deleteNotes(body);
+
+        return ResponseEntity.ok(batchResponse);
+    }
+}
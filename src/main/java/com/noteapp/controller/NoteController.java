@@ -1,19 +1,26 @@
 package com.noteapp.controller;
 
+import com.noteapp.dto.BulkDeleteResponse;
 import com.noteapp.dto.CreateNoteRequest;
 import com.noteapp.dto.NoteDto;
 import com.noteapp.dto.NoteParams;
+import com.noteapp.dto.NotePreviewCursorPage;
 import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.dto.NotePreviewSlice;
+import com.noteapp.dto.NoteSearchHit;
 import com.noteapp.dto.NoteStatsResponse;
 import com.noteapp.dto.NoteTextResponse;
+import com.noteapp.dto.TotalMode;
 import com.noteapp.dto.UpdateNoteRequest;
 import com.noteapp.service.NoteService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,15 +28,22 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/notes")
 @RequiredArgsConstructor
 public class NoteController {
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdDate");
+
     private final NoteService noteService;
 
     @PostMapping
@@ -43,52 +57,116 @@ public class NoteController {
 
     @GetMapping("/{id}")
     public ResponseEntity<NoteDto> getNote(
-            @PathVariable String id
+            @PathVariable String id,
+            WebRequest request
     ) {
+        if (isNotModified(id, request)) {
+            return null;
+        }
+
         NoteDto note = noteService.getNoteDtoById(id);
 
-        return ResponseEntity.ok(note);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(note.version()))
+                .body(note);
     }
 
     @GetMapping
     public ResponseEntity<Page<NotePreviewDto>> getAllNotes(
             NoteParams params,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "EXACT") TotalMode total
     ) {
-        Sort sort = Sort.by(Sort.Direction.DESC, "createdDate");
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = PageRequest.of(page, size, NEWEST_FIRST);
 
-        Page<NotePreviewDto> previewDtoPage = noteService.getNotePreviews(params, pageable);
+        Page<NotePreviewDto> previewDtoPage = total == TotalMode.ESTIMATED
+                ? noteService.getNotePreviewsWithEstimatedTotal(params, pageable)
+                : noteService.getNotePreviews(params, pageable);
 
         return ResponseEntity.ok(previewDtoPage);
     }
 
+    // A cursor page is a slice already; with both parameters the cursor wins instead of an ambiguous mapping
+    @GetMapping(params = {"slice=true", "!after"})
+    public ResponseEntity<NotePreviewSlice> getNoteSlice(
+            NoteParams params,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        Pageable pageable = PageRequest.of(page, size, NEWEST_FIRST);
+
+        NotePreviewSlice previewSlice = noteService.getNotePreviewSlice(params, pageable);
+
+        return ResponseEntity.ok(previewSlice);
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<NotePreviewCursorPage> getNotesAfter(
+            NoteParams params,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        NotePreviewCursorPage cursorPage = noteService.getNotePreviewsAfter(params, after, size);
+
+        return ResponseEntity.ok(cursorPage);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Page<NoteSearchHit>> searchNotes(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        Page<NoteSearchHit> searchHits = noteService.searchNotes(q, PageRequest.of(page, size));
+
+        return ResponseEntity.ok(searchHits);
+    }
 
     @GetMapping("/{id}/text")
     public ResponseEntity<NoteTextResponse> getNoteText(
-            @PathVariable String id
+            @PathVariable String id,
+            WebRequest request
     ) {
+        if (isNotModified(id, request)) {
+            return null;
+        }
+
         NoteTextResponse noteTextResponse = noteService.getText(id);
 
-        return ResponseEntity.ok(noteTextResponse);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(noteTextResponse.version()))
+                .body(noteTextResponse);
     }
 
     @GetMapping("/{id}/stats")
-    public ResponseEntity<NoteStatsResponse> stats(@PathVariable String id) {
-        NoteStatsResponse statsResponse = noteService.getStats(id);
+    public ResponseEntity<NoteStatsResponse> stats(
+            @PathVariable String id,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request
+    ) {
+        if (isNotModified(id, request)) {
+            return null;
+        }
+
+        NoteStatsResponse statsResponse = noteService.getStats(id, limit);
 
-        return ResponseEntity.ok(statsResponse);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(statsResponse.version()))
+                .body(statsResponse);
     }
 
     @PatchMapping("/{id}")
     public ResponseEntity<NoteDto> updateNote(
             @PathVariable String id,
-            @RequestBody @Valid UpdateNoteRequest body
+            @RequestBody @Valid UpdateNoteRequest body,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        NoteDto note = noteService.updateNote(body, id);
+        NoteDto note = noteService.updateNote(body, id, ETags.parseIfMatch(ifMatch));
 
-        return ResponseEntity.ok(note);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(note.version()))
+                .body(note);
     }
 
     @DeleteMapping("/{id}")
@@ -99,4 +177,23 @@ public class NoteController {
 
         return ResponseEntity.ok().build();
     }
+
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteResponse> deleteNotes(
+            NoteParams params,
+            @RequestParam(required = false) List<String> ids
+    ) {
+        BulkDeleteResponse deleteResponse = noteService.deleteNotes(ids, params);
+
+        return ResponseEntity.ok(deleteResponse);
+    }
+
+    /**
+     * Answers a conditional GET from the version alone, so an unchanged note is never loaded. On a match
+     * the 304 status is already set and the handler returns null.
+     */
+    private boolean isNotModified(String id, WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(ETags.of(noteService.getVersion(id)));
+    }
 }
@@ -0,0 +1,58 @@
+package com.noteapp.controller;
+
+import com.noteapp.dto.ImportSummaryResponse;
+import com.noteapp.dto.NoteParams;
+import com.noteapp.service.NoteTransferService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/notes")
+@RequiredArgsConstructor
+public class NoteTransferController {
+    private final NoteTransferService noteTransferService;
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportNotes(
+            NoteParams params,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        noteTransferService.checkExportRange(from, to);
+
+        StreamingResponseBody body = out -> noteTransferService.exportNotes(params.tags(), from, to, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportSummaryResponse> importNotes(
+            InputStream body,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding
+    ) throws IOException {
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body;
+
+        ImportSummaryResponse importSummary = noteTransferService.importNotes(in);
+
+        return ResponseEntity.ok(importSummary);
+    }
+}
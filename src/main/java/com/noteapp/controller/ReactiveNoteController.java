@@ -0,0 +1,143 @@
+package com.noteapp.controller;
+
+import com.noteapp.dto.CreateNoteRequest;
+import com.noteapp.dto.NoteDto;
+import com.noteapp.dto.NoteParams;
+import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.dto.NoteStatsResponse;
+import com.noteapp.dto.NoteTextResponse;
+import com.noteapp.dto.UpdateNoteRequest;
+import com.noteapp.service.ReactiveNoteService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PagedModel;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * WebFlux counterpart of {@link NoteController} and the export of {@link NoteTransferController}, active with
+ * the {@code reactive} profile. Pages have the same shape as the servlet ones. Exports are written as the
+ * database cursor emits, so a slow client slows the cursor down instead of the server buffering the result.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/notes")
+@RequiredArgsConstructor
+public class ReactiveNoteController {
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdDate");
+
+    private final ReactiveNoteService noteService;
+
+    @PostMapping
+    public Mono<ResponseEntity<NoteDto>> createNote(
+            @RequestBody @Valid CreateNoteRequest body
+    ) {
+        return noteService.createNote(body).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<NoteDto>> getNote(
+            @PathVariable String id,
+            ServerWebExchange exchange
+    ) {
+        return ifModified(id, exchange, noteService::getNoteDtoById)
+                .map(note -> ResponseEntity.ok()
+                        .eTag(ETags.of(note.version()))
+                        .body(note));
+    }
+
+    @GetMapping
+    public Mono<PagedModel<NotePreviewDto>> getAllNotes(
+            NoteParams params,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return noteService.getNotePreviews(params, PageRequest.of(page, size, NEWEST_FIRST)).map(PagedModel::new);
+    }
+
+    @GetMapping("/{id}/text")
+    public Mono<ResponseEntity<NoteTextResponse>> getNoteText(
+            @PathVariable String id,
+            ServerWebExchange exchange
+    ) {
+        return ifModified(id, exchange, noteService::getText)
+                .map(text -> ResponseEntity.ok()
+                        .eTag(ETags.of(text.version()))
+                        .body(text));
+    }
+
+    @GetMapping("/{id}/stats")
+    public Mono<ResponseEntity<NoteStatsResponse>> stats(
+            @PathVariable String id,
+            @RequestParam(required = false) Integer limit,
+            ServerWebExchange exchange
+    ) {
+        return ifModified(id, exchange, noteId -> noteService.getStats(noteId, limit))
+                .map(stats -> ResponseEntity.ok()
+                        .eTag(ETags.of(stats.version()))
+                        .body(stats));
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<NoteDto>> updateNote(
+            @PathVariable String id,
+            @RequestBody @Valid UpdateNoteRequest body,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        return noteService.updateNote(body, id, ETags.parseIfMatch(ifMatch))
+                .map(note -> ResponseEntity.ok()
+                        .eTag(ETags.of(note.version()))
+                        .body(note));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteNote(
+            @PathVariable String id
+    ) {
+        return noteService.deleteNote(id).thenReturn(ResponseEntity.ok().build());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<NoteDto> exportNotes(
+            NoteParams params,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        return noteService.exportNotes(params, from, to);
+    }
+
+    /**
+     * Answers a conditional GET from the version alone, so an unchanged note is never loaded. On a match
+     * the 304 status is already set and the result completes empty.
+     */
+    private <T> Mono<T> ifModified(String id, ServerWebExchange exchange, Function<String, Mono<T>> read) {
+        if (!exchange.getRequest().getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH)) {
+            return read.apply(id);
+        }
+
+        return noteService.getVersion(id)
+                .filter(version -> !exchange.checkNotModified(ETags.of(version)))
+                .flatMap(version -> read.apply(id));
+    }
+}
@@ -0,0 +1,25 @@
+package com.noteapp.controller;
+
+import com.noteapp.dto.IndexStatusResponse;
+import com.noteapp.service.NoteIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Profile("!reactive & !embedded")
+@RequestMapping("/api/schema")
+@RequiredArgsConstructor
+public class SchemaController {
+    private final NoteIndexService noteIndexService;
+
+    @GetMapping("/indexes")
+    public ResponseEntity<IndexStatusResponse> getIndexStatus() {
+        IndexStatusResponse indexStatus = noteIndexService.getIndexStatus();
+
+        return ResponseEntity.ok(indexStatus);
+    }
+}
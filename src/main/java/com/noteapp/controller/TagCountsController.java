@@ -0,0 +1,25 @@
+package com.noteapp.controller;
+
+import com.noteapp.dto.TagCountsResponse;
+import com.noteapp.service.TagCountService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/notes/tags")
+@RequiredArgsConstructor
+public class TagCountsController {
+    private final TagCountService tagCountService;
+
+    @GetMapping("/counts")
+    public ResponseEntity<TagCountsResponse> getTagCounts() {
+        TagCountsResponse tagCounts = tagCountService.getCounts();
+
+        return ResponseEntity.ok(tagCounts);
+    }
+}
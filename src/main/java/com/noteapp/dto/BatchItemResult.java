@@ -0,0 +1,9 @@
+package com.noteapp.dto;
+
+public record BatchItemResult(
+        int index,
+        String id,
+        int status,
+        String error
+) {
+}
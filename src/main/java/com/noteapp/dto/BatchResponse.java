@@ -0,0 +1,10 @@
+package com.noteapp.dto;
+
+import java.util.List;
+
+public record BatchResponse(
+        int succeeded,
+        int failed,
+        List<BatchItemResult> items
+) {
+}
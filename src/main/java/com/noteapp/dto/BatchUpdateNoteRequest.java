@@ -0,0 +1,23 @@
+package com.noteapp.dto;
+
+import com.noteapp.model.NoteTagEnum;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchUpdateNoteRequest(
+        @NotBlank
+        String id,
+
+        @Size(min = 1)
+        String title,
+
+        @Size(min = 1)
+        String text,
+
+        List<NoteTagEnum> tags,
+
+        Long version
+) {
+}
@@ -0,0 +1,6 @@
+package com.noteapp.dto;
+
+public record BulkDeleteResponse(
+        long deleted
+) {
+}
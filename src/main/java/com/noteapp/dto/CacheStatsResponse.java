@@ -0,0 +1,12 @@
+package com.noteapp.dto;
+
+public record CacheStatsResponse(
+        boolean enabled,
+        long size,
+        long weight,
+        long hitCount,
+        long missCount,
+        long evictionCount,
+        double hitRate
+) {
+}
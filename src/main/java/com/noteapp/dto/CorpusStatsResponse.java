@@ -0,0 +1,14 @@
+package com.noteapp.dto;
+
+import com.noteapp.model.NoteTagEnum;
+
+import java.util.List;
+
+/**
+ * @param tag the tag the counts are restricted to, or null for the whole collection
+ */
+public record CorpusStatsResponse(
+        NoteTagEnum tag,
+        List<NoteStatsEntry> stats
+) {
+}
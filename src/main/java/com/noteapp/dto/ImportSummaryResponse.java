@@ -0,0 +1,17 @@
+package com.noteapp.dto;
+
+import java.util.List;
+
+/**
+ * @param rejectedLines 1-based line numbers of rejected records, capped so huge uploads keep a bounded summary
+ * @param rejectedLinesTruncated whether more lines were rejected than listed
+ */
+public record ImportSummaryResponse(
+        long imported,
+        long rejected,
+        List<Long> rejectedLines,
+        boolean rejectedLinesTruncated,
+        long elapsedMillis,
+        double notesPerSecond
+) {
+}
@@ -0,0 +1,9 @@
+package com.noteapp.dto;
+
+import java.util.List;
+
+public record IndexStatusResponse(
+        List<String> present,
+        List<String> missing
+) {
+}
@@ -10,6 +10,7 @@ public record NoteDto(
         String title,
         String text,
         List<NoteTagEnum> tags,
-        Instant createdDate
+        Instant createdDate,
+        Long version
 ) {
 }
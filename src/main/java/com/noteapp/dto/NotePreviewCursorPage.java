@@ -0,0 +1,9 @@
+package com.noteapp.dto;
+
+import java.util.List;
+
+public record NotePreviewCursorPage(
+        List<NotePreviewDto> content,
+        String next
+) {
+}
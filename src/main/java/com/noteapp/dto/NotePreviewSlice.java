@@ -0,0 +1,11 @@
+package com.noteapp.dto;
+
+import java.util.List;
+
+public record NotePreviewSlice(
+        List<NotePreviewDto> content,
+        int page,
+        int size,
+        boolean hasNext
+) {
+}
@@ -0,0 +1,11 @@
+package com.noteapp.dto;
+
+import java.time.Instant;
+
+public record NoteSearchHit(
+        String id,
+        String title,
+        Instant createdDate,
+        double score
+) {
+}
@@ -4,6 +4,7 @@ import java.util.List;
 
 public record NoteStatsResponse(
         String noteId,
-        List<NoteStatsEntry> stats
+        List<NoteStatsEntry> stats,
+        Long version
 ) {
 }
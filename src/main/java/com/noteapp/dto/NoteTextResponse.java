@@ -2,6 +2,7 @@ package com.noteapp.dto;
 
 public record NoteTextResponse(
         String id,
-        String text
+        String text,
+        Long version
 ) {
 }
@@ -0,0 +1,13 @@
+package com.noteapp.dto;
+
+import com.noteapp.model.NoteTagEnum;
+
+import java.util.Map;
+
+/**
+ * @param counts the number of notes carrying each tag, with every tag present
+ */
+public record TagCountsResponse(
+        Map<NoteTagEnum, Long> counts
+) {
+}
@@ -0,0 +1,5 @@
+package com.noteapp.dto;
+
+public enum TotalMode {
+    EXACT, ESTIMATED
+}
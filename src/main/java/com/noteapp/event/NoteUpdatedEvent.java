@@ -0,0 +1,14 @@
+package com.noteapp.event;
+
+import com.noteapp.model.Note;
+import com.noteapp.repository.NotePatch;
+
+/**
+ * Published after a note was updated. {@code before} holds at least the id, version, tags and stats the note had
+ * right before {@code patch} was applied.
+ */
+public record NoteUpdatedEvent(
+        Note before,
+        NotePatch patch
+) {
+}
@@ -0,0 +1,13 @@
+package com.noteapp.event;
+
+import com.noteapp.model.Note;
+
+import java.util.List;
+
+/**
+ * Published after notes were inserted, with the notes as they were written.
+ */
+public record NotesCreatedEvent(
+        List<Note> notes
+) {
+}
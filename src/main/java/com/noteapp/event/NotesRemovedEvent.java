@@ -0,0 +1,13 @@
+package com.noteapp.event;
+
+import com.noteapp.model.Note;
+
+import java.util.List;
+
+/**
+ * Published after notes were deleted. Each note holds at least its id, version, tags and stats.
+ */
+public record NotesRemovedEvent(
+        List<Note> notes
+) {
+}
@@ -3,6 +3,7 @@ package com.noteapp.model;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -23,4 +24,9 @@ public class Note {
     private List<NoteTagEnum> tags = new ArrayList<>();
 
     private Instant createdDate;
+
+    private List<WordCount> stats;
+
+    @Version
+    private Long version;
 }
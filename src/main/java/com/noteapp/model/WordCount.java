@@ -0,0 +1,7 @@
+package com.noteapp.model;
+
+public record WordCount(
+        String word,
+        long count
+) {
+}
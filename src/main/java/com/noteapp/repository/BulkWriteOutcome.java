@@ -0,0 +1,13 @@
+package com.noteapp.repository;
+
+import java.util.Map;
+
+/**
+ * @param count inserted or matched documents, depending on the operation
+ * @param errors write errors keyed by the index of the failed item within the bulk
+ */
+public record BulkWriteOutcome(
+        long count,
+        Map<Integer, String> errors
+) {
+}
@@ -0,0 +1,85 @@
+package com.noteapp.repository;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many documents and how many reply bytes each MongoDB command returns. Latency and pool usage are
+ * already covered by the {@code mongodb.driver.*} meters Spring Boot registers; this adds what they leave out.
+ * <p>
+ * The driver hands replies over as {@link RawBsonDocument}, so the byte size is read off the buffer and batch
+ * sizes are counted without decoding the documents.
+ */
+public class MongoCommandMetricsListener implements CommandListener {
+    private static final BsonDocumentCodec BSON_CODEC = new BsonDocumentCodec();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CommandMeters> meters = new ConcurrentHashMap<>();
+
+    public MongoCommandMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        BsonDocument reply = event.getResponse();
+        CommandMeters commandMeters = meters.computeIfAbsent(event.getCommandName(), this::commandMeters);
+
+        commandMeters.replyBytes().record(sizeInBytes(reply));
+        long documents = documents(reply);
+        if (documents >= 0) {
+            commandMeters.documents().record(documents);
+        }
+    }
+
+    private CommandMeters commandMeters(String command) {
+        return new CommandMeters(
+                DistributionSummary.builder("noteapp.mongo.command.documents")
+                        .description("Documents returned or affected by a command")
+                        .tag("command", command)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                DistributionSummary.builder("noteapp.mongo.command.reply")
+                        .description("Size of a command reply")
+                        .baseUnit("bytes")
+                        .tag("command", command)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+        );
+    }
+
+    private static int sizeInBytes(BsonDocument reply) {
+        RawBsonDocument raw = reply instanceof RawBsonDocument rawReply ? rawReply : new RawBsonDocument(reply, BSON_CODEC);
+        return raw.getByteBuffer().remaining();
+    }
+
+    /**
+     * Batch size for cursor replies, {@code n} for writes and counts, -1 for replies that carry neither.
+     */
+    private static long documents(BsonDocument reply) {
+        BsonValue cursor = reply.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonDocument cursorDocument = cursor.asDocument();
+            BsonValue batch = cursorDocument.containsKey("firstBatch")
+                    ? cursorDocument.get("firstBatch")
+                    : cursorDocument.get("nextBatch");
+            return batch instanceof BsonArray array ? array.size() : -1;
+        }
+
+        BsonValue n = reply.get("n");
+        return n != null && n.isNumber() ? n.asNumber().longValue() : -1;
+    }
+
+    private record CommandMeters(DistributionSummary documents, DistributionSummary replyBytes) {
+    }
+}
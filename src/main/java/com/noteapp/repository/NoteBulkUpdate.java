@@ -0,0 +1,11 @@
+package com.noteapp.repository;
+
+/**
+ * One conditional update in a bulk write: applies {@code patch} only while the note is still at {@code version}.
+ */
+public record NoteBulkUpdate(
+        String id,
+        Long version,
+        NotePatch patch
+) {
+}
@@ -0,0 +1,20 @@
+package com.noteapp.repository;
+
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.model.WordCount;
+
+import java.util.List;
+
+/**
+ * Fields to overwrite on a note; null fields are left untouched. {@code stats} must accompany {@code text}.
+ */
+public record NotePatch(
+        String title,
+        String text,
+        List<WordCount> stats,
+        List<NoteTagEnum> tags
+) {
+    public boolean isEmpty() {
+        return title == null && text == null && tags == null;
+    }
+}
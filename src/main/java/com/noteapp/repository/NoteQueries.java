@@ -0,0 +1,78 @@
+package com.noteapp.repository;
+
+import com.noteapp.model.NoteTagEnum;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Queries and updates shared by the blocking and the reactive repository implementations.
+ */
+final class NoteQueries {
+    // _id is always returned; text and stats are never needed for a preview
+    static final String[] PREVIEW_FIELDS = {"title", "createdDate"};
+    // What derived data (counts, aggregates) needs to know about a note, without its title and text
+    static final String[] SUMMARY_FIELDS = {"version", "tags", "stats"};
+    // What the search index needs: the title is tokenized, while the text terms are the persisted stats
+    static final String[] SEARCH_FIELDS = {"title", "createdDate", "version", "stats"};
+
+    private NoteQueries() {
+    }
+
+    static Query byTags(List<NoteTagEnum> tags) {
+        Query query = new Query();
+        if (tags != null && !tags.isEmpty()) {
+            query.addCriteria(Criteria.where("tags").in(tags));
+        }
+        return query;
+    }
+
+    static Query export(List<NoteTagEnum> tags, Instant from, Instant to) {
+        Query query = byTags(tags);
+        if (from != null || to != null) {
+            Criteria createdDate = Criteria.where("createdDate");
+            if (from != null) {
+                createdDate.gte(from);
+            }
+            if (to != null) {
+                createdDate.lt(to);
+            }
+            query.addCriteria(createdDate);
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "createdDate", "id"));
+        query.fields().exclude("stats");
+        return query;
+    }
+
+    static Query byIdAndVersion(String id, Long expectedVersion) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (expectedVersion != null) {
+            criteria.and("version").is(expectedVersion);
+        }
+        return new Query(criteria);
+    }
+
+    static Query summaryById(String id) {
+        Query query = new Query(Criteria.where("id").is(id));
+        query.fields().include(SUMMARY_FIELDS);
+        return query;
+    }
+
+    static Update toUpdate(NotePatch patch) {
+        Update update = new Update().inc("version", 1);
+        if (patch.title() != null) {
+            update.set("title", patch.title());
+        }
+        if (patch.text() != null) {
+            update.set("text", patch.text()).set("stats", patch.stats());
+        }
+        if (patch.tags() != null) {
+            update.set("tags", patch.tags());
+        }
+        return update;
+    }
+}
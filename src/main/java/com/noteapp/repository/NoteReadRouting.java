@@ -0,0 +1,114 @@
+package com.noteapp.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.ReadPreference;
+import com.noteapp.config.MongoClientProperties;
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.event.NotesRemovedEvent;
+import com.noteapp.model.Note;
+import org.bson.types.ObjectId;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the read preference of read-only queries. A note this instance wrote within the read-your-writes window
+ * is read from the primary, so its writer never sees it missing or outdated on a lagging secondary.
+ * <p>
+ * Only the window evicts ids, since evicting one still inside it would route its reads to a secondary that may
+ * not have the write yet. Instead, once {@code maxRecentWrites} ids are held, further writes are not recorded
+ * and every read goes to the primary until the window after the last of them has passed. A create of several
+ * notes, e.g. a batch or an import, records no ids either: until its window has passed, notes whose ObjectId
+ * is younger than the window are read from the primary.
+ */
+@Component
+public class NoteReadRouting {
+    private final ReadPreference reads;
+    private final Cache<String, Boolean> recentWrites;
+    private final long windowNanos;
+    private final int maxRecentWrites;
+    private volatile long allPrimaryUntil;
+    private volatile long bulkCreatesUntil;
+
+    public NoteReadRouting(MongoClientProperties properties) {
+        MongoClientProperties.Reads config = properties.reads();
+        this.reads = config.readPreference().equals("primary")
+                ? ReadPreference.primary()
+                : ReadPreference.valueOf(config.readPreference(), List.of(), config.maxStaleness().toMillis(), TimeUnit.MILLISECONDS);
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(config.readYourWritesWindow())
+                .build();
+        this.windowNanos = config.readYourWritesWindow().toNanos();
+        this.maxRecentWrites = config.maxRecentWrites();
+        long now = System.nanoTime();
+        this.allPrimaryUntil = now;
+        this.bulkCreatesUntil = now;
+    }
+
+    public ReadPreference forNote(String id) {
+        if (allPrimary() || recentWrites.getIfPresent(id) != null || bulkCreated(id)) {
+            return ReadPreference.primary();
+        }
+        return reads;
+    }
+
+    /**
+     * Preference of queries over many notes, e.g. lists; these may briefly miss a write made elsewhere.
+     */
+    public ReadPreference forQueries() {
+        return allPrimary() ? ReadPreference.primary() : reads;
+    }
+
+    @EventListener
+    public void onNotesCreated(NotesCreatedEvent event) {
+        if (event.notes().size() > 1) {
+            bulkCreatesUntil = System.nanoTime() + windowNanos;
+        } else {
+            written(event.notes());
+        }
+    }
+
+    @EventListener
+    public void onNoteUpdated(NoteUpdatedEvent event) {
+        written(List.of(event.before()));
+    }
+
+    @EventListener
+    public void onNotesRemoved(NotesRemovedEvent event) {
+        written(event.notes());
+    }
+
+    private void written(List<Note> notes) {
+        for (Note note : notes) {
+            if (recentWrites.estimatedSize() < maxRecentWrites) {
+                recentWrites.put(note.getId(), Boolean.TRUE);
+            } else {
+                allPrimaryUntil = System.nanoTime() + windowNanos;
+            }
+        }
+    }
+
+    private boolean allPrimary() {
+        return System.nanoTime() - allPrimaryUntil < 0;
+    }
+
+    /**
+     * Whether the note may come from a bulk create still inside the window. ObjectIds carry their creation
+     * second; other ids cannot be dated and are read from the primary.
+     */
+    private boolean bulkCreated(String id) {
+        if (System.nanoTime() - bulkCreatesUntil >= 0) {
+            return false;
+        }
+        if (!ObjectId.isValid(id)) {
+            return true;
+        }
+        long ageMillis = System.currentTimeMillis() - new ObjectId(id).getDate().getTime();
+        // The ObjectId keeps whole seconds only
+        return ageMillis < TimeUnit.NANOSECONDS.toMillis(windowNanos) + 1000;
+    }
+}
@@ -1,14 +1,9 @@
 package com.noteapp.repository;
 
 import com.noteapp.model.Note;
-import com.noteapp.model.NoteTagEnum;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
-import java.util.List;
 
 @Repository
-public interface NoteRepository extends MongoRepository<Note, String> {
-   Page<Note> findByTagsIn(List<NoteTagEnum> tags, Pageable pageable);
+public interface NoteRepository extends MongoRepository<Note, String>, NoteRepositoryCustom {
 }
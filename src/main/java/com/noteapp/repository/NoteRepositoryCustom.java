@@ -0,0 +1,138 @@
+package com.noteapp.repository;
+
+import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.model.WordCount;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Methods documented as read-only queries use the read preference from {@link NoteReadRouting} and may be served by
+ * a secondary; everything else reads from the primary.
+ */
+public interface NoteRepositoryCustom {
+    /**
+     * Read-only query for the note without its stats, which are often as large as the text; see
+     * {@link #findStatsById}.
+     */
+    Optional<Note> findForRead(String id);
+
+    /**
+     * Read-only query for the stats and version only.
+     */
+    Optional<NoteStatsView> findStatsById(String id);
+
+    /**
+     * Read-only query for the version only, enough to answer a conditional request without loading the note.
+     */
+    Optional<NoteVersionView> findVersionById(String id);
+
+    /**
+     * Read-only query for a page of previews, optionally restricted to notes having any of {@code tags}.
+     * Only the preview fields are fetched from the database.
+     */
+    Page<NotePreviewDto> findPreviews(List<NoteTagEnum> tags, Pageable pageable);
+
+    /**
+     * Read-only query for a slice of previews without counting the matching notes; one extra note is read to
+     * detect a next page.
+     */
+    Slice<NotePreviewDto> findPreviewSlice(List<NoteTagEnum> tags, Pageable pageable);
+
+    /**
+     * Counts notes having any of {@code tags}. Without tags the collection metadata estimate is used instead of
+     * a full count.
+     */
+    long countByTags(List<NoteTagEnum> tags);
+
+    /**
+     * Read-only query for up to {@code limit} previews ordered by {@code createdDate} then {@code id}, newest first,
+     * that come strictly after the ({@code createdDate}, {@code id}) key. A null key starts from the newest note.
+     */
+    List<NotePreviewDto> findPreviewsBefore(List<NoteTagEnum> tags, Instant createdDate, String id, int limit);
+
+    /**
+     * Streams the notes created in [{@code from}, {@code to}) from a database cursor, oldest first, optionally
+     * restricted to notes having any of {@code tags}. Stats are not read. The stream must be closed to release
+     * the cursor.
+     */
+    Stream<Note> streamNotes(List<NoteTagEnum> tags, Instant from, Instant to);
+
+    /**
+     * Streams the id, version, tags and stats of every note without reading titles or texts.
+     * The stream must be closed to release the cursor.
+     */
+    Stream<Note> streamSummaries();
+
+    /**
+     * Streams the id, title, createdDate, version and stats of every note without reading texts.
+     * The stream must be closed to release the cursor.
+     */
+    Stream<Note> streamSearchFields();
+
+    /**
+     * Atomically sets the non-null fields of {@code patch} and bumps the version in a single round-trip.
+     * When {@code expectedVersion} is given the note must still be at that version.
+     *
+     * @return the note as it was before the update, or null when no note matched
+     */
+    Note patch(String id, Long expectedVersion, NotePatch patch);
+
+    /**
+     * Stores {@code stats} for a note persisted without them, as long as it is still at {@code version}. The
+     * version is not bumped, since the text the stats are counted from is unchanged.
+     *
+     * @return whether the note matched and its stats were set
+     */
+    boolean setStatsIfUnset(String id, Long version, List<WordCount> stats);
+
+    /**
+     * Inserts all notes in one unordered bulk write, so a failing note does not stop the others.
+     *
+     * @return the inserted count and the errors keyed by the index of the failed note
+     */
+    BulkWriteOutcome insertAll(List<Note> notes);
+
+    /**
+     * Applies every update in one unordered bulk write. Each update only matches while its note is still at the
+     * given version and bumps the version like {@link #patch}.
+     *
+     * @return the matched count and the errors keyed by the index of the failed update
+     */
+    BulkWriteOutcome updateAll(List<NoteBulkUpdate> updates);
+
+    /**
+     * Reads the id, version, tags and stats of the given notes; ids that do not exist are skipped.
+     */
+    List<Note> findSummariesByIds(Collection<String> ids);
+
+    /**
+     * Streams the id, version, tags and stats of the notes having any of {@code tags} from a database cursor.
+     * The stream must be closed to release the cursor.
+     */
+    Stream<Note> streamSummariesByTags(List<NoteTagEnum> tags);
+
+    /**
+     * Reads only the versions of the given notes; ids that do not exist are absent from the result.
+     * Notes stored without a version map to null.
+     */
+    Map<String, Long> findVersions(Collection<String> ids);
+
+    /**
+     * Deletes the note in a single round-trip.
+     *
+     * @return the id, version, tags and stats of the deleted note, or null when none matched
+     */
+    Note removeById(String id);
+
+    long removeByIds(List<String> ids);
+}
@@ -0,0 +1,221 @@
+package com.noteapp.repository;
+
+import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.model.WordCount;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class NoteRepositoryCustomImpl implements NoteRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+    private final NoteReadRouting readRouting;
+
+    @Override
+    public Optional<Note> findForRead(String id) {
+        Query query = byId(id);
+        query.fields().exclude("stats");
+
+        return Optional.ofNullable(mongoTemplate.findOne(query, Note.class));
+    }
+
+    @Override
+    public Optional<NoteStatsView> findStatsById(String id) {
+        return mongoTemplate.query(Note.class).as(NoteStatsView.class).matching(byId(id)).one();
+    }
+
+    @Override
+    public Optional<NoteVersionView> findVersionById(String id) {
+        return mongoTemplate.query(Note.class).as(NoteVersionView.class).matching(byId(id)).one();
+    }
+
+    @Override
+    public Page<NotePreviewDto> findPreviews(List<NoteTagEnum> tags, Pageable pageable) {
+        Query query = NoteQueries.byTags(tags).with(pageable).withReadPreference(readRouting.forQueries());
+        query.fields().include(NoteQueries.PREVIEW_FIELDS);
+
+        List<NotePreviewDto> content = findPreviews(query);
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1).withReadPreference(readRouting.forQueries()), Note.class));
+    }
+
+    @Override
+    public Slice<NotePreviewDto> findPreviewSlice(List<NoteTagEnum> tags, Pageable pageable) {
+        Query query = NoteQueries.byTags(tags).with(pageable).limit(pageable.getPageSize() + 1)
+                .withReadPreference(readRouting.forQueries());
+        query.fields().include(NoteQueries.PREVIEW_FIELDS);
+
+        List<NotePreviewDto> previews = findPreviews(query);
+        boolean hasNext = previews.size() > pageable.getPageSize();
+        List<NotePreviewDto> content = hasNext ? previews.subList(0, pageable.getPageSize()) : previews;
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public long countByTags(List<NoteTagEnum> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return mongoTemplate.estimatedCount(Note.class);
+        }
+        return mongoTemplate.count(NoteQueries.byTags(tags), Note.class);
+    }
+
+    @Override
+    public List<NotePreviewDto> findPreviewsBefore(List<NoteTagEnum> tags, Instant createdDate, String id, int limit) {
+        Query query = NoteQueries.byTags(tags);
+        if (createdDate != null) {
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("createdDate").lt(createdDate),
+                    Criteria.where("createdDate").is(createdDate).and("id").lt(id)
+            ));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdDate", "id")).limit(limit).withReadPreference(readRouting.forQueries());
+        query.fields().include(NoteQueries.PREVIEW_FIELDS);
+
+        return findPreviews(query);
+    }
+
+    @Override
+    public Stream<Note> streamNotes(List<NoteTagEnum> tags, Instant from, Instant to) {
+        return mongoTemplate.stream(NoteQueries.export(tags, from, to), Note.class);
+    }
+
+    @Override
+    public Stream<Note> streamSummaries() {
+        Query query = new Query();
+        query.fields().include(NoteQueries.SUMMARY_FIELDS);
+
+        return mongoTemplate.stream(query, Note.class);
+    }
+
+    @Override
+    public Stream<Note> streamSearchFields() {
+        Query query = new Query();
+        query.fields().include(NoteQueries.SEARCH_FIELDS);
+
+        return mongoTemplate.stream(query, Note.class);
+    }
+
+    @Override
+    public Note patch(String id, Long expectedVersion, NotePatch patch) {
+        return mongoTemplate.findAndModify(
+                NoteQueries.byIdAndVersion(id, expectedVersion),
+                NoteQueries.toUpdate(patch),
+                FindAndModifyOptions.options().returnNew(false),
+                Note.class
+        );
+    }
+
+    @Override
+    public boolean setStatsIfUnset(String id, Long version, List<WordCount> stats) {
+        // A null criterion matches both a missing and a null field, as legacy notes may lack either
+        Query query = new Query(Criteria.where("id").is(id).and("version").is(version).and("stats").is(null));
+        return mongoTemplate.updateFirst(query, new Update().set("stats", stats), Note.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public BulkWriteOutcome insertAll(List<Note> notes) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class);
+        bulk.insert(notes);
+        return execute(bulk, BulkWriteResult::getInsertedCount);
+    }
+
+    @Override
+    public BulkWriteOutcome updateAll(List<NoteBulkUpdate> updates) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class);
+        for (NoteBulkUpdate update : updates) {
+            Query query = new Query(Criteria.where("id").is(update.id()).and("version").is(update.version()));
+            bulk.updateOne(query, NoteQueries.toUpdate(update.patch()));
+        }
+        return execute(bulk, BulkWriteResult::getMatchedCount);
+    }
+
+    @Override
+    public List<Note> findSummariesByIds(Collection<String> ids) {
+        return findSummaries(new Query(Criteria.where("id").in(ids)));
+    }
+
+    @Override
+    public Stream<Note> streamSummariesByTags(List<NoteTagEnum> tags) {
+        Query query = NoteQueries.byTags(tags);
+        query.fields().include(NoteQueries.SUMMARY_FIELDS);
+
+        return mongoTemplate.stream(query, Note.class);
+    }
+
+    @Override
+    public Map<String, Long> findVersions(Collection<String> ids) {
+        Query query = new Query(Criteria.where("id").in(ids));
+        query.fields().include("version");
+
+        Map<String, Long> versions = new HashMap<>();
+        for (Note note : mongoTemplate.find(query, Note.class)) {
+            versions.put(note.getId(), note.getVersion());
+        }
+        return versions;
+    }
+
+    @Override
+    public Note removeById(String id) {
+        return mongoTemplate.findAndRemove(NoteQueries.summaryById(id), Note.class);
+    }
+
+    @Override
+    public long removeByIds(List<String> ids) {
+        return remove(new Query(Criteria.where("id").in(ids)));
+    }
+
+    private Query byId(String id) {
+        return new Query(Criteria.where("id").is(id)).withReadPreference(readRouting.forNote(id));
+    }
+
+    private long remove(Query query) {
+        return mongoTemplate.remove(query, Note.class).getDeletedCount();
+    }
+
+    private List<Note> findSummaries(Query query) {
+        query.fields().include(NoteQueries.SUMMARY_FIELDS);
+        return mongoTemplate.find(query, Note.class);
+    }
+
+    private BulkWriteOutcome execute(BulkOperations bulk, ToIntFunction<BulkWriteResult> count) {
+        try {
+            return new BulkWriteOutcome(count.applyAsInt(bulk.execute()), Map.of());
+        } catch (BulkOperationException e) {
+            Map<Integer, String> errors = new HashMap<>();
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+            return new BulkWriteOutcome(count.applyAsInt(e.getResult()), errors);
+        }
+    }
+
+    private List<NotePreviewDto> findPreviews(Query query) {
+        return mongoTemplate.find(query, NotePreviewDto.class, mongoTemplate.getCollectionName(Note.class));
+    }
+}
@@ -0,0 +1,9 @@
+package com.noteapp.repository;
+
+import com.noteapp.model.WordCount;
+
+import java.util.List;
+
+public interface NoteStatsView extends NoteVersionView {
+    List<WordCount> getStats();
+}
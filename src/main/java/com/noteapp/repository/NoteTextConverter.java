@@ -0,0 +1,104 @@
+package com.noteapp.repository;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores a note text of at least {@code minLength} chars as a deflated {@code {codec, length, data}} document
+ * and inflates it again on read. Shorter texts, and texts that do not shrink, stay plain strings, so documents
+ * written before compression existed read unchanged.
+ */
+public class NoteTextConverter implements MongoValueConverter<String, Object> {
+    public static final String CODEC = "codec";
+    public static final String LENGTH = "length";
+    public static final String DATA = "data";
+    public static final String DEFLATE = "deflate";
+
+    private final int minLength;
+    private final int level;
+
+    public NoteTextConverter(int minLength, int level) {
+        this.minLength = minLength;
+        this.level = level;
+    }
+
+    @Override
+    public Object write(String text, MongoConversionContext context) {
+        if (text.length() < minLength) {
+            return text;
+        }
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        byte[] deflated = deflate(raw);
+        if (deflated.length >= raw.length) {
+            return text;
+        }
+
+        return new Document(CODEC, DEFLATE)
+                .append(LENGTH, raw.length)
+                .append(DATA, new Binary(deflated));
+    }
+
+    @Override
+    public String read(Object value, MongoConversionContext context) {
+        if (!(value instanceof Document stored)) {
+            return (String) value;
+        }
+
+        String codec = stored.getString(CODEC);
+        if (!DEFLATE.equals(codec)) {
+            throw new IllegalStateException("Unknown note text codec " + codec);
+        }
+
+        byte[] raw = inflate(stored.get(DATA, Binary.class).getData(), stored.getInteger(LENGTH));
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    private byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] deflated, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(deflated);
+            byte[] raw = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, read, length - read);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != length) {
+                throw new IllegalStateException("Compressed note text is truncated");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed note text is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
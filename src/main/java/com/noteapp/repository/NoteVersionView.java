@@ -0,0 +1,5 @@
+package com.noteapp.repository;
+
+public interface NoteVersionView {
+    Long getVersion();
+}
@@ -0,0 +1,16 @@
+package com.noteapp.repository;
+
+import com.noteapp.model.Note;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link NoteRepository}, used by the {@code reactive} profile.
+ */
+@Repository
+public interface ReactiveNoteRepository extends ReactiveMongoRepository<Note, String>, ReactiveNoteRepositoryCustom {
+    Mono<NoteStatsView> findStatsById(String id);
+
+    Mono<NoteVersionView> findVersionById(String id);
+}
@@ -0,0 +1,38 @@
+package com.noteapp.repository;
+
+import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ReactiveNoteRepositoryCustom {
+    /**
+     * Same page as {@link NoteRepositoryCustom#findPreviews}; the count query runs only when the page content
+     * cannot tell the total.
+     */
+    Mono<Page<NotePreviewDto>> findPreviews(List<NoteTagEnum> tags, Pageable pageable);
+
+    /**
+     * Notes without stats, oldest first, created in {@code [from, to)} when the bounds are given. The cursor
+     * fetches further batches only as the subscriber requests them.
+     */
+    Flux<Note> streamNotes(List<NoteTagEnum> tags, Instant from, Instant to);
+
+    /**
+     * Applies the non-null fields of the patch and increments the version in one round trip.
+     *
+     * @return the note as it was before the update, or empty when no note matches the id and expected version
+     */
+    Mono<Note> patch(String id, Long expectedVersion, NotePatch patch);
+
+    /**
+     * @return the version, tags and stats of the removed note, or empty when there was none
+     */
+    Mono<Note> removeById(String id);
+}
@@ -0,0 +1,64 @@
+package com.noteapp.repository;
+
+import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ReactiveNoteRepositoryCustomImpl implements ReactiveNoteRepositoryCustom {
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Mono<Page<NotePreviewDto>> findPreviews(List<NoteTagEnum> tags, Pageable pageable) {
+        Query query = NoteQueries.byTags(tags).with(pageable);
+        query.fields().include(NoteQueries.PREVIEW_FIELDS);
+
+        return reactiveMongoTemplate.find(query, NotePreviewDto.class, reactiveMongoTemplate.getCollectionName(Note.class))
+                .collectList()
+                .flatMap(content -> total(content, pageable, Query.of(query).limit(-1).skip(-1))
+                        .map(total -> new PageImpl<>(content, pageable, total)));
+    }
+
+    /**
+     * Mirrors {@link org.springframework.data.support.PageableExecutionUtils}: a first page or a last page that
+     * is not full already tells the total, so only the other pages pay for the count query.
+     */
+    private Mono<Long> total(List<NotePreviewDto> content, Pageable pageable, Query countQuery) {
+        if (pageable.isUnpaged() || pageable.getPageSize() > content.size() && (pageable.getOffset() == 0 || !content.isEmpty())) {
+            return Mono.just(pageable.isUnpaged() ? content.size() : pageable.getOffset() + content.size());
+        }
+        return reactiveMongoTemplate.count(countQuery, Note.class);
+    }
+
+    @Override
+    public Flux<Note> streamNotes(List<NoteTagEnum> tags, Instant from, Instant to) {
+        return reactiveMongoTemplate.find(NoteQueries.export(tags, from, to), Note.class);
+    }
+
+    @Override
+    public Mono<Note> patch(String id, Long expectedVersion, NotePatch patch) {
+        return reactiveMongoTemplate.findAndModify(
+                NoteQueries.byIdAndVersion(id, expectedVersion),
+                NoteQueries.toUpdate(patch),
+                FindAndModifyOptions.options().returnNew(false),
+                Note.class
+        );
+    }
+
+    @Override
+    public Mono<Note> removeById(String id) {
+        return reactiveMongoTemplate.findAndRemove(NoteQueries.summaryById(id), Note.class);
+    }
+}
@@ -0,0 +1,861 @@
+package com.noteapp.repository.embedded;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.noteapp.config.EmbeddedStorageProperties;
+import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.model.WordCount;
+import com.noteapp.repository.BulkWriteOutcome;
+import com.noteapp.repository.NoteBulkUpdate;
+import com.noteapp.repository.NotePatch;
+import com.noteapp.repository.NoteRepository;
+import com.noteapp.repository.NoteStatsView;
+import com.noteapp.repository.NoteVersionView;
+import com.noteapp.repository.embedded.SegmentLog.Location;
+import com.noteapp.repository.embedded.SegmentLog.Record;
+import com.noteapp.repository.embedded.SegmentLog.Segment;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link NoteRepository} kept in an append-only {@link SegmentLog} in a local directory instead of MongoDB, active
+ * with the {@code embedded} profile. Every write appends the whole note as JSON; a delete appends a tombstone.
+ * <p>
+ * The id index maps each note to the location of its newest record together with the fields previews and
+ * version checks need, so lists, counts and conditional requests never touch the log. The {@code createdDate}
+ * and per-tag indexes are ordered like the MongoDB indexes on ({@code createdDate}, {@code _id}). All indexes
+ * are rebuilt by replaying the log on startup.
+ * <p>
+ * Writes are serialised by one lock and synced once per call, so a bulk insert costs one sync. Reads take no
+ * lock. Superseded records are reclaimed by {@link #compact()}.
+ */
+@Slf4j
+@Repository
+@Profile("embedded")
+public class EmbeddedNoteRepository implements NoteRepository {
+    private static final Comparator<NoteKey> NEWEST_FIRST = Comparator.comparing(NoteKey::createdDate,
+                    Comparator.nullsFirst(Comparator.<Instant>naturalOrder()))
+            .thenComparing(NoteKey::id)
+            .reversed();
+    private static final byte[] NO_VALUE = new byte[0];
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private final Map<String, NoteMeta> notes = new ConcurrentHashMap<>();
+    private final NavigableSet<NoteKey> byCreatedDate = new ConcurrentSkipListSet<>(NEWEST_FIRST);
+    private final Map<NoteTagEnum, NavigableSet<NoteKey>> byTag = new EnumMap<>(NoteTagEnum.class);
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Notes whose newest record is a tombstone, guarded by the write lock
+    private final Map<String, Tombstone> tombstones = new HashMap<>();
+    private final double compactionThreshold;
+    private final SegmentLog segmentLog;
+
+    public EmbeddedNoteRepository(EmbeddedStorageProperties properties) {
+        for (NoteTagEnum tag : NoteTagEnum.values()) {
+            byTag.put(tag, new ConcurrentSkipListSet<>(NEWEST_FIRST));
+        }
+        this.compactionThreshold = properties.compactionThreshold();
+        try {
+            this.segmentLog = SegmentLog.open(properties.directory(), Math.toIntExact(properties.segmentSize().toBytes()),
+                    properties.syncWrites(), this::replay);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the note log in " + properties.directory(), e);
+        }
+        log.info("Loaded {} notes from {} segments in {}", notes.size(), segmentLog.segmentCount(), properties.directory());
+    }
+
+    @PreDestroy
+    public void close() {
+        writeLock.lock();
+        try {
+            segmentLog.sync();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites the live records of every sealed segment whose share of dead bytes reached the threshold into the
+     * active segment, then deletes it. A tombstone is carried over only while a segment older than its own may
+     * still hold a record of the note. Writes interleave with a running compaction record by record.
+     */
+    @Scheduled(
+            initialDelayString = "${noteapp.storage.embedded.compaction-interval}",
+            fixedDelayString = "${noteapp.storage.embedded.compaction-interval}"
+    )
+    public synchronized void compact() {
+        for (Segment segment : locked(segmentLog::sealedSegments)) {
+            if (segment.deadRatio() >= compactionThreshold) {
+                compact(segment);
+            }
+        }
+    }
+
+    // MongoRepository
+
+    @Override
+    public <S extends Note> S save(S entity) {
+        return write(() -> {
+            NoteMeta previous = entity.getId() == null ? null : notes.get(entity.getId());
+            if (entity.getVersion() == null) {
+                insert(entity, previous);
+            } else {
+                if (previous == null || !entity.getVersion().equals(previous.version())) {
+                    throw new OptimisticLockingFailureException(
+                            "Cannot save note " + entity.getId() + " at version " + entity.getVersion());
+                }
+                entity.setVersion(entity.getVersion() + 1);
+                store(entity, previous);
+            }
+            return entity;
+        });
+    }
+
+    @Override
+    public <S extends Note> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public <S extends Note> S insert(S entity) {
+        return write(() -> insert(entity, entity.getId() == null ? null : notes.get(entity.getId())));
+    }
+
+    @Override
+    public <S extends Note> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(entity -> inserted.add(insert(entity)));
+        return inserted;
+    }
+
+    @Override
+    public Optional<Note> findById(String id) {
+        return Optional.ofNullable(notes.get(id)).map(this::load);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return notes.containsKey(id);
+    }
+
+    @Override
+    public List<Note> findAll() {
+        return findAll(Sort.unsorted());
+    }
+
+    @Override
+    public List<Note> findAll(Sort sort) {
+        return loadAll(keys(null, null, newestFirst(sort)), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Page<Note> findAll(Pageable pageable) {
+        Iterator<NoteKey> keys = keys(null, null, newestFirst(pageable.getSort()));
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(loadAll(keys, Integer.MAX_VALUE));
+        }
+        skip(keys, pageable.getOffset());
+        return new PageImpl<>(loadAll(keys, pageable.getPageSize()), pageable, notes.size());
+    }
+
+    @Override
+    public List<Note> findAllById(Iterable<String> ids) {
+        List<Note> found = new ArrayList<>();
+        for (String id : ids) {
+            findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return notes.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        removeById(id);
+    }
+
+    @Override
+    public void delete(Note entity) {
+        removeById(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::removeById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Note> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        removeByIds(List.copyOf(notes.keySet()));
+    }
+
+    @Override
+    public <S extends Note> Optional<S> findOne(Example<S> example) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends Note> List<S> findAll(Example<S> example) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends Note> List<S> findAll(Example<S> example, Sort sort) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends Note> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends Note> long count(Example<S> example) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends Note> boolean exists(Example<S> example) {
+        throw queryByExampleUnsupported();
+    }
+
+    @Override
+    public <S extends Note, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw queryByExampleUnsupported();
+    }
+
+    // NoteRepositoryCustom
+
+    @Override
+    public Optional<Note> findForRead(String id) {
+        return findById(id).map(note -> {
+            note.setStats(null);
+            return note;
+        });
+    }
+
+    @Override
+    public Optional<NoteStatsView> findStatsById(String id) {
+        return findById(id).map(note -> new StatsView(note.getStats(), note.getVersion()));
+    }
+
+    @Override
+    public Optional<NoteVersionView> findVersionById(String id) {
+        return Optional.ofNullable(notes.get(id)).map(meta -> (NoteVersionView) meta::version);
+    }
+
+    /**
+     * Previews are always ordered by {@code createdDate} then id; only the direction of a {@code createdDate}
+     * sort is taken from {@code pageable}.
+     */
+    @Override
+    public Page<NotePreviewDto> findPreviews(List<NoteTagEnum> tags, Pageable pageable) {
+        Iterator<NoteKey> keys = keys(tags, null, newestFirst(pageable.getSort()));
+        if (pageable.isPaged()) {
+            skip(keys, pageable.getOffset());
+        }
+        List<NotePreviewDto> content = previews(keys, pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE);
+        return pageable.isPaged() ? new PageImpl<>(content, pageable, countByTags(tags)) : new PageImpl<>(content);
+    }
+
+    @Override
+    public Slice<NotePreviewDto> findPreviewSlice(List<NoteTagEnum> tags, Pageable pageable) {
+        Iterator<NoteKey> keys = keys(tags, null, newestFirst(pageable.getSort()));
+        skip(keys, pageable.getOffset());
+
+        List<NotePreviewDto> previews = previews(keys, pageable.getPageSize() + 1);
+        boolean hasNext = previews.size() > pageable.getPageSize();
+        List<NotePreviewDto> content = hasNext ? previews.subList(0, pageable.getPageSize()) : previews;
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public long countByTags(List<NoteTagEnum> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return notes.size();
+        }
+        long count = 0;
+        for (Iterator<NoteKey> keys = keys(tags, null, true); keys.hasNext(); keys.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public List<NotePreviewDto> findPreviewsBefore(List<NoteTagEnum> tags, Instant createdDate, String id, int limit) {
+        NoteKey after = createdDate == null ? null : new NoteKey(createdDate, id);
+        return previews(keys(tags, after, true), limit);
+    }
+
+    @Override
+    public Stream<Note> streamNotes(List<NoteTagEnum> tags, Instant from, Instant to) {
+        NoteKey after = from == null ? null : new NoteKey(from, "");
+        Iterator<NoteKey> keys = keys(tags, after, false);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(keys, Spliterator.ORDERED), false)
+                // Notes without a createdDate sort first and never fall in a range
+                .takeWhile(key -> to == null || key.createdDate() == null || key.createdDate().isBefore(to))
+                .filter(key -> (from == null && to == null) || key.createdDate() != null)
+                .map(key -> notes.get(key.id()))
+                .filter(Objects::nonNull)
+                .map(meta -> {
+                    Note note = load(meta);
+                    note.setStats(null);
+                    return note;
+                });
+    }
+
+    @Override
+    public Stream<Note> streamSummaries() {
+        return List.copyOf(notes.values()).stream().map(this::loadSummary);
+    }
+
+    @Override
+    public Stream<Note> streamSearchFields() {
+        return List.copyOf(notes.values()).stream().map(meta -> {
+            Note note = load(meta);
+            note.setText(null);
+            note.setTags(null);
+            return note;
+        });
+    }
+
+    @Override
+    public Note patch(String id, Long expectedVersion, NotePatch patch) {
+        return write(() -> patchIfAt(id, expectedVersion, patch));
+    }
+
+    @Override
+    public boolean setStatsIfUnset(String id, Long version, List<WordCount> stats) {
+        return write(() -> {
+            NoteMeta meta = notes.get(id);
+            if (meta == null || !Objects.equals(meta.version(), version)) {
+                return false;
+            }
+
+            Note note = load(meta);
+            if (note.getStats() != null) {
+                return false;
+            }
+            note.setStats(stats);
+            store(note, meta);
+            return true;
+        });
+    }
+
+    @Override
+    public BulkWriteOutcome insertAll(List<Note> notes) {
+        return write(() -> {
+            long inserted = 0;
+            Map<Integer, String> errors = new HashMap<>();
+            for (int i = 0; i < notes.size(); i++) {
+                Note note = notes.get(i);
+                try {
+                    insert(note, note.getId() == null ? null : this.notes.get(note.getId()));
+                    inserted++;
+                } catch (DuplicateKeyException e) {
+                    errors.put(i, e.getMessage());
+                }
+            }
+            return new BulkWriteOutcome(inserted, errors);
+        });
+    }
+
+    @Override
+    public BulkWriteOutcome updateAll(List<NoteBulkUpdate> updates) {
+        return write(() -> {
+            long matched = 0;
+            for (NoteBulkUpdate update : updates) {
+                if (patchIfAt(update.id(), update.version(), update.patch()) != null) {
+                    matched++;
+                }
+            }
+            return new BulkWriteOutcome(matched, Map.of());
+        });
+    }
+
+    @Override
+    public List<Note> findSummariesByIds(Collection<String> ids) {
+        return ids.stream()
+                .map(notes::get)
+                .filter(Objects::nonNull)
+                .map(this::loadSummary)
+                .toList();
+    }
+
+    @Override
+    public Stream<Note> streamSummariesByTags(List<NoteTagEnum> tags) {
+        Iterator<NoteKey> keys = keys(tags, null, true);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(keys, Spliterator.ORDERED), false)
+                .map(key -> notes.get(key.id()))
+                .filter(Objects::nonNull)
+                .map(this::loadSummary);
+    }
+
+    @Override
+    public Map<String, Long> findVersions(Collection<String> ids) {
+        Map<String, Long> versions = new HashMap<>();
+        for (String id : ids) {
+            NoteMeta meta = notes.get(id);
+            if (meta != null) {
+                versions.put(id, meta.version());
+            }
+        }
+        return versions;
+    }
+
+    @Override
+    public Note removeById(String id) {
+        return write(() -> remove(id));
+    }
+
+    @Override
+    public long removeByIds(List<String> ids) {
+        return write(() -> ids.stream().filter(id -> remove(id) != null).count());
+    }
+
+    // Writes, all under the write lock
+
+    private <T> T write(WriteAction<T> action) {
+        return locked(() -> {
+            T result = action.run();
+            segmentLog.sync();
+            return result;
+        });
+    }
+
+    // Leaves syncing to the caller, for work that only has to be durable as a whole
+    private <T> T locked(WriteAction<T> action) {
+        writeLock.lock();
+        try {
+            return action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private <S extends Note> S insert(S note, NoteMeta previous) {
+        if (previous != null) {
+            throw new DuplicateKeyException("Duplicate note id " + note.getId());
+        }
+        if (note.getId() == null) {
+            note.setId(new ObjectId().toHexString());
+        }
+        if (note.getVersion() == null) {
+            note.setVersion(0L);
+        }
+        store(note, null);
+        return note;
+    }
+
+    private Note patchIfAt(String id, Long expectedVersion, NotePatch patch) {
+        NoteMeta meta = notes.get(id);
+        if (meta == null || (expectedVersion != null && !expectedVersion.equals(meta.version()))) {
+            return null;
+        }
+
+        Note before = load(meta);
+        Note after = load(meta);
+        if (patch.title() != null) {
+            after.setTitle(patch.title());
+        }
+        if (patch.text() != null) {
+            after.setText(patch.text());
+            after.setStats(patch.stats());
+        }
+        if (patch.tags() != null) {
+            after.setTags(patch.tags());
+        }
+        after.setVersion(meta.version() == null ? 1 : meta.version() + 1);
+        store(after, meta);
+        return before;
+    }
+
+    private Note remove(String id) {
+        NoteMeta meta = notes.get(id);
+        if (meta == null) {
+            return null;
+        }
+
+        Note removed = loadSummary(meta);
+        Location location = segmentLog.append(SegmentLog.DELETE, id, NO_VALUE);
+        location.discard();
+        tombstones.put(id, new Tombstone(meta.since(), location));
+        unindex(meta);
+        meta.location().discard();
+        return removed;
+    }
+
+    private void store(Note note, NoteMeta previous) {
+        note.setCreatedDate(toMillis(note.getCreatedDate()));
+        Location location = segmentLog.append(SegmentLog.PUT, note.getId(), encode(note));
+        index(NoteMeta.of(note, location, since(note.getId(), previous, location)), previous);
+        if (previous != null) {
+            previous.location().discard();
+        }
+    }
+
+    private void compact(Segment segment) {
+        double deadRatio = segment.deadRatio();
+        // Records are moved one lock at a time so writers interleave, and synced once before the segment goes
+        segmentLog.forEach(segment, record -> locked(() -> {
+            NoteMeta meta = notes.get(record.key());
+            if (record.op() == SegmentLog.PUT) {
+                if (meta != null && meta.location().equals(record.location())) {
+                    notes.put(meta.id(), meta.at(segmentLog.append(SegmentLog.PUT, record.key(), record.value())));
+                }
+            } else {
+                // Only the newest tombstone of a note matters; older ones are superseded like any other record
+                Tombstone tombstone = tombstones.get(record.key());
+                if (tombstone != null && tombstone.location().equals(record.location())) {
+                    if (segmentLog.hasSegmentsBetween(tombstone.since(), segment)) {
+                        Location location = segmentLog.append(SegmentLog.DELETE, record.key(), NO_VALUE);
+                        location.discard();
+                        tombstones.put(record.key(), new Tombstone(tombstone.since(), location));
+                    } else {
+                        tombstones.remove(record.key());
+                    }
+                }
+            }
+            return null;
+        }));
+
+        locked(() -> {
+            segmentLog.sync();
+            try {
+                segmentLog.remove(segment);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+        log.info("Compacted segment {} ({}% dead)", segment, Math.round(deadRatio * 100));
+    }
+
+    // Indexes
+
+    private void replay(Record record) {
+        NoteMeta previous = notes.get(record.key());
+        if (record.op() == SegmentLog.PUT) {
+            index(NoteMeta.of(decode(record.value()), record.location(), since(record.key(), previous, record.location())), previous);
+        } else {
+            record.location().discard();
+            Tombstone tombstone = tombstones.get(record.key());
+            long since = previous != null ? previous.since()
+                    : tombstone != null ? tombstone.since() : record.location().segment().sequence();
+            tombstones.put(record.key(), new Tombstone(since, record.location()));
+            if (previous != null) {
+                unindex(previous);
+            }
+        }
+        if (previous != null) {
+            previous.location().discard();
+        }
+    }
+
+    /**
+     * The oldest segment that may hold a record of the note written at {@code location}: a note written before
+     * keeps the segment of its first record, even when the id was removed in between.
+     */
+    private long since(String id, NoteMeta previous, Location location) {
+        if (previous != null) {
+            return previous.since();
+        }
+        Tombstone tombstone = tombstones.remove(id);
+        return tombstone != null ? tombstone.since() : location.segment().sequence();
+    }
+
+    private void index(NoteMeta meta, NoteMeta previous) {
+        NoteKey key = meta.key();
+        byCreatedDate.add(key);
+        meta.tags().forEach(tag -> byTag.get(tag).add(key));
+        notes.put(meta.id(), meta);
+
+        if (previous != null) {
+            NoteKey previousKey = previous.key();
+            boolean keyChanged = !previousKey.equals(key);
+            if (keyChanged) {
+                byCreatedDate.remove(previousKey);
+            }
+            for (NoteTagEnum tag : previous.tags()) {
+                if (keyChanged || !meta.tags().contains(tag)) {
+                    byTag.get(tag).remove(previousKey);
+                }
+            }
+        }
+    }
+
+    private void unindex(NoteMeta meta) {
+        notes.remove(meta.id());
+        byCreatedDate.remove(meta.key());
+        meta.tags().forEach(tag -> byTag.get(tag).remove(meta.key()));
+    }
+
+    /**
+     * Keys of the notes having any of {@code tags}, newest or oldest first, that come strictly after {@code after}.
+     */
+    private Iterator<NoteKey> keys(List<NoteTagEnum> tags, NoteKey after, boolean newestFirst) {
+        List<NavigableSet<NoteKey>> sets = tags == null || tags.isEmpty()
+                ? List.of(byCreatedDate)
+                : tags.stream().distinct().map(byTag::get).toList();
+
+        List<Iterator<NoteKey>> iterators = new ArrayList<>(sets.size());
+        for (NavigableSet<NoteKey> set : sets) {
+            NavigableSet<NoteKey> ordered = newestFirst ? set : set.descendingSet();
+            iterators.add((after == null ? ordered : ordered.tailSet(after, false)).iterator());
+        }
+        return iterators.size() == 1
+                ? iterators.getFirst()
+                : new MergingIterator(iterators, newestFirst ? NEWEST_FIRST : NEWEST_FIRST.reversed());
+    }
+
+    private List<NotePreviewDto> previews(Iterator<NoteKey> keys, int limit) {
+        List<NotePreviewDto> previews = new ArrayList<>();
+        while (previews.size() < limit && keys.hasNext()) {
+            NoteMeta meta = notes.get(keys.next().id());
+            if (meta != null) {
+                previews.add(new NotePreviewDto(meta.id(), meta.title(), meta.createdDate()));
+            }
+        }
+        return previews;
+    }
+
+    private List<Note> loadAll(Iterator<NoteKey> keys, int limit) {
+        List<Note> loaded = new ArrayList<>();
+        while (loaded.size() < limit && keys.hasNext()) {
+            NoteMeta meta = notes.get(keys.next().id());
+            if (meta != null) {
+                loaded.add(load(meta));
+            }
+        }
+        return loaded;
+    }
+
+    private static void skip(Iterator<NoteKey> keys, long count) {
+        for (long i = 0; i < count && keys.hasNext(); i++) {
+            keys.next();
+        }
+    }
+
+    private static boolean newestFirst(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!order.getProperty().equals("createdDate") && !order.getProperty().equals("id")) {
+                throw new UnsupportedOperationException("Notes can only be sorted by createdDate, not " + order.getProperty());
+            }
+        }
+        Sort.Order createdDate = sort.getOrderFor("createdDate");
+        return createdDate == null || createdDate.isDescending();
+    }
+
+    private static UnsupportedOperationException queryByExampleUnsupported() {
+        return new UnsupportedOperationException("Query by example is not supported by the embedded repository");
+    }
+
+    // Records
+
+    private Note load(NoteMeta meta) {
+        return decode(segmentLog.read(meta.location()));
+    }
+
+    /**
+     * Matches the summary projection of the MongoDB repository: id, version, tags and stats only.
+     */
+    private Note loadSummary(NoteMeta meta) {
+        Note note = load(meta);
+        note.setTitle(null);
+        note.setText(null);
+        note.setCreatedDate(null);
+        return note;
+    }
+
+    private byte[] encode(Note note) {
+        try {
+            return objectMapper.writeValueAsBytes(note);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot encode note " + note.getId(), e);
+        }
+    }
+
+    private Note decode(byte[] value) {
+        Note note;
+        try {
+            note = objectMapper.readValue(value, Note.class);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Cannot decode a stored note", e);
+        }
+        // Records written before dates were truncated on store
+        note.setCreatedDate(toMillis(note.getCreatedDate()));
+        return note;
+    }
+
+    /**
+     * Stores dates at millisecond precision like BSON does, so a keyset cursor, which carries epoch millis,
+     * seeks to exactly the key the index holds.
+     */
+    private static Instant toMillis(Instant instant) {
+        return instant == null ? null : instant.truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @FunctionalInterface
+    private interface WriteAction<T> {
+        T run();
+    }
+
+    private record NoteKey(Instant createdDate, String id) {
+    }
+
+    /**
+     * What the indexes keep per note; the title is kept so previews are served without reading the log.
+     * {@code since} is the sequence of the oldest segment that may still hold a record of the note.
+     */
+    private record NoteMeta(
+            String id,
+            String title,
+            Instant createdDate,
+            List<NoteTagEnum> tags,
+            Long version,
+            Location location,
+            long since
+    ) {
+        static NoteMeta of(Note note, Location location, long since) {
+            List<NoteTagEnum> tags = note.getTags() == null
+                    ? List.of()
+                    : note.getTags().stream().filter(Objects::nonNull).distinct().toList();
+            return new NoteMeta(note.getId(), note.getTitle(), note.getCreatedDate(), tags, note.getVersion(), location, since);
+        }
+
+        NoteKey key() {
+            return new NoteKey(createdDate, id);
+        }
+
+        NoteMeta at(Location location) {
+            return new NoteMeta(id, title, createdDate, tags, version, location, since);
+        }
+    }
+
+    /**
+     * The newest tombstone of a removed note and the oldest segment that may still hold a record it hides.
+     */
+    private record Tombstone(long since, Location location) {
+    }
+
+    private record StatsView(List<WordCount> stats, Long version) implements NoteStatsView {
+        @Override
+        public List<WordCount> getStats() {
+            return stats;
+        }
+
+        @Override
+        public Long getVersion() {
+            return version;
+        }
+    }
+
+    /**
+     * Merges ordered key iterators of several tags into one, dropping the keys of notes having more than one of them.
+     */
+    private static final class MergingIterator implements Iterator<NoteKey> {
+        private final List<Iterator<NoteKey>> iterators;
+        private final NoteKey[] heads;
+        private final Comparator<NoteKey> order;
+
+        MergingIterator(List<Iterator<NoteKey>> iterators, Comparator<NoteKey> order) {
+            this.iterators = iterators;
+            this.heads = new NoteKey[iterators.size()];
+            this.order = order;
+            for (int i = 0; i < heads.length; i++) {
+                advance(i);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            for (NoteKey head : heads) {
+                if (head != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public NoteKey next() {
+            NoteKey next = null;
+            for (NoteKey head : heads) {
+                if (head != null && (next == null || order.compare(head, next) < 0)) {
+                    next = head;
+                }
+            }
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            for (int i = 0; i < heads.length; i++) {
+                if (next.equals(heads[i])) {
+                    advance(i);
+                }
+            }
+            return next;
+        }
+
+        private void advance(int i) {
+            heads[i] = iterators.get(i).hasNext() ? iterators.get(i).next() : null;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.noteapp.repository.embedded;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only record log spread over memory-mapped segment files, oldest first. Only the newest segment is
+ * appended to; once a record does not fit it is sealed and a new one is started.
+ * <p>
+ * A record is {@code [int body length][int CRC32C of the body][body]}, the body being
+ * {@code [byte op][unsigned short key length][key][value]}. A zero length marks the end of a segment; a record
+ * that is cut short or fails its checksum is treated the same, so a write torn by a crash is dropped on recovery.
+ * <p>
+ * Appends are not thread-safe and must be serialised by the caller. Reads only use absolute gets and may run
+ * concurrently with an append.
+ */
+@Slf4j
+final class SegmentLog {
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int KEY_OFFSET = 1 + Short.BYTES;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{10})\\.log");
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean syncWrites;
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private Segment active;
+
+    private SegmentLog(Path directory, int segmentSize, boolean syncWrites) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncWrites = syncWrites;
+    }
+
+    /**
+     * Maps every segment in {@code directory} and hands each intact record to {@code replay}, oldest first.
+     */
+    static SegmentLog open(Path directory, int segmentSize, boolean syncWrites, Consumer<Record> replay) throws IOException {
+        Files.createDirectories(directory);
+        SegmentLog segmentLog = new SegmentLog(directory, segmentSize, syncWrites);
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches()).sorted().toList();
+        }
+        for (Path file : files) {
+            Matcher name = SEGMENT_NAME.matcher(file.getFileName().toString());
+            name.matches();
+            Segment segment = Segment.map(file, Long.parseLong(name.group(1)), Math.toIntExact(Files.size(file)));
+            segment.recover(replay);
+            segmentLog.segments.put(segment.sequence, segment);
+        }
+
+        segmentLog.active = segmentLog.segments.isEmpty()
+                ? segmentLog.newSegment(0, segmentSize)
+                : segmentLog.segments.lastEntry().getValue();
+        return segmentLog;
+    }
+
+    /**
+     * Appends a record to the active segment, starting a new one when it does not fit. The record is durable
+     * only after the next {@link #sync()}.
+     */
+    Location append(byte op, String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Key too long: " + keyBytes.length + " bytes");
+        }
+        int bodyLength = KEY_OFFSET + keyBytes.length + value.length;
+        int size = HEADER_BYTES + bodyLength;
+        if (active.end + size > active.capacity) {
+            roll(size);
+        }
+
+        Segment segment = active;
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = segment.end;
+        int body = offset + HEADER_BYTES;
+        buffer.put(body, op);
+        buffer.putShort(body + 1, (short) keyBytes.length);
+        buffer.put(body + KEY_OFFSET, keyBytes);
+        buffer.put(body + KEY_OFFSET + keyBytes.length, value);
+        buffer.putInt(offset + Integer.BYTES, segment.checksum(body, bodyLength));
+        buffer.putInt(offset, bodyLength);
+        segment.end = offset + size;
+
+        return new Location(segment, offset, size);
+    }
+
+    /**
+     * Forces what was appended since the last sync to disk, unless synced writes are disabled.
+     */
+    void sync() {
+        if (syncWrites) {
+            active.force();
+        }
+    }
+
+    /**
+     * Reads the value of the record at {@code location} without verifying its checksum again.
+     */
+    byte[] read(Location location) {
+        MappedByteBuffer buffer = location.segment().buffer;
+        int body = location.offset() + HEADER_BYTES;
+        int keyLength = Short.toUnsignedInt(buffer.getShort(body + 1));
+        byte[] value = new byte[location.size() - HEADER_BYTES - KEY_OFFSET - keyLength];
+        buffer.get(body + KEY_OFFSET + keyLength, value);
+        return value;
+    }
+
+    /**
+     * Segments no longer appended to, oldest first. Reads the active segment, so it is serialised like an append.
+     */
+    List<Segment> sealedSegments() {
+        List<Segment> sealed = new ArrayList<>(segments.values());
+        sealed.remove(active);
+        return sealed;
+    }
+
+    /**
+     * Whether a segment from sequence {@code from} on is still kept that is older than {@code segment}.
+     */
+    boolean hasSegmentsBetween(long from, Segment segment) {
+        return !segments.subMap(from, true, segment.sequence, false).isEmpty();
+    }
+
+    /**
+     * Hands every record of a sealed segment to {@code consumer}, oldest first.
+     */
+    void forEach(Segment segment, Consumer<Record> consumer) {
+        int offset = 0;
+        while (offset < segment.end) {
+            Record record = segment.read(offset);
+            consumer.accept(record);
+            offset += record.location().size();
+        }
+    }
+
+    /**
+     * Drops a sealed segment. Locations still pointing into it stay readable until they are garbage collected.
+     */
+    void remove(Segment segment) throws IOException {
+        segments.remove(segment.sequence);
+        Files.deleteIfExists(segment.path);
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private void roll(int size) {
+        sync();
+        try {
+            active = newSegment(active.sequence + 1, Math.max(segmentSize, size));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create a new segment in " + directory, e);
+        }
+    }
+
+    private Segment newSegment(long sequence, int capacity) throws IOException {
+        Segment segment = Segment.map(directory.resolve("segment-%010d.log".formatted(sequence)), sequence, capacity);
+        segments.put(sequence, segment);
+        log.debug("Started segment {} of {} bytes", segment.path, capacity);
+        return segment;
+    }
+
+    /**
+     * A record as read back from a segment.
+     */
+    record Record(byte op, String key, byte[] value, Location location) {
+    }
+
+    /**
+     * Where a record lives; {@code size} includes the header.
+     */
+    record Location(Segment segment, int offset, int size) {
+        /**
+         * Counts the record as garbage once a newer record supersedes it.
+         */
+        void discard() {
+            segment.deadBytes.addAndGet(size);
+        }
+    }
+
+    static final class Segment {
+        private final long sequence;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final AtomicLong deadBytes = new AtomicLong();
+        private volatile int end;
+        private int synced;
+
+        private Segment(long sequence, Path path, MappedByteBuffer buffer, int capacity) {
+            this.sequence = sequence;
+            this.path = path;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        static Segment map(Path path, long sequence, int capacity) throws IOException {
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // The mapping stays valid after the channel is closed
+                return new Segment(sequence, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity), capacity);
+            }
+        }
+
+        long sequence() {
+            return sequence;
+        }
+
+        /**
+         * Share of the written bytes that belong to superseded records.
+         */
+        double deadRatio() {
+            int written = end;
+            return written == 0 ? 0 : (double) deadBytes.get() / written;
+        }
+
+        @Override
+        public String toString() {
+            return path.getFileName().toString();
+        }
+
+        private void recover(Consumer<Record> replay) {
+            int offset = 0;
+            Record record;
+            while ((record = read(offset)) != null) {
+                replay.accept(record);
+                offset += record.location().size();
+            }
+            end = offset;
+            synced = offset;
+
+            if (offset + Integer.BYTES <= capacity && buffer.getInt(offset) != 0) {
+                log.warn("Dropping a torn record at offset {} of {}", offset, path);
+                for (int i = offset; i < capacity; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                force(offset, capacity - offset);
+            }
+        }
+
+        private Record read(int offset) {
+            if (offset + HEADER_BYTES > capacity) {
+                return null;
+            }
+            int bodyLength = buffer.getInt(offset);
+            int body = offset + HEADER_BYTES;
+            if (bodyLength < KEY_OFFSET || bodyLength > capacity - body
+                    || buffer.getInt(offset + Integer.BYTES) != checksum(body, bodyLength)) {
+                return null;
+            }
+            int keyLength = Short.toUnsignedInt(buffer.getShort(body + 1));
+            if (KEY_OFFSET + keyLength > bodyLength) {
+                return null;
+            }
+
+            byte[] key = new byte[keyLength];
+            buffer.get(body + KEY_OFFSET, key);
+            byte[] value = new byte[bodyLength - KEY_OFFSET - keyLength];
+            buffer.get(body + KEY_OFFSET + keyLength, value);
+            return new Record(buffer.get(body), new String(key, StandardCharsets.UTF_8), value,
+                    new Location(this, offset, HEADER_BYTES + bodyLength));
+        }
+
+        private int checksum(int offset, int length) {
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(offset, length));
+            return (int) crc.getValue();
+        }
+
+        private void force() {
+            int written = end;
+            if (written > synced) {
+                force(synced, written - synced);
+                synced = written;
+            }
+        }
+
+        private void force(int offset, int length) {
+            buffer.force(offset, length);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.noteapp.service;
+
+import com.noteapp.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many calls of one endpoint, or of all of them together, run at once, so that unbounded request concurrency (virtual threads in
+ * particular) queues here instead of in the MongoDB connection pool. A call waits at most {@code maxWait} for a
+ * free slot and is rejected after that.
+ */
+public final class Bulkhead {
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final Duration maxWait;
+    private final Semaphore permits;
+
+    private final Counter permitted;
+    private final Counter rejected;
+    private final Timer waitTime;
+
+    public Bulkhead(String name, int maxConcurrentCalls, Duration maxWait, MeterRegistry meterRegistry) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("Bulkhead " + name + " must allow at least one concurrent call");
+        }
+
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+
+        permitted = Counter.builder("noteapp.bulkhead.calls")
+                .tag("endpoint", name).tag("outcome", "permitted")
+                .register(meterRegistry);
+        rejected = Counter.builder("noteapp.bulkhead.calls")
+                .tag("endpoint", name).tag("outcome", "rejected")
+                .register(meterRegistry);
+        waitTime = Timer.builder("noteapp.bulkhead.wait")
+                .tag("endpoint", name)
+                .register(meterRegistry);
+        Gauge.builder("noteapp.bulkhead.active", this, Bulkhead::activeCalls)
+                .tag("endpoint", name)
+                .register(meterRegistry);
+        Gauge.builder("noteapp.bulkhead.max", this, bulkhead -> bulkhead.maxConcurrentCalls)
+                .tag("endpoint", name)
+                .register(meterRegistry);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int activeCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    /**
+     * Takes a slot, waiting up to {@code maxWait}; every successful call must be paired with {@link #release()}.
+     */
+    public void acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = maxWait.isZero()
+                    ? permits.tryAcquire()
+                    : permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadFullException("Too many concurrent requests to " + name + ", retry later");
+        }
+        permitted.increment();
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
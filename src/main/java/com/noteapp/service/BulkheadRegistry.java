@@ -0,0 +1,41 @@
+package com.noteapp.service;
+
+import com.noteapp.config.BulkheadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lazily creates one {@link Bulkhead} per endpoint name with the limits configured for it, next to the one
+ * bulkhead all endpoints share.
+ */
+public class BulkheadRegistry {
+    // Metrics name of the shared bulkhead; no handler is named without a dot
+    static final String TOTAL = "total";
+
+    private final BulkheadProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Bulkhead total;
+
+    public BulkheadRegistry(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.total = new Bulkhead(TOTAL, properties.total().maxConcurrentCalls(), properties.total().maxWait(), meterRegistry);
+    }
+
+    /**
+     * The bulkhead every call passes in addition to the one of its endpoint.
+     */
+    public Bulkhead total() {
+        return total;
+    }
+
+    public Bulkhead get(String endpoint) {
+        return bulkheads.computeIfAbsent(endpoint, name -> {
+            BulkheadProperties.Limits limits = properties.limits(name);
+            return new Bulkhead(name, limits.maxConcurrentCalls(), limits.maxWait(), meterRegistry);
+        });
+    }
+}
@@ -0,0 +1,265 @@
+package com.noteapp.service;
+
+import com.noteapp.config.BatchProperties;
+import com.noteapp.dto.CorpusStatsResponse;
+import com.noteapp.dto.NoteStatsEntry;
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.event.NotesRemovedEvent;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.model.WordCount;
+import com.noteapp.repository.NotePatch;
+import com.noteapp.repository.NoteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Word counts summed over every note and over the notes of each tag, kept up to date from the persisted
+ * per-note stats: creates add a note's stats, deletes subtract them and updates apply the difference between
+ * the old and new stats. A periodic recompute rebuilds the totals from the collection to repair drift, counting
+ * notes stored without stats from their text and backfilling the stats it counted.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class CorpusStatsService {
+    private final NoteRepository noteRepository;
+    private final BatchProperties batchProperties;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private WordTotals totals = new WordTotals();
+    // Deltas applied while a recompute streams the collection, replayed onto the recomputed totals before the swap
+    private List<Consumer<WordTotals>> pendingWrites;
+
+    public CorpusStatsResponse getStats(NoteTagEnum tag, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<String, Long> counts = tag == null ? totals.corpus : totals.byTag.getOrDefault(tag, Map.of());
+            return new CorpusStatsResponse(tag, top(counts, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Streams the whole collection, so it runs on the task executor rather than holding up startup
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void recomputeOnStartup() {
+        recompute();
+    }
+
+    /**
+     * Writes racing a recompute are replayed onto its result through a {@link NoteVersionFence}, so a write the
+     * cursor has already seen is not counted twice. A write published after the swap for a note the cursor read in
+     * its new state is the one race left, as the fence is dropped with the swap.
+     */
+    @Scheduled(
+            initialDelayString = "${noteapp.corpus-stats.recompute-interval}",
+            fixedDelayString = "${noteapp.corpus-stats.recompute-interval}"
+    )
+    public synchronized void recompute() {
+        setPendingWrites(new ArrayList<>());
+
+        WordTotals recomputed = new WordTotals(new NoteVersionFence());
+        List<String> unset = new ArrayList<>();
+        try (Stream<Note> notes = noteRepository.streamSummaries()) {
+            notes.forEach(note -> {
+                if (recomputed.fence.read(note)) {
+                    if (note.getStats() == null) {
+                        unset.add(note.getId());
+                    } else {
+                        recomputed.add(note.getStats(), note.getTags(), 1);
+                    }
+                }
+            });
+            countUnsetStats(unset, recomputed);
+        } catch (RuntimeException e) {
+            setPendingWrites(null);
+            log.error("Failed to recompute corpus stats, keeping the current totals", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingWrites.forEach(write -> write.accept(recomputed));
+            pendingWrites = null;
+            recomputed.fence = null;
+            totals = recomputed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Corpus stats recomputed with {} distinct words, {} notes counted from their text",
+                recomputed.corpus.size(), unset.size());
+    }
+
+    @EventListener
+    public void onNotesCreated(NotesCreatedEvent event) {
+        write(totals -> event.notes().forEach(totals::create));
+    }
+
+    @EventListener
+    public void onNoteUpdated(NoteUpdatedEvent event) {
+        // Title-only patches change no count but still move a recompute's fence on to the new version
+        write(totals -> totals.update(event.before(), event.patch()));
+    }
+
+    @EventListener
+    public void onNotesRemoved(NotesRemovedEvent event) {
+        write(totals -> event.notes().forEach(totals::remove));
+    }
+
+    /**
+     * Counts notes stored without stats from their text and backfills the stats, reloading a note whose
+     * backfill lost to a concurrent update so the recompute holds it at the version it counted.
+     */
+    private void countUnsetStats(List<String> ids, WordTotals recomputed) {
+        for (int from = 0; from < ids.size(); from += batchProperties.chunkSize()) {
+            List<String> chunk = ids.subList(from, Math.min(from + batchProperties.chunkSize(), ids.size()));
+            Map<String, Note> loaded = new HashMap<>();
+            noteRepository.findAllById(chunk).forEach(note -> loaded.put(note.getId(), note));
+
+            for (String id : chunk) {
+                Note note = loaded.get(id);
+                while (note != null && note.getStats() == null) {
+                    List<WordCount> stats = note.getText() == null ? List.of() : WordCounter.of(note.getText()).toSortedList();
+                    if (noteRepository.setStatsIfUnset(id, note.getVersion(), stats)) {
+                        note.setStats(stats);
+                    } else {
+                        note = noteRepository.findById(id).orElse(null);
+                    }
+                }
+
+                if (note == null) {
+                    recomputed.fence.forget(id);
+                } else {
+                    recomputed.fence.reread(note);
+                    recomputed.add(note.getStats(), note.getTags(), 1);
+                }
+            }
+        }
+    }
+
+    private void setPendingWrites(List<Consumer<WordTotals>> writes) {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = writes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(Consumer<WordTotals> write) {
+        lock.writeLock().lock();
+        try {
+            write.accept(totals);
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Keeps only the limit best words in a bounded heap whose head is the lowest ranked one
+    private static List<NoteStatsEntry> top(Map<String, Long> counts, int limit) {
+        PriorityQueue<WordCount> heap = new PriorityQueue<>(Math.min(limit, counts.size()) + 1, WordCounter.ORDER.reversed());
+        for (Map.Entry<String, Long> count : counts.entrySet()) {
+            heap.add(new WordCount(count.getKey(), count.getValue()));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        List<WordCount> words = new ArrayList<>(heap);
+        words.sort(WordCounter.ORDER);
+        return words.stream()
+                .map(word -> new NoteStatsEntry(word.word(), word.count()))
+                .toList();
+    }
+
+    private static final class WordTotals {
+        private final Map<String, Long> corpus = new HashMap<>();
+        private final Map<NoteTagEnum, Map<String, Long>> byTag = new EnumMap<>(NoteTagEnum.class);
+        // Set only on totals being recomputed, until the writes that raced the recompute are replayed
+        private NoteVersionFence fence;
+
+        WordTotals() {
+        }
+
+        WordTotals(NoteVersionFence fence) {
+            this.fence = fence;
+        }
+
+        void create(Note note) {
+            if (fence == null || fence.admitCreate(note)) {
+                add(note.getStats(), note.getTags(), 1);
+            }
+        }
+
+        void update(Note before, NotePatch patch) {
+            if ((fence == null || fence.admitUpdate(before)) && (patch.stats() != null || patch.tags() != null)) {
+                add(before.getStats(), before.getTags(), -1);
+                add(patch.stats() != null ? patch.stats() : before.getStats(),
+                        patch.tags() != null ? patch.tags() : before.getTags(), 1);
+            }
+        }
+
+        void remove(Note note) {
+            if (fence == null || fence.admitRemove(note)) {
+                add(note.getStats(), note.getTags(), -1);
+            }
+        }
+
+        // Notes stored without stats contribute nothing until a recompute counts them from their text
+        void add(List<WordCount> stats, Collection<NoteTagEnum> tags, int sign) {
+            if (stats == null || stats.isEmpty()) {
+                return;
+            }
+
+            Set<NoteTagEnum> distinctTags = tags == null || tags.isEmpty()
+                    ? EnumSet.noneOf(NoteTagEnum.class)
+                    : EnumSet.copyOf(tags);
+            for (WordCount stat : stats) {
+                long delta = sign * stat.count();
+                merge(corpus, stat.word(), delta);
+                for (NoteTagEnum tag : distinctTags) {
+                    merge(byTag.computeIfAbsent(tag, key -> new HashMap<>()), stat.word(), delta);
+                }
+            }
+        }
+
+        private static void merge(Map<String, Long> counts, String word, long delta) {
+            // Dropping words that reach zero keeps the maps bounded by the live vocabulary
+            counts.compute(word, (key, count) -> {
+                long updated = (count == null ? 0 : count) + delta;
+                return updated > 0 ? updated : null;
+            });
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.noteapp.service;
+
+import com.noteapp.config.BatchProperties;
+import com.noteapp.dto.BatchItemResult;
+import com.noteapp.dto.BatchResponse;
+import com.noteapp.dto.BatchUpdateNoteRequest;
+import com.noteapp.dto.CreateNoteRequest;
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.event.NotesRemovedEvent;
+import com.noteapp.model.Note;
+import com.noteapp.repository.BulkWriteOutcome;
+import com.noteapp.repository.NoteBulkUpdate;
+import com.noteapp.repository.NotePatch;
+import com.noteapp.repository.NoteRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Executes batches of creates, updates and deletes as unordered bulk writes. Every item gets its own result,
+ * so one invalid or conflicting item never fails the rest of the batch.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class NoteBatchService {
+    private static final int OK = 200;
+    private static final int CREATED = 201;
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+    private static final int CONFLICT = 409;
+    private static final int PRECONDITION_FAILED = 412;
+
+    private final NoteRepository noteRepository;
+    private final NoteCache noteCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final BatchProperties batchProperties;
+
+    public BatchResponse createNotes(List<CreateNoteRequest> items) {
+        checkBatchSize(items);
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        Instant now = Instant.now();
+
+        List<Integer> accepted = new ArrayList<>();
+        List<Note> notes = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            String error = validate(items.get(i));
+            if (error != null) {
+                results[i] = new BatchItemResult(i, null, BAD_REQUEST, error);
+                continue;
+            }
+
+            // Ids are assigned up front so every item can report its id without reading the inserts back
+            Note note = NoteFactory.newNote(items.get(i), now);
+            note.setId(new ObjectId().toHexString());
+            note.setVersion(0L);
+            accepted.add(i);
+            notes.add(note);
+        }
+
+        for (int from = 0; from < notes.size(); from += batchProperties.chunkSize()) {
+            int to = Math.min(from + batchProperties.chunkSize(), notes.size());
+            BulkWriteOutcome outcome = noteRepository.insertAll(notes.subList(from, to));
+
+            List<Note> created = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                int index = accepted.get(i);
+                String id = notes.get(i).getId();
+                String error = outcome.errors().get(i - from);
+                if (error == null) {
+                    created.add(notes.get(i));
+                    results[index] = new BatchItemResult(index, id, CREATED, null);
+                } else {
+                    log.warn("Batch insert of item {} failed: {}", index, error);
+                    results[index] = new BatchItemResult(index, null, BAD_REQUEST, "Note saving error");
+                }
+            }
+            eventPublisher.publishEvent(new NotesCreatedEvent(created));
+        }
+
+        return toResponse(results);
+    }
+
+    public BatchResponse updateNotes(List<BatchUpdateNoteRequest> items) {
+        checkBatchSize(items);
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+
+        List<Integer> accepted = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            BatchUpdateNoteRequest item = items.get(i);
+            String error = validate(item);
+            if (error == null && !seen.add(item.id())) {
+                error = "Duplicate id in batch";
+            }
+
+            if (error != null) {
+                results[i] = new BatchItemResult(i, item == null ? null : item.id(), BAD_REQUEST, error);
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        for (int from = 0; from < accepted.size(); from += batchProperties.chunkSize()) {
+            int to = Math.min(from + batchProperties.chunkSize(), accepted.size());
+            updateChunk(items, accepted.subList(from, to), results);
+        }
+
+        return toResponse(results);
+    }
+
+    public BatchResponse deleteNotes(List<String> ids) {
+        checkBatchSize(ids);
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+
+        List<Integer> accepted = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            if (!StringUtils.hasText(id)) {
+                results[i] = new BatchItemResult(i, id, BAD_REQUEST, "Id must not be blank");
+            } else if (!seen.add(id)) {
+                results[i] = new BatchItemResult(i, id, BAD_REQUEST, "Duplicate id in batch");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        for (int from = 0; from < accepted.size(); from += batchProperties.chunkSize()) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + batchProperties.chunkSize(), accepted.size()));
+            List<String> chunkIds = chunk.stream().map(ids::get).toList();
+
+            // One by one, so an item only reports OK, and only reaches the event, when this batch deleted it
+            List<Note> removed = new ArrayList<>();
+            for (int index : chunk) {
+                String id = ids.get(index);
+                Note summary = noteRepository.removeById(id);
+                if (summary != null) {
+                    removed.add(summary);
+                    results[index] = new BatchItemResult(index, id, OK, null);
+                } else {
+                    results[index] = new BatchItemResult(index, id, NOT_FOUND, "Note not found");
+                }
+            }
+            noteCache.invalidateAll(chunkIds);
+            if (!removed.isEmpty()) {
+                eventPublisher.publishEvent(new NotesRemovedEvent(removed));
+            }
+        }
+
+        return toResponse(results);
+    }
+
+    /**
+     * Every write is conditioned on the version read just before it, so an update can only be lost to a
+     * concurrent writer, never silently overwrite one.
+     */
+    private void updateChunk(List<BatchUpdateNoteRequest> items, List<Integer> chunk, BatchItemResult[] results) {
+        Map<String, Note> summaries = new HashMap<>();
+        for (Note summary : noteRepository.findSummariesByIds(chunk.stream().map(i -> items.get(i).id()).toList())) {
+            summaries.put(summary.getId(), summary);
+        }
+
+        List<Integer> written = new ArrayList<>();
+        List<Note> befores = new ArrayList<>();
+        List<NoteBulkUpdate> updates = new ArrayList<>();
+        for (int index : chunk) {
+            BatchUpdateNoteRequest item = items.get(index);
+            Note before = summaries.get(item.id());
+            if (before == null) {
+                results[index] = new BatchItemResult(index, item.id(), NOT_FOUND, "Note not found");
+                continue;
+            }
+
+            Long version = before.getVersion();
+            if (item.version() != null && !item.version().equals(version)) {
+                results[index] = new BatchItemResult(index, item.id(), PRECONDITION_FAILED,
+                        "Note was modified concurrently");
+                continue;
+            }
+
+            NotePatch patch = toPatch(item);
+            if (patch.isEmpty()) {
+                results[index] = new BatchItemResult(index, item.id(), OK, null);
+                continue;
+            }
+
+            written.add(index);
+            befores.add(before);
+            updates.add(new NoteBulkUpdate(item.id(), version, patch));
+        }
+
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        BulkWriteOutcome outcome = noteRepository.updateAll(updates);
+        noteCache.invalidateAll(updates.stream().map(NoteBulkUpdate::id).toList());
+
+        List<Integer> unresolved = new ArrayList<>();
+        for (int i = 0; i < written.size(); i++) {
+            int index = written.get(i);
+            String error = outcome.errors().get(i);
+            if (error != null) {
+                log.warn("Batch update of note {} failed: {}", updates.get(i).id(), error);
+                results[index] = new BatchItemResult(index, updates.get(i).id(), BAD_REQUEST, "Note saving error");
+            } else {
+                unresolved.add(i);
+            }
+        }
+
+        if (outcome.count() == unresolved.size()) {
+            for (int i : unresolved) {
+                published(befores.get(i), updates.get(i));
+                results[written.get(i)] = new BatchItemResult(written.get(i), updates.get(i).id(), OK, null);
+            }
+        } else {
+            resolveLostUpdates(written, befores, updates, unresolved, outcome.count(), results);
+        }
+    }
+
+    /**
+     * Some updates matched nothing because their note changed between the version read and the bulk write.
+     * A note now exactly one version ahead is attributed to this batch; when that does not add up to the
+     * matched count the outcome is ambiguous and every item is reported as a conflict to be re-read; derived
+     * data may then drift until its next recompute.
+     */
+    private void resolveLostUpdates(List<Integer> written, List<Note> befores, List<NoteBulkUpdate> updates,
+                                    List<Integer> unresolved, long matched, BatchItemResult[] results) {
+        Map<String, Long> current = noteRepository.findVersions(
+                unresolved.stream().map(i -> updates.get(i).id()).toList());
+
+        List<Integer> applied = unresolved.stream()
+                .filter(i -> current.containsKey(updates.get(i).id()))
+                .filter(i -> Objects.equals(current.get(updates.get(i).id()), nextVersion(updates.get(i).version())))
+                .toList();
+
+        for (int i : unresolved) {
+            int index = written.get(i);
+            String id = updates.get(i).id();
+            if (applied.size() != matched) {
+                results[index] = new BatchItemResult(index, id, CONFLICT,
+                        "Note was modified concurrently; re-read it to check the result");
+            } else if (applied.contains(i)) {
+                published(befores.get(i), updates.get(i));
+                results[index] = new BatchItemResult(index, id, OK, null);
+            } else if (!current.containsKey(id)) {
+                results[index] = new BatchItemResult(index, id, NOT_FOUND, "Note not found");
+            } else {
+                results[index] = new BatchItemResult(index, id, PRECONDITION_FAILED, "Note was modified concurrently");
+            }
+        }
+    }
+
+    private void published(Note before, NoteBulkUpdate update) {
+        eventPublisher.publishEvent(new NoteUpdatedEvent(before, update.patch()));
+    }
+
+    private NotePatch toPatch(BatchUpdateNoteRequest item) {
+        return new NotePatch(
+                item.title(),
+                item.text(),
+                item.text() == null ? null : WordCounter.of(item.text()).toSortedList(),
+                item.tags()
+        );
+    }
+
+    private String validate(Object item) {
+        if (item == null) {
+            return "Item must not be null";
+        }
+
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void checkBatchSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must not be empty");
+        }
+        if (items.size() > batchProperties.maxItems()) {
+            throw new IllegalArgumentException("Batch must not exceed " + batchProperties.maxItems() + " items");
+        }
+    }
+
+    private static Long nextVersion(Long version) {
+        return version == null ? 1L : version + 1;
+    }
+
+    private static BatchResponse toResponse(BatchItemResult[] results) {
+        int succeeded = (int) Arrays.stream(results).filter(result -> result.status() < BAD_REQUEST).count();
+        return new BatchResponse(succeeded, results.length - succeeded, List.of(results));
+    }
+}
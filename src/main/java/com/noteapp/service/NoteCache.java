@@ -0,0 +1,184 @@
+package com.noteapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.noteapp.config.NoteCacheProperties;
+import com.noteapp.dto.CacheStatsResponse;
+import com.noteapp.model.Note;
+import com.noteapp.model.WordCount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of notes, bounded by total title, text and stats length. Notes loaded for a read come without
+ * their stats; a note put after a write keeps them.
+ * <p>
+ * A miss is loaded under a per-note {@link ReentrantLock} rather than inside Caffeine's compute, whose map bin lock
+ * would pin a virtual thread to its carrier for the whole round trip. Concurrent misses of one note share a single
+ * load, and a {@link #put} or {@link #invalidate} issued after a write takes the same lock, so it waits for any
+ * in-flight load of the note and always wins over the value that load read. Puts racing each other keep the
+ * highest version, so a slower writer cannot put back the note a faster one already replaced.
+ */
+@Component
+@Profile("!reactive")
+public class NoteCache {
+    private static final int ENTRY_OVERHEAD = 64;
+    // The WordCount and its list slot, in chars like the rest of the weight
+    private static final int STATS_ENTRY_OVERHEAD = 16;
+
+    private final Cache<String, Note> cache;
+    private final Map<String, KeyLock> keyLocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public NoteCache(NoteCacheProperties properties) {
+        this(properties, ForkJoinPool.commonPool());
+    }
+
+    NoteCache(NoteCacheProperties properties, Executor executor) {
+        this.cache = properties.enabled()
+                ? Caffeine.newBuilder()
+                        .maximumWeight(properties.maximumWeight())
+                        .weigher(NoteCache::weigh)
+                        .expireAfterWrite(properties.expireAfterWrite())
+                        .executor(executor)
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    public Note get(String id, Function<String, Note> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        Note cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        return withKeyLock(id, () -> {
+            // Another caller may have loaded the note while this one waited for the lock
+            Note loaded = cache.policy().getIfPresentQuietly(id);
+            if (loaded == null) {
+                loaded = loader.apply(id);
+                cache.put(id, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    public Note getIfPresent(String id) {
+        return cache == null ? null : cache.getIfPresent(id);
+    }
+
+    public void put(Note note) {
+        if (cache != null) {
+            withKeyLock(note.getId(), () -> {
+                Note cached = cache.policy().getIfPresentQuietly(note.getId());
+                if (cached == null || version(note) >= version(cached)) {
+                    cache.put(note.getId(), note);
+                }
+                return null;
+            });
+        }
+    }
+
+    public void invalidate(String id) {
+        if (cache != null) {
+            withKeyLock(id, () -> {
+                cache.invalidate(id);
+                return null;
+            });
+        }
+    }
+
+    public void invalidateAll(Collection<String> ids) {
+        if (cache != null) {
+            ids.forEach(this::invalidate);
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public CacheStatsResponse stats() {
+        if (cache == null) {
+            return new CacheStatsResponse(false, 0, 0, 0, 0, 0, 0);
+        }
+
+        CacheStats stats = cache.stats();
+        long weight = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+
+        return new CacheStatsResponse(
+                true,
+                cache.estimatedSize(),
+                weight,
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate()
+        );
+    }
+
+    private <T> T withKeyLock(String id, Supplier<T> action) {
+        // The map is only touched for the short reference counting, never while the action runs
+        KeyLock lock = keyLocks.compute(id, (key, held) -> held == null ? new KeyLock() : held.retain());
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+            keyLocks.computeIfPresent(id, (key, held) -> held.release() ? null : held);
+        }
+    }
+
+    private static long version(Note note) {
+        return note.getVersion() == null ? 0 : note.getVersion();
+    }
+
+    private static int weigh(String id, Note note) {
+        long chars = (long) length(note.getTitle()) + length(note.getText());
+        if (note.getStats() != null) {
+            for (WordCount wordCount : note.getStats()) {
+                chars += wordCount.word().length() + STATS_ENTRY_OVERHEAD;
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, chars + ENTRY_OVERHEAD);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * Lock of one note, dropped from the map once no caller holds or waits for it. The user count is only changed
+     * inside the map's compute of that note.
+     */
+    private static final class KeyLock extends ReentrantLock {
+        private int users = 1;
+
+        KeyLock retain() {
+            users++;
+            return this;
+        }
+
+        boolean release() {
+            return --users == 0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.noteapp.service;
+
+import com.noteapp.config.CountCacheProperties;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.repository.NoteRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Approximate note totals per tag filter. Each count is refreshed at most once per TTL; concurrent callers for the
+ * same filter wait for that single refresh instead of issuing their own count. They wait on a {@link ReentrantLock}
+ * rather than inside the map's compute, so a virtual thread waiting for the count releases its carrier.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class NoteCountCache {
+    private final NoteRepository noteRepository;
+    private final CountCacheProperties properties;
+
+    private final Map<Set<NoteTagEnum>, CachedCount> counts = new ConcurrentHashMap<>();
+    // One lock per tag filter; there are at most 2^tags filters
+    private final Map<Set<NoteTagEnum>, ReentrantLock> refreshLocks = new ConcurrentHashMap<>();
+
+    public long getCount(List<NoteTagEnum> tags) {
+        Set<NoteTagEnum> key = tags == null || tags.isEmpty() ? EnumSet.noneOf(NoteTagEnum.class) : EnumSet.copyOf(tags);
+        long now = System.nanoTime();
+        CachedCount cached = counts.get(key);
+        if (isFresh(cached, now)) {
+            return cached.count();
+        }
+
+        ReentrantLock lock = refreshLocks.computeIfAbsent(key, filter -> new ReentrantLock());
+        lock.lock();
+        try {
+            // A caller that held the lock before this one may have refreshed the count already
+            cached = counts.get(key);
+            if (isFresh(cached, now)) {
+                return cached.count();
+            }
+            CachedCount refreshed = new CachedCount(noteRepository.countByTags(List.copyOf(key)), System.nanoTime());
+            counts.put(key, refreshed);
+            return refreshed.count();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isFresh(CachedCount cached, long now) {
+        return cached != null && now - cached.loadedAt() < properties.ttl().toNanos();
+    }
+
+    private record CachedCount(
+            long count,
+            long loadedAt
+    ) {
+    }
+}
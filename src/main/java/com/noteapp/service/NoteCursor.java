@@ -0,0 +1,41 @@
+package com.noteapp.service;
+
+import com.noteapp.dto.NotePreviewDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for the note list: the ({@code createdDate}, {@code id}) of the last note a client saw.
+ */
+record NoteCursor(
+        Instant createdDate,
+        String id
+) {
+    static NoteCursor of(NotePreviewDto preview) {
+        return new NoteCursor(preview.createdDate(), preview.id());
+    }
+
+    static NoteCursor decode(String token) {
+        NoteCursor cursor;
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            Instant createdDate = Instant.ofEpochMilli(Long.parseLong(decoded.substring(0, separator)));
+            cursor = new NoteCursor(createdDate, decoded.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+
+        if (cursor.id().isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return cursor;
+    }
+
+    String encode() {
+        String raw = createdDate.toEpochMilli() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,43 @@
+package com.noteapp.service;
+
+import com.noteapp.dto.CreateNoteRequest;
+import com.noteapp.model.Note;
+import com.noteapp.model.WordCount;
+import com.noteapp.repository.NotePatch;
+
+import java.time.Instant;
+import java.util.List;
+
+final class NoteFactory {
+    private NoteFactory() {
+    }
+
+    static Note newNote(CreateNoteRequest dto, Instant createdDate) {
+        return newNote(dto, createdDate, WordCounter.of(dto.text()).toSortedList());
+    }
+
+    static Note newNote(CreateNoteRequest dto, Instant createdDate, List<WordCount> stats) {
+        Note note = new Note();
+        note.setTitle(dto.title());
+        note.setText(dto.text());
+        note.setStats(stats);
+        note.setTags(dto.tags());
+        note.setCreatedDate(createdDate);
+        return note;
+    }
+
+    /**
+     * Returns the note {@code patch} turns {@code before} into, mirroring what the database applied.
+     */
+    static Note patched(Note before, NotePatch patch) {
+        Note note = new Note();
+        note.setId(before.getId());
+        note.setTitle(patch.title() != null ? patch.title() : before.getTitle());
+        note.setText(patch.text() != null ? patch.text() : before.getText());
+        note.setStats(patch.text() != null ? patch.stats() : before.getStats());
+        note.setTags(patch.tags() != null ? patch.tags() : before.getTags());
+        note.setCreatedDate(before.getCreatedDate());
+        note.setVersion(before.getVersion() == null ? 1 : before.getVersion() + 1);
+        return note;
+    }
+}
@@ -0,0 +1,102 @@
+package com.noteapp.service;
+
+import com.noteapp.dto.IndexStatusResponse;
+import com.noteapp.model.Note;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@Profile("!reactive & !embedded")
+@RequiredArgsConstructor
+public class NoteIndexService {
+    // Serves the list sort and the keyset seek on (createdDate, _id)
+    static final Index CREATED_DATE_INDEX = new Index()
+            .on("createdDate", Sort.Direction.DESC)
+            .on("_id", Sort.Direction.DESC)
+            .named("createdDate_id");
+
+    // Serves the tag filter with the same sort, so no in-memory sort is needed
+    static final Index TAGS_CREATED_DATE_INDEX = new Index()
+            .on("tags", Sort.Direction.ASC)
+            .on("createdDate", Sort.Direction.DESC)
+            .on("_id", Sort.Direction.DESC)
+            .named("tags_createdDate_id");
+
+    private static final List<Index> REQUIRED_INDEXES = List.of(CREATED_DATE_INDEX, TAGS_CREATED_DATE_INDEX);
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Creates every required index whose key pattern is not present yet. Matching is done on keys rather than
+     * names, so an equivalent index created by hand is reused instead of conflicting.
+     */
+    public void ensureIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Note.class);
+        List<List<String>> existingKeys = indexOps.getIndexInfo().stream()
+                .map(NoteIndexService::keyPattern)
+                .toList();
+
+        for (Index index : REQUIRED_INDEXES) {
+            String name = indexName(index);
+            if (existingKeys.contains(keyPattern(index))) {
+                log.info("Index {} on notes already present", name);
+                continue;
+            }
+
+            long start = System.nanoTime();
+            try {
+                indexOps.createIndex(index);
+                log.info("Built index {} on notes in {} ms", name, (System.nanoTime() - start) / 1_000_000);
+            } catch (DataAccessException e) {
+                log.error("Failed to build index {} on notes: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    public IndexStatusResponse getIndexStatus() {
+        List<List<String>> existingKeys = mongoTemplate.indexOps(Note.class).getIndexInfo().stream()
+                .map(NoteIndexService::keyPattern)
+                .toList();
+
+        List<String> present = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (Index index : REQUIRED_INDEXES) {
+            (existingKeys.contains(keyPattern(index)) ? present : missing).add(indexName(index));
+        }
+
+        return new IndexStatusResponse(present, missing);
+    }
+
+    private static List<String> keyPattern(IndexInfo indexInfo) {
+        return indexInfo.getIndexFields().stream()
+                .map(field -> field.getKey() + ":" + direction(field))
+                .toList();
+    }
+
+    private static List<String> keyPattern(Index index) {
+        return index.getIndexKeys().entrySet().stream()
+                .map(key -> key.getKey() + ":" + key.getValue())
+                .toList();
+    }
+
+    private static String direction(IndexField field) {
+        return field.getDirection() == Sort.Direction.DESC ? "-1" : "1";
+    }
+
+    private static String indexName(Index index) {
+        return index.getIndexOptions().getString("name");
+    }
+}
@@ -0,0 +1,256 @@
+package com.noteapp.service;
+
+import com.noteapp.config.GroupCommitProperties;
+import com.noteapp.exception.BulkheadFullException;
+import com.noteapp.model.Note;
+import com.noteapp.repository.BulkWriteOutcome;
+import com.noteapp.repository.NoteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single note creates. Concurrent {@link #insert} calls queue up and a single writer thread
+ * sends them to MongoDB as one unordered insert, once {@code maxBatchSize} notes are waiting or the first of
+ * them has waited {@code maxDelay}. Every caller blocks until the insert carrying its note is acknowledged, so
+ * a create still only returns once it is durable.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class NoteInsertBatcher {
+    // How often an idle writer checks whether it should stop
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final NoteRepository noteRepository;
+    private final GroupCommitProperties properties;
+    private final BlockingQueue<PendingInsert> queue;
+
+    private final DistributionSummary batchSize;
+    private final Timer flushTime;
+    private final Timer flushInterval;
+    private final Timer insertLatency;
+    private final Counter sizeFlushes;
+    private final Counter deadlineFlushes;
+
+    private volatile boolean running;
+    private Thread writer;
+    private long lastFlush;
+
+    public NoteInsertBatcher(NoteRepository noteRepository, GroupCommitProperties properties, MeterRegistry meterRegistry) {
+        if (properties.maxBatchSize() < 1) {
+            throw new IllegalArgumentException("Group commit batches must hold at least one note");
+        }
+
+        this.noteRepository = noteRepository;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+
+        batchSize = DistributionSummary.builder("noteapp.group-commit.batch.size")
+                .description("Notes per insert")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        flushTime = Timer.builder("noteapp.group-commit.flush")
+                .description("Duration of one insert until it is acknowledged")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        flushInterval = Timer.builder("noteapp.group-commit.flush.interval")
+                .description("Time between the starts of consecutive inserts")
+                .register(meterRegistry);
+        insertLatency = Timer.builder("noteapp.group-commit.latency")
+                .description("Time from queueing a note until its insert is acknowledged")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        sizeFlushes = Counter.builder("noteapp.group-commit.flushes")
+                .tag("trigger", "size")
+                .register(meterRegistry);
+        deadlineFlushes = Counter.builder("noteapp.group-commit.flushes")
+                .tag("trigger", "deadline")
+                .register(meterRegistry);
+        Gauge.builder("noteapp.group-commit.queue", queue, BlockingQueue::size)
+                .description("Notes waiting for a flush")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+
+        running = true;
+        lastFlush = System.nanoTime();
+        writer = Thread.ofPlatform().name("note-group-commit").daemon().start(this::writeLoop);
+    }
+
+    /**
+     * Stops taking notes and flushes everything already queued before returning.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+
+        running = false;
+        writer.join();
+
+        // Notes offered while the writer was exiting
+        rejectQueued("Shutting down, retry later");
+    }
+
+    /**
+     * Inserts the note as part of the next batch and waits for the acknowledgement.
+     *
+     * @return the inserted note, with its id and version assigned
+     */
+    public Note insert(Note note) {
+        note.setId(new ObjectId().toHexString());
+        note.setVersion(0L);
+
+        PendingInsert pending = new PendingInsert(note, new CompletableFuture<>(), System.nanoTime());
+        if (!running) {
+            throw new BulkheadFullException("Not accepting notes, retry later");
+        }
+        if (!queue.offer(pending)) {
+            throw new BulkheadFullException("Too many notes waiting to be saved, retry later");
+        }
+        // The writer may have stopped and the queue been drained since the check; whoever removes the note answers it
+        if (!running && queue.remove(pending)) {
+            throw new BulkheadFullException("Not accepting notes, retry later");
+        }
+
+        try {
+            return pending.saved().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingInsert> batch = new ArrayList<>(properties.maxBatchSize());
+        try {
+            // The writer is never interrupted, so an insert in flight always completes
+            while (running || !queue.isEmpty()) {
+                try {
+                    collect(batch);
+                } catch (InterruptedException e) {
+                    // Treated like a shutdown: stop taking notes, flush what is queued without waiting for more
+                    log.warn("Group commit writer interrupted, flushing {} queued notes", queue.size());
+                    running = false;
+                    queue.drainTo(batch, properties.maxBatchSize() - batch.size());
+                }
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                    batch.clear();
+                }
+            }
+        } catch (Throwable e) {
+            // Without a writer no queued note would ever be answered
+            log.error("Group commit writer failed, rejecting {} queued notes", batch.size() + queue.size(), e);
+            running = false;
+            BulkheadFullException error = new BulkheadFullException("Note writer failed, retry later");
+            batch.forEach(pending -> pending.saved().completeExceptionally(error));
+            rejectQueued("Note writer failed, retry later");
+            throw e;
+        }
+    }
+
+    private void rejectQueued(String reason) {
+        List<PendingInsert> queued = new ArrayList<>();
+        queue.drainTo(queued);
+        BulkheadFullException error = new BulkheadFullException(reason);
+        queued.forEach(pending -> pending.saved().completeExceptionally(error));
+    }
+
+    private void collect(List<PendingInsert> batch) throws InterruptedException {
+        PendingInsert first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + properties.maxDelay().toNanos();
+
+        while (batch.size() < properties.maxBatchSize()) {
+            queue.drainTo(batch, properties.maxBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.maxBatchSize() || remaining <= 0) {
+                break;
+            }
+
+            PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+
+        (batch.size() >= properties.maxBatchSize() ? sizeFlushes : deadlineFlushes).increment();
+    }
+
+    private void flush(List<PendingInsert> batch) {
+        long start = System.nanoTime();
+        flushInterval.record(start - lastFlush, TimeUnit.NANOSECONDS);
+        lastFlush = start;
+        batchSize.record(batch.size());
+
+        BulkWriteOutcome outcome;
+        try {
+            outcome = noteRepository.insertAll(batch.stream().map(PendingInsert::note).toList());
+        } catch (RuntimeException e) {
+            log.error("Group insert of {} notes failed: {}", batch.size(), e.getMessage());
+            RuntimeException error = e instanceof DataIntegrityViolationException
+                    ? new IllegalArgumentException("Note saving error", e)
+                    : e;
+            batch.forEach(pending -> pending.saved().completeExceptionally(error));
+            return;
+        } finally {
+            flushTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        long acknowledged = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingInsert pending = batch.get(i);
+            insertLatency.record(acknowledged - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+
+            String error = outcome.errors().get(i);
+            if (error == null) {
+                pending.saved().complete(pending.note());
+            } else {
+                log.error("Group insert of note {} failed: {}", pending.note().getId(), error);
+                pending.saved().completeExceptionally(new IllegalArgumentException("Note saving error"));
+            }
+        }
+    }
+
+    private record PendingInsert(
+            Note note,
+            CompletableFuture<Note> saved,
+            long enqueuedAt
+    ) {
+    }
+}
@@ -0,0 +1,439 @@
+package com.noteapp.service;
+
+import com.noteapp.dto.NoteSearchHit;
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.event.NotesRemovedEvent;
+import com.noteapp.exception.SearchIndexNotReadyException;
+import com.noteapp.model.Note;
+import com.noteapp.model.WordCount;
+import com.noteapp.repository.NotePatch;
+import com.noteapp.repository.NoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over note titles and texts, ranked with BM25.
+ * <p>
+ * Terms follow the {@link WordCounter} tokenization, so a note's persisted stats are its text terms and only
+ * the title has to be tokenized again; a rebuild reads titles and stats but no texts, and only a note stored
+ * without stats is loaded whole. Writes update the postings of a single note; queries only touch the postings of
+ * their own terms and never read note bodies.
+ * <p>
+ * Every indexed note keeps the version it was indexed at, so a write is applied only when it is newer than what
+ * the index holds. That makes replaying writes onto a rebuilt index exact and keeps racing updates from leaving
+ * an older text behind; an update whose predecessor has not arrived yet reloads the note instead. Writes handled
+ * by other instances reach the index through the periodic rebuild from the collection. Searches are refused until
+ * the first rebuild has finished.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class NoteSearchIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Comparator<NoteSearchHit> RANKING = Comparator.comparingDouble(NoteSearchHit::score).reversed()
+            .thenComparing(NoteSearchHit::createdDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(NoteSearchHit::id);
+
+    private final NoteRepository noteRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Postings postings = new Postings();
+    // Writes made while a rebuild streams the collection, replayed onto the rebuilt postings before the swap
+    private List<Consumer<Postings>> pendingWrites;
+    private volatile boolean ready;
+
+    public NoteSearchIndex(NoteRepository noteRepository) {
+        this.noteRepository = noteRepository;
+    }
+
+    // Off the startup thread, so the full scans of the derived data run side by side instead of in turn
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(
+            initialDelayString = "${noteapp.search.rebuild-interval}",
+            fixedDelayString = "${noteapp.search.rebuild-interval}"
+    )
+    public synchronized void rebuild() {
+        setPendingWrites(new ArrayList<>());
+
+        Postings rebuilt = new Postings();
+        List<String> unset = new ArrayList<>();
+        try (Stream<Note> notes = noteRepository.streamSearchFields()) {
+            notes.forEach(note -> {
+                if (note.getStats() == null) {
+                    unset.add(note.getId());
+                } else {
+                    rebuilt.put(note.getId(), note.getTitle(), note.getCreatedDate(), note.getStats(), version(note));
+                }
+            });
+        } catch (RuntimeException e) {
+            setPendingWrites(null);
+            log.error("Failed to rebuild the search index, keeping the current one", e);
+            return;
+        }
+
+        List<String> stale;
+        lock.writeLock().lock();
+        try {
+            pendingWrites.forEach(write -> write.accept(rebuilt));
+            pendingWrites = null;
+            postings = rebuilt;
+            stale = rebuilt.drainStale();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Search index rebuilt with {} notes, {} more to load without stats", rebuilt.documents.size(), unset.size());
+        reload(stale);
+        reload(unset);
+    }
+
+    @EventListener
+    public void onNotesCreated(NotesCreatedEvent event) {
+        for (Note note : event.notes()) {
+            List<WordCount> stats = note.getStats() != null ? note.getStats() : WordCounter.of(note.getText()).toSortedList();
+            write(postings -> postings.put(note.getId(), note.getTitle(), note.getCreatedDate(), stats, version(note)));
+        }
+    }
+
+    @EventListener
+    public void onNoteUpdated(NoteUpdatedEvent event) {
+        String id = event.before().getId();
+        long version = version(event.before());
+        write(postings -> postings.update(id, version, event.patch()));
+    }
+
+    @EventListener
+    public void onNotesRemoved(NotesRemovedEvent event) {
+        List<String> ids = event.notes().stream().map(Note::getId).toList();
+        write(postings -> ids.forEach(postings::remove));
+    }
+
+    public Page<NoteSearchHit> search(String query, Pageable pageable) {
+        if (!ready) {
+            throw new SearchIndexNotReadyException("Search index is still being built");
+        }
+        List<WordCount> terms = WordCounter.of(query).toSortedList();
+
+        lock.readLock().lock();
+        try {
+            return postings.search(terms, pageable);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return postings.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void setPendingWrites(List<Consumer<Postings>> writes) {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = writes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(Consumer<Postings> write) {
+        List<String> stale;
+        lock.writeLock().lock();
+        try {
+            write.accept(postings);
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+            stale = postings.drainStale();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        reload(stale);
+    }
+
+    /**
+     * Indexes the current state of notes whose update could not be applied in order, outside the lock.
+     */
+    private void reload(List<String> ids) {
+        for (String id : ids) {
+            try {
+                noteRepository.findById(id).ifPresentOrElse(
+                        note -> {
+                            List<WordCount> stats = note.getStats() != null
+                                    ? note.getStats()
+                                    : WordCounter.of(note.getText()).toSortedList();
+                            write(postings -> postings.put(id, note.getTitle(), note.getCreatedDate(), stats, version(note)));
+                        },
+                        () -> write(postings -> postings.remove(id))
+                );
+            } catch (RuntimeException e) {
+                log.warn("Failed to reload note {} into the search index, the next rebuild will pick it up", id, e);
+            }
+        }
+    }
+
+    // Notes written before versioning count as version 0
+    private static long version(Note note) {
+        return note.getVersion() == null ? 0 : note.getVersion();
+    }
+
+    /**
+     * A note as indexed. Its terms are parallel arrays whose words are the postings' own keys, so they cost two
+     * array slots per distinct term rather than an object each.
+     */
+    private record Document(
+            int ordinal,
+            String id,
+            String title,
+            Instant createdDate,
+            String[] words,
+            int[] counts,
+            long length,
+            long version
+    ) {
+    }
+
+    /**
+     * The documents holding one term, as parallel arrays of document ordinals and frequencies. Entries of
+     * unindexed documents stay behind until they make up half of the arrays, so a removal never searches them.
+     */
+    private static final class TermPostings {
+        private final String word;
+        private int[] ordinals = new int[2];
+        private int[] frequencies = new int[2];
+        private int size;
+        private int live;
+
+        TermPostings(String word) {
+            this.word = word;
+        }
+
+        void add(int ordinal, int frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+
+        void purge(List<Document> byOrdinal) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (byOrdinal.get(ordinals[i]) != null) {
+                    ordinals[kept] = ordinals[i];
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            ordinals = Arrays.copyOf(ordinals, Math.max(kept, 2));
+            frequencies = Arrays.copyOf(frequencies, Math.max(kept, 2));
+        }
+    }
+
+    private static final class Postings {
+        private final Map<String, TermPostings> byTerm = new HashMap<>();
+        private final Map<String, Document> documents = new HashMap<>();
+        // Indexed documents by ordinal, null once unindexed; ordinals are not reused, a rebuild starts them over
+        private final List<Document> byOrdinal = new ArrayList<>();
+        // Ids removed since this index was built, so a create or reload arriving late cannot bring them back
+        private final Set<String> removed = new HashSet<>();
+        // Notes an update could not be applied to in order, to be reloaded from the collection
+        private final Set<String> stale = new HashSet<>();
+        private long totalLength;
+
+        // Indexes a note unless the index already holds it at this version or a newer one
+        void put(String id, String title, Instant createdDate, List<WordCount> textStats, long version) {
+            Document current = documents.get(id);
+            if (removed.contains(id) || current != null && current.version() >= version) {
+                return;
+            }
+            unindex(id);
+
+            WordCounter counter = WordCounter.of(title);
+            for (WordCount stat : textStats) {
+                counter.add(stat.word(), stat.count());
+            }
+            List<WordCount> terms = counter.toSortedList();
+
+            int ordinal = byOrdinal.size();
+            String[] words = new String[terms.size()];
+            int[] counts = new int[terms.size()];
+            long length = 0;
+            for (int i = 0; i < words.length; i++) {
+                WordCount term = terms.get(i);
+                TermPostings postings = byTerm.computeIfAbsent(term.word(), TermPostings::new);
+                words[i] = postings.word;
+                counts[i] = (int) Math.min(term.count(), Integer.MAX_VALUE);
+                postings.add(ordinal, counts[i]);
+                length += counts[i];
+            }
+            Document document = new Document(ordinal, id, title, createdDate, words, counts, length, version);
+            byOrdinal.add(document);
+            documents.put(id, document);
+            totalLength += length;
+        }
+
+        /**
+         * Applies a partial update made at {@code beforeVersion}. An update the index is already past is dropped;
+         * one whose predecessor is missing, or for a note the index does not know, marks the note stale instead.
+         */
+        void update(String id, long beforeVersion, NotePatch patch) {
+            Document document = documents.get(id);
+            if (document == null) {
+                if (!removed.contains(id)) {
+                    stale.add(id);
+                }
+                return;
+            }
+            if (document.version() > beforeVersion) {
+                return;
+            }
+            if (document.version() < beforeVersion) {
+                stale.add(id);
+                return;
+            }
+
+            String title = patch.title() != null ? patch.title() : document.title();
+            List<WordCount> textStats = patch.stats() != null ? patch.stats() : textStats(document);
+            put(id, title, document.createdDate(), textStats, beforeVersion + 1);
+        }
+
+        void remove(String id) {
+            unindex(id);
+            removed.add(id);
+            stale.remove(id);
+        }
+
+        List<String> drainStale() {
+            if (stale.isEmpty()) {
+                return List.of();
+            }
+            List<String> ids = List.copyOf(stale);
+            stale.clear();
+            return ids;
+        }
+
+        private void unindex(String id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+
+            byOrdinal.set(document.ordinal(), null);
+            for (String word : document.words()) {
+                TermPostings postings = byTerm.get(word);
+                postings.live--;
+                if (postings.live == 0) {
+                    byTerm.remove(word);
+                } else if (postings.live * 2 < postings.size) {
+                    postings.purge(byOrdinal);
+                }
+            }
+            totalLength -= document.length();
+        }
+
+        Page<NoteSearchHit> search(List<WordCount> terms, Pageable pageable) {
+            if (documents.isEmpty() || terms.isEmpty()) {
+                return Page.empty(pageable);
+            }
+
+            int count = documents.size();
+            double averageLength = (double) totalLength / count;
+            Map<Integer, Double> scores = new HashMap<>();
+            for (WordCount term : terms) {
+                TermPostings postings = byTerm.get(term.word());
+                if (postings == null) continue;
+
+                double idf = Math.log(1 + (count - postings.live + 0.5) / (postings.live + 0.5));
+                for (int i = 0; i < postings.size; i++) {
+                    Document document = byOrdinal.get(postings.ordinals[i]);
+                    if (document == null) continue;
+
+                    double frequency = postings.frequencies[i];
+                    double score = idf * frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * document.length() / averageLength));
+                    scores.merge(document.ordinal(), score, Double::sum);
+                }
+            }
+
+            return new PageImpl<>(topHits(scores, pageable), pageable, scores.size());
+        }
+
+        // Keeps only offset + size hits in a bounded heap instead of sorting every match
+        private List<NoteSearchHit> topHits(Map<Integer, Double> scores, Pageable pageable) {
+            long wanted = pageable.getOffset() + pageable.getPageSize();
+            if (pageable.getOffset() >= scores.size()) {
+                return List.of();
+            }
+
+            PriorityQueue<NoteSearchHit> heap = new PriorityQueue<>(RANKING.reversed());
+            for (Map.Entry<Integer, Double> score : scores.entrySet()) {
+                Document document = byOrdinal.get(score.getKey());
+                heap.add(new NoteSearchHit(document.id(), document.title(), document.createdDate(), score.getValue()));
+                if (heap.size() > wanted) {
+                    heap.poll();
+                }
+            }
+
+            List<NoteSearchHit> hits = new ArrayList<>(heap);
+            hits.sort(RANKING);
+            return hits.subList((int) pageable.getOffset(), hits.size());
+        }
+
+        // A document's terms are its text stats plus its title words, so the text stats are the difference
+        private static List<WordCount> textStats(Document document) {
+            Map<String, Long> titleCounts = new HashMap<>();
+            for (WordCount word : WordCounter.of(document.title()).toSortedList()) {
+                titleCounts.put(word.word(), word.count());
+            }
+
+            List<WordCount> textStats = new ArrayList<>(document.words().length);
+            for (int i = 0; i < document.words().length; i++) {
+                long count = document.counts()[i] - titleCounts.getOrDefault(document.words()[i], 0L);
+                if (count > 0) {
+                    textStats.add(new WordCount(document.words()[i], count));
+                }
+            }
+            return textStats;
+        }
+    }
+}
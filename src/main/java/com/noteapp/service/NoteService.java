@@ -1,109 +1,275 @@
 package com.noteapp.service;
 
+import com.noteapp.config.BatchProperties;
+import com.noteapp.dto.BulkDeleteResponse;
+import com.noteapp.dto.CacheStatsResponse;
 import com.noteapp.dto.CreateNoteRequest;
 import com.noteapp.dto.NoteDto;
 import com.noteapp.dto.NoteParams;
+import com.noteapp.dto.NotePreviewCursorPage;
 import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.dto.NotePreviewSlice;
+import com.noteapp.dto.NoteSearchHit;
 import com.noteapp.dto.NoteStatsEntry;
 import com.noteapp.dto.NoteStatsResponse;
 import com.noteapp.dto.NoteTextResponse;
 import com.noteapp.dto.UpdateNoteRequest;
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.event.NotesRemovedEvent;
 import com.noteapp.exception.NotFoundException;
+import com.noteapp.exception.PreconditionFailedException;
 import com.noteapp.mapper.NoteMapper;
 import com.noteapp.model.Note;
+import com.noteapp.model.WordCount;
+import com.noteapp.repository.NotePatch;
 import com.noteapp.repository.NoteRepository;
+import com.noteapp.repository.NoteStatsView;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.time.Instant;
-import java.util.Arrays;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
-import java.util.Optional;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
+@Timed(value = "noteapp.service", histogram = true)
 public class NoteService {
     private final NoteRepository noteRepository;
     private final NoteMapper noteMapper;
+    private final NoteCountCache noteCountCache;
+    private final NoteCache noteCache;
+    private final NoteSearchIndex noteSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NoteInsertBatcher insertBatcher;
+    private final ParallelWordCounter wordCounter;
+    private final BatchProperties batchProperties;
 
     public NoteDto createNote(CreateNoteRequest dto) {
-        Note note = new Note();
-        note.setTitle(dto.title());
-        note.setText(dto.text());
-        note.setTags(dto.tags());
-        note.setCreatedDate(Instant.now());
+        Note note = NoteFactory.newNote(dto, Instant.now(), calculateStats(dto.text()));
 
-        Note savedNote = saveNote(note);
+        Note savedNote = insertBatcher.isEnabled() ? insertBatcher.insert(note) : saveNote(note);
+        eventPublisher.publishEvent(new NotesCreatedEvent(List.of(savedNote)));
 
         return noteMapper.toDto(savedNote);
     }
 
     public NoteTextResponse getText(String id) {
-        Note note = findById(id);
+        Note note = findForRead(id);
 
         return noteMapper.toNoteTextResponse(note);
     }
 
-    public NoteDto updateNote(UpdateNoteRequest dto, String id) {
-        Note note = findById(id);
+    public NoteDto updateNote(UpdateNoteRequest dto, String id, Long expectedVersion) {
+        NotePatch patch = new NotePatch(
+                dto.title(),
+                dto.text(),
+                dto.text() == null ? null : calculateStats(dto.text()),
+                dto.tags()
+        );
 
-        Optional.ofNullable(dto.title()).ifPresent(note::setTitle);
-        Optional.ofNullable(dto.text()).ifPresent(note::setText);
-        Optional.ofNullable(dto.tags()).ifPresent(note::setTags);
+        if (patch.isEmpty()) {
+            Note note = findById(id);
+            if (expectedVersion != null && !expectedVersion.equals(note.getVersion())) {
+                throw new PreconditionFailedException("Note was modified concurrently");
+            }
+            return noteMapper.toDto(note);
+        }
 
-        Note updatedNote = saveNote(note);
+        Note before = patchNote(id, expectedVersion, patch);
+        if (before == null) {
+            if (expectedVersion != null && noteRepository.existsById(id)) {
+                throw new PreconditionFailedException("Note was modified concurrently");
+            }
+            throw new NotFoundException("Note not found");
+        }
+        Note updatedNote = NoteFactory.patched(before, patch);
+        noteCache.put(updatedNote);
+        eventPublisher.publishEvent(new NoteUpdatedEvent(before, patch));
 
         return noteMapper.toDto(updatedNote);
     }
 
     public void deleteNote(String id) {
-        Note note = findById(id);
+        Note removed = noteRepository.removeById(id);
+        noteCache.invalidate(id);
+
+        if (removed == null) {
+            throw new NotFoundException("Note not found");
+        }
+        eventPublisher.publishEvent(new NotesRemovedEvent(List.of(removed)));
+    }
+
+    public BulkDeleteResponse deleteNotes(List<String> ids, NoteParams params) {
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byTags = params.tags() != null && !params.tags().isEmpty();
+        if (byIds == byTags) {
+            throw new IllegalArgumentException("Specify either ids or tags");
+        }
+
+        if (byIds) {
+            return new BulkDeleteResponse(removeEach(ids));
+        }
+
+        // A tag may match any number of notes, so only one chunk of ids is held at a time
+        long deleted = 0;
+        try (Stream<Note> summaries = noteRepository.streamSummariesByTags(params.tags())) {
+            Iterator<Note> iterator = summaries.iterator();
+            List<String> chunk = new ArrayList<>();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next().getId());
+                if (chunk.size() == batchProperties.chunkSize() || !iterator.hasNext()) {
+                    deleted += removeEach(chunk);
+                    chunk = new ArrayList<>();
+                }
+            }
+        }
+        return new BulkDeleteResponse(deleted);
+    }
 
-        noteRepository.delete(note);
+    public Page<NoteSearchHit> searchNotes(String query, Pageable pageable) {
+        if (!StringUtils.hasText(query)) {
+            throw new IllegalArgumentException("Query must not be blank");
+        }
+
+        return noteSearchIndex.search(query, pageable);
+    }
+
+    public Long getVersion(String id) {
+        return noteRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundException("Note not found"))
+                .getVersion();
     }
 
     public NoteDto getNoteDtoById(String id) {
-        Note note = findById(id);
+        Note note = findForRead(id);
         return noteMapper.toDto(note);
     }
 
-    public NoteStatsResponse getStats(String id) {
-        Note note = findById(id);
-        List<NoteStatsEntry> entries = calculateStats(note.getText());
+    public NoteStatsResponse getStats(String id, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        List<WordCount> stats;
+        Long version;
+        // Notes cached by a read carry no stats; only one cached after a write does
+        Note cached = noteCache.getIfPresent(id);
+        if (cached != null && cached.getStats() != null) {
+            stats = cached.getStats();
+            version = cached.getVersion();
+        } else {
+            NoteStatsView view = noteRepository.findStatsById(id)
+                    .orElseThrow(() -> new NotFoundException("Note not found"));
+            stats = view.getStats();
+            version = view.getVersion();
+        }
+
+        if (stats == null) {
+            // Notes written before stats were persisted have no precomputed counts yet
+            Note note = findForRead(id);
+            WordCounter counter = wordCounter.count(note.getText());
+            stats = limit == null ? counter.toSortedList() : counter.top(limit);
+            version = note.getVersion();
+        } else if (limit != null && limit < stats.size()) {
+            stats = stats.subList(0, limit);
+        }
 
-        return new NoteStatsResponse(id, entries);
+        return new NoteStatsResponse(id, toStatsEntries(stats), version);
     }
 
     public Page<NotePreviewDto> getNotePreviews(NoteParams params, Pageable pageable) {
-        Page<Note> notePage;
-        if (params.tags() == null || params.tags().isEmpty()) {
-            notePage = noteRepository.findAll(pageable);
-        } else {
-            notePage = noteRepository.findByTagsIn(params.tags(), pageable);
+        return noteRepository.findPreviews(params.tags(), pageable);
+    }
+
+    public Page<NotePreviewDto> getNotePreviewsWithEstimatedTotal(NoteParams params, Pageable pageable) {
+        Slice<NotePreviewDto> slice = noteRepository.findPreviewSlice(params.tags(), pageable);
+        long seen = pageable.getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext()) {
+            return new PageImpl<>(slice.getContent(), pageable, seen);
         }
 
-        List<NotePreviewDto> notePreviewDtoList = noteMapper.toPreviewDtoList(notePage);
+        // The estimate can lag behind writes; never report fewer notes than this request has proven to exist
+        long total = Math.max(noteCountCache.getCount(params.tags()), seen + 1);
+        return new PageImpl<>(slice.getContent(), pageable, total);
+    }
+
+    public NotePreviewSlice getNotePreviewSlice(NoteParams params, Pageable pageable) {
+        Slice<NotePreviewDto> slice = noteRepository.findPreviewSlice(params.tags(), pageable);
 
-        return new PageImpl<>(notePreviewDtoList, pageable, notePage.getTotalElements());
+        return new NotePreviewSlice(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
     }
 
+    public NotePreviewCursorPage getNotePreviewsAfter(NoteParams params, String after, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+
+        NoteCursor cursor = StringUtils.hasText(after) ? NoteCursor.decode(after) : null;
+        List<NotePreviewDto> previews = noteRepository.findPreviewsBefore(
+                params.tags(),
+                cursor == null ? null : cursor.createdDate(),
+                cursor == null ? null : cursor.id(),
+                size + 1
+        );
+
+        boolean hasNext = previews.size() > size;
+        List<NotePreviewDto> content = hasNext ? previews.subList(0, size) : previews;
+        String next = hasNext ? NoteCursor.of(content.get(size - 1)).encode() : null;
 
+        return new NotePreviewCursorPage(content, next);
+    }
+
+    public CacheStatsResponse getCacheStats() {
+        return noteCache.stats();
+    }
 
     private Note findById(String id) {
-        return noteRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Note not found"));
+        return noteCache.get(id, key -> noteRepository.findById(key)
+                .orElseThrow(() -> new NotFoundException("Note not found")));
+    }
+
+    /**
+     * Like {@link #findById}, but a cache miss may be served by a secondary.
+     */
+    private Note findForRead(String id) {
+        return noteCache.get(id, key -> noteRepository.findForRead(key)
+                .orElseThrow(() -> new NotFoundException("Note not found")));
+    }
+
+    /**
+     * Removes the notes one by one, so the event carries exactly the notes this call deleted; a note a concurrent
+     * delete got to first is left to that delete's event instead of being subtracted twice.
+     */
+    private long removeEach(List<String> ids) {
+        List<Note> removed = new ArrayList<>();
+        for (String id : ids) {
+            Note summary = noteRepository.removeById(id);
+            if (summary != null) {
+                removed.add(summary);
+            }
+        }
+        noteCache.invalidateAll(ids);
+
+        if (!removed.isEmpty()) {
+            eventPublisher.publishEvent(new NotesRemovedEvent(removed));
+        }
+        return removed.size();
     }
 
     private Note saveNote(Note note) {
@@ -115,16 +281,22 @@ public class NoteService {
         }
     }
 
-    private List<NoteStatsEntry> calculateStats(String text) {
-        if (!StringUtils.hasText(text)) return List.of();
+    private Note patchNote(String id, Long expectedVersion, NotePatch patch) {
+        try {
+            return noteRepository.patch(id, expectedVersion, patch);
+        } catch (DataIntegrityViolationException e) {
+            log.error(e.getMessage());
+            throw new IllegalArgumentException("Note saving error", e);
+        }
+    }
+
+    private List<WordCount> calculateStats(String text) {
+        return wordCounter.count(text).toSortedList();
+    }
 
-        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("\\W+"))
-                .filter(StringUtils::hasText)
-                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
-                .entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
-                        .thenComparing(Map.Entry.comparingByKey()))
-                .map(e -> new NoteStatsEntry(e.getKey(), e.getValue()))
+    private List<NoteStatsEntry> toStatsEntries(List<WordCount> stats) {
+        return stats.stream()
+                .map(wordCount -> new NoteStatsEntry(wordCount.word(), wordCount.count()))
                 .toList();
     }
 }
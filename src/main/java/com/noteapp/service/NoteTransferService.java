@@ -0,0 +1,316 @@
+package com.noteapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.noteapp.config.BatchProperties;
+import com.noteapp.dto.CreateNoteRequest;
+import com.noteapp.dto.ImportSummaryResponse;
+import com.noteapp.dto.NoteDto;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.mapper.NoteMapper;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.repository.BulkWriteOutcome;
+import com.noteapp.repository.NoteRepository;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Moves notes in and out of the application as newline-delimited JSON, one note per line.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class NoteTransferService {
+    private static final int MAX_REJECTED_LINES = 1000;
+
+    private final NoteRepository noteRepository;
+    private final NoteMapper noteMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final BatchProperties batchProperties;
+
+    public void checkExportRange(Instant from, Instant to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+    }
+
+    /**
+     * Writes every matching note straight from the database cursor, so only one note is held in memory at a time.
+     *
+     * @return the number of exported notes
+     */
+    public long exportNotes(List<NoteTagEnum> tags, Instant from, Instant to, OutputStream out) throws IOException {
+        // Let the generator buffer fill up instead of flushing the response after every note
+        ObjectWriter writer = objectMapper.writerFor(NoteDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        long exported = 0;
+        try (Stream<Note> notes = noteRepository.streamNotes(tags, from, to);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Iterator<Note> iterator = notes.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, noteMapper.toDto(iterator.next()));
+                generator.writeRaw('\n');
+                exported++;
+            }
+        }
+
+        log.info("Exported {} notes", exported);
+        return exported;
+    }
+
+    /**
+     * Reads the upload line by line and inserts valid records in chunks of {@code chunkSize}. At most
+     * {@code importWindow} chunks are written concurrently; once the window is full reading pauses, which
+     * pushes back on the client through the request body instead of buffering it. Lines longer than
+     * {@code maxImportLineLength} are skipped as they are read and reported as rejected.
+     */
+    public ImportSummaryResponse importNotes(InputStream in) throws IOException {
+        long started = System.nanoTime();
+        int chunkSize = batchProperties.chunkSize();
+        // Exported lines carry id, createdDate and version too, so they can be imported as they are
+        ObjectReader reader = objectMapper.readerFor(CreateNoteRequest.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        Semaphore window = new Semaphore(batchProperties.importWindow());
+        ImportProgress progress = new ImportProgress();
+        Instant now = Instant.now();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ImportLines lines = new ImportLines(new InputStreamReader(in, StandardCharsets.UTF_8),
+                    batchProperties.maxImportLineLength());
+            List<Note> chunk = new ArrayList<>(chunkSize);
+            long[] chunkLines = new long[chunkSize];
+            long lineNumber = 0;
+
+            while (lines.next()) {
+                lineNumber++;
+                if (lines.tooLong()) {
+                    progress.reject(lineNumber);
+                    continue;
+                }
+                String line = lines.line();
+                if (line.isBlank()) continue;
+
+                CreateNoteRequest request = parse(reader, line);
+                if (request == null) {
+                    progress.reject(lineNumber);
+                    continue;
+                }
+
+                // Bulk inserts do not copy generated ids back, and the created event needs them
+                Note note = NoteFactory.newNote(request, now);
+                note.setId(new ObjectId().toHexString());
+                note.setVersion(0L);
+                chunkLines[chunk.size()] = lineNumber;
+                chunk.add(note);
+
+                if (chunk.size() == chunkSize) {
+                    submit(executor, window, progress, chunk, chunkLines);
+                    chunk = new ArrayList<>(chunkSize);
+                    chunkLines = new long[chunkSize];
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(executor, window, progress, chunk, chunkLines);
+            }
+        }
+        progress.throwIfFailed();
+
+        ImportSummaryResponse summary = progress.toSummary(System.nanoTime() - started);
+        log.info("Imported {} notes, rejected {} in {} ms", summary.imported(), summary.rejected(), summary.elapsedMillis());
+        return summary;
+    }
+
+    private void submit(ExecutorService executor, Semaphore window, ImportProgress progress,
+                        List<Note> chunk, long[] chunkLines) throws InterruptedIOException {
+        try {
+            window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        }
+        // Stop reading as soon as a chunk failed outright; the chunks already in flight still finish
+        progress.throwIfFailed();
+
+        executor.execute(() -> {
+            try {
+                BulkWriteOutcome outcome = noteRepository.insertAll(chunk);
+                progress.imported(outcome.count());
+                List<Note> created = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (outcome.errors().containsKey(i)) {
+                        progress.reject(chunkLines[i]);
+                    } else {
+                        created.add(chunk.get(i));
+                    }
+                }
+                eventPublisher.publishEvent(new NotesCreatedEvent(created));
+            } catch (RuntimeException e) {
+                progress.fail(e);
+            } finally {
+                window.release();
+            }
+        });
+    }
+
+    private CreateNoteRequest parse(ObjectReader reader, String line) {
+        try {
+            CreateNoteRequest request = reader.readValue(line);
+            return request != null && validator.validate(request).isEmpty() ? request : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Splits the upload into lines like {@link java.io.BufferedReader#readLine()}, but holds at most
+     * {@code maxLength} chars of a line; the rest of a longer line is read past and dropped.
+     */
+    private static final class ImportLines {
+        private final Reader in;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean tooLong;
+
+        ImportLines(Reader in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * @return false once the upload is exhausted
+         */
+        boolean next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return read && endLine();
+                    }
+                }
+                read = true;
+
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                append(start, position);
+                if (position < limit) {
+                    position++;
+                    return endLine();
+                }
+            }
+        }
+
+        boolean tooLong() {
+            return tooLong;
+        }
+
+        String line() {
+            return line.toString();
+        }
+
+        private boolean endLine() {
+            if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+                line.setLength(line.length() - 1);
+            }
+            return true;
+        }
+
+        private void append(int from, int to) {
+            if (tooLong) {
+                return;
+            }
+            if (line.length() + to - from > maxLength) {
+                tooLong = true;
+                line.setLength(0);
+                return;
+            }
+            line.append(buffer, from, to - from);
+        }
+    }
+
+    private static final class ImportProgress {
+        private final TreeSet<Long> rejectedLines = new TreeSet<>();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private long imported;
+        private long rejected;
+
+        synchronized void imported(long count) {
+            imported += count;
+        }
+
+        // Keeps the lowest line numbers, since chunks may report their rejections out of order
+        synchronized void reject(long lineNumber) {
+            rejected++;
+            rejectedLines.add(lineNumber);
+            if (rejectedLines.size() > MAX_REJECTED_LINES) {
+                rejectedLines.pollLast();
+            }
+        }
+
+        void fail(RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+
+        void throwIfFailed() {
+            RuntimeException e = failure.get();
+            if (e != null) {
+                throw e;
+            }
+        }
+
+        synchronized ImportSummaryResponse toSummary(long elapsedNanos) {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            return new ImportSummaryResponse(
+                    imported,
+                    rejected,
+                    List.copyOf(rejectedLines),
+                    rejected > rejectedLines.size(),
+                    elapsedNanos / 1_000_000,
+                    seconds > 0 ? imported / seconds : 0
+            );
+        }
+    }
+}
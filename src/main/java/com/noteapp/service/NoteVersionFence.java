@@ -0,0 +1,57 @@
+package com.noteapp.service;
+
+import com.noteapp.model.Note;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks the version of each note a rebuild has counted, so writes that raced the rebuild are replayed onto it
+ * exactly once: a write is admitted only when it moves a counted note on from the version the rebuild holds,
+ * or when it creates a note the rebuild has not seen. Writes the snapshot already reflects are dropped, and so
+ * are writes to notes the rebuild does not hold. A note stored without a version counts as version 0, matching
+ * the first update which sets it to 1.
+ */
+final class NoteVersionFence {
+    private final Map<String, Long> versions = new HashMap<>();
+
+    /**
+     * Records a note read by the rebuild.
+     *
+     * @return false when the note was already read, so a cursor returning it twice is counted once
+     */
+    boolean read(Note note) {
+        return versions.putIfAbsent(note.getId(), version(note)) == null;
+    }
+
+    /**
+     * Moves a counted note to the state the rebuild reloaded it in.
+     */
+    void reread(Note note) {
+        versions.put(note.getId(), version(note));
+    }
+
+    void forget(String id) {
+        versions.remove(id);
+    }
+
+    boolean admitCreate(Note note) {
+        return versions.putIfAbsent(note.getId(), version(note)) == null;
+    }
+
+    /**
+     * @param before the note as it was before the update, which leaves it one version further on
+     */
+    boolean admitUpdate(Note before) {
+        long version = version(before);
+        return versions.replace(before.getId(), version, version + 1);
+    }
+
+    boolean admitRemove(Note note) {
+        return versions.remove(note.getId(), version(note));
+    }
+
+    private static long version(Note note) {
+        return note.getVersion() == null ? 0 : note.getVersion();
+    }
+}
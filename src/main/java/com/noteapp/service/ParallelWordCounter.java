@@ -0,0 +1,109 @@
+package com.noteapp.service;
+
+import com.noteapp.config.WordCountProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts texts of {@code parallelThreshold} chars and more on a dedicated fork-join pool; shorter texts are
+ * counted on the calling thread. The text is split in halves at word boundaries down to {@code chunkSize}, each
+ * chunk is counted into its own {@link WordCounter} and the counters are merged on the way back up. A word never
+ * spans two chunks, so the counts, and with them {@link WordCounter#toSortedList()}, equal the sequential ones.
+ * <p>
+ * The pool never grows beyond {@code parallelism} threads, so parallel counts queue up behind each other instead
+ * of competing with request threads for every core.
+ */
+@Component
+@Profile("!reactive")
+public class ParallelWordCounter {
+    private final int parallelThreshold;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    public ParallelWordCounter(WordCountProperties properties) {
+        if (properties.chunkSize() < 1) {
+            throw new IllegalArgumentException("Word count chunks must hold at least one char");
+        }
+
+        this.parallelThreshold = properties.parallelThreshold();
+        this.chunkSize = properties.chunkSize();
+        int parallelism = properties.parallelism() > 0
+                ? properties.parallelism()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        // Joins that cannot be compensated within the bound keep waiting instead of failing
+        this.pool = new ForkJoinPool(parallelism, ParallelWordCounter::newWorker, null, false,
+                0, parallelism, 1, saturated -> true, 60, TimeUnit.SECONDS);
+    }
+
+    public WordCounter count(CharSequence text) {
+        // A single worker would only add a hand-off to the sequential count
+        if (text == null || text.length() < parallelThreshold || pool.getParallelism() < 2) {
+            return WordCounter.of(text);
+        }
+        return pool.invoke(new CountTask(text, 0, text.length()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Returns the first index from {@code from} on where a chunk may start without cutting a word, or {@code to}
+     * when the rest of the range is a single word.
+     */
+    static int boundary(CharSequence text, int from, int to) {
+        int index = from;
+        while (index < to && WordCounter.isWordChar(text.charAt(index - 1)) && WordCounter.isWordChar(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("word-count-" + thread.getPoolIndex());
+        return thread;
+    }
+
+    private final class CountTask extends RecursiveTask<WordCounter> {
+        private final CharSequence text;
+        private final int from;
+        private final int to;
+
+        CountTask(CharSequence text, int from, int to) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected WordCounter compute() {
+            int split = to - from > chunkSize ? boundary(text, from + (to - from) / 2, to) : to;
+            if (split >= to) {
+                WordCounter counter = new WordCounter();
+                counter.addAll(text, from, to);
+                return counter;
+            }
+
+            CountTask left = new CountTask(text, from, split);
+            left.fork();
+            WordCounter right = new CountTask(text, split, to).compute();
+            WordCounter counted = left.join();
+
+            // Merging the smaller table into the larger one touches fewer slots
+            if (counted.size() < right.size()) {
+                right.merge(counted);
+                return right;
+            }
+            counted.merge(right);
+            return counted;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.noteapp.service;
+
+import com.noteapp.dto.CreateNoteRequest;
+import com.noteapp.dto.NoteDto;
+import com.noteapp.dto.NoteParams;
+import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.dto.NoteStatsEntry;
+import com.noteapp.dto.NoteStatsResponse;
+import com.noteapp.dto.NoteTextResponse;
+import com.noteapp.dto.UpdateNoteRequest;
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.event.NotesRemovedEvent;
+import com.noteapp.exception.NotFoundException;
+import com.noteapp.exception.PreconditionFailedException;
+import com.noteapp.mapper.NoteMapper;
+import com.noteapp.model.Note;
+import com.noteapp.model.WordCount;
+import com.noteapp.repository.NotePatch;
+import com.noteapp.repository.NoteVersionView;
+import com.noteapp.repository.ReactiveNoteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link NoteService} for the {@code reactive} profile. Word counting is CPU bound
+ * on large texts, so it runs on the bounded elastic scheduler instead of the event loop.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveNoteService {
+    private final ReactiveNoteRepository noteRepository;
+    private final NoteMapper noteMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public Mono<NoteDto> createNote(CreateNoteRequest dto) {
+        return Mono.fromCallable(() -> NoteFactory.newNote(dto, Instant.now()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(note -> noteRepository.save(note).onErrorMap(DataIntegrityViolationException.class, this::savingError))
+                .doOnNext(savedNote -> eventPublisher.publishEvent(new NotesCreatedEvent(List.of(savedNote))))
+                .map(noteMapper::toDto);
+    }
+
+    public Mono<Long> getVersion(String id) {
+        return noteRepository.findVersionById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Note not found")))
+                .mapNotNull(NoteVersionView::getVersion)
+                .defaultIfEmpty(0L);
+    }
+
+    public Mono<NoteDto> getNoteDtoById(String id) {
+        return findById(id).map(noteMapper::toDto);
+    }
+
+    public Mono<NoteTextResponse> getText(String id) {
+        return findById(id).map(noteMapper::toNoteTextResponse);
+    }
+
+    public Mono<NoteDto> updateNote(UpdateNoteRequest dto, String id, Long expectedVersion) {
+        return Mono.fromCallable(() -> new NotePatch(
+                        dto.title(),
+                        dto.text(),
+                        dto.text() == null ? null : WordCounter.of(dto.text()).toSortedList(),
+                        dto.tags()
+                ))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(patch -> patch.isEmpty()
+                        ? unchanged(id, expectedVersion)
+                        : patchNote(id, expectedVersion, patch));
+    }
+
+    public Mono<Void> deleteNote(String id) {
+        return noteRepository.removeById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Note not found")))
+                .doOnNext(removed -> eventPublisher.publishEvent(new NotesRemovedEvent(List.of(removed))))
+                .then();
+    }
+
+    public Mono<NoteStatsResponse> getStats(String id, Integer limit) {
+        if (limit != null && limit < 1) {
+            return Mono.error(new IllegalArgumentException("Limit must be positive"));
+        }
+
+        return noteRepository.findStatsById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Note not found")))
+                .flatMap(view -> {
+                    List<WordCount> stats = view.getStats();
+                    if (stats != null) {
+                        List<WordCount> limited = limit != null && limit < stats.size() ? stats.subList(0, limit) : stats;
+                        return Mono.just(new NoteStatsResponse(id, toStatsEntries(limited), view.getVersion()));
+                    }
+                    // Notes written before stats were persisted have no precomputed counts yet
+                    return findById(id)
+                            .publishOn(Schedulers.boundedElastic())
+                            .map(note -> {
+                                WordCounter counter = WordCounter.of(note.getText());
+                                List<WordCount> computed = limit == null ? counter.toSortedList() : counter.top(limit);
+                                return new NoteStatsResponse(id, toStatsEntries(computed), note.getVersion());
+                            });
+                });
+    }
+
+    public Mono<Page<NotePreviewDto>> getNotePreviews(NoteParams params, Pageable pageable) {
+        return noteRepository.findPreviews(params.tags(), pageable);
+    }
+
+    public Flux<NoteDto> exportNotes(NoteParams params, Instant from, Instant to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            return Flux.error(new IllegalArgumentException("'from' must be before 'to'"));
+        }
+
+        return noteRepository.streamNotes(params.tags(), from, to).map(noteMapper::toDto);
+    }
+
+    private Mono<NoteDto> unchanged(String id, Long expectedVersion) {
+        return findById(id).map(note -> {
+            if (expectedVersion != null && !expectedVersion.equals(note.getVersion())) {
+                throw new PreconditionFailedException("Note was modified concurrently");
+            }
+            return noteMapper.toDto(note);
+        });
+    }
+
+    private Mono<NoteDto> patchNote(String id, Long expectedVersion, NotePatch patch) {
+        return noteRepository.patch(id, expectedVersion, patch)
+                .onErrorMap(DataIntegrityViolationException.class, this::savingError)
+                .switchIfEmpty(Mono.defer(() -> expectedVersion == null
+                        ? Mono.<Note>error(new NotFoundException("Note not found"))
+                        : noteRepository.existsById(id).<Note>flatMap(exists -> Mono.error(exists
+                                ? new PreconditionFailedException("Note was modified concurrently")
+                                : new NotFoundException("Note not found")))))
+                .map(before -> {
+                    eventPublisher.publishEvent(new NoteUpdatedEvent(before, patch));
+                    return noteMapper.toDto(NoteFactory.patched(before, patch));
+                });
+    }
+
+    private Mono<Note> findById(String id) {
+        return noteRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Note not found")));
+    }
+
+    private IllegalArgumentException savingError(DataIntegrityViolationException e) {
+        log.error(e.getMessage());
+        return new IllegalArgumentException("Note saving error", e);
+    }
+
+    private List<NoteStatsEntry> toStatsEntries(List<WordCount> stats) {
+        return stats.stream()
+                .map(wordCount -> new NoteStatsEntry(wordCount.word(), wordCount.count()))
+                .toList();
+    }
+}
@@ -0,0 +1,207 @@
+package com.noteapp.service;
+
+import com.noteapp.dto.TagCountsResponse;
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.event.NotesRemovedEvent;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.repository.NoteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Number of notes carrying each tag, served from in-memory counters that every write adjusts. A periodic
+ * reconcile recounts the tags of every note to correct drift.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class TagCountService {
+    private final NoteRepository noteRepository;
+    // Writers share the read lock since the counters are atomic; only a reconcile takes the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<NoteTagEnum, AtomicLong> counts = counters();
+    // Writes applied while a reconcile streams the collection, replayed onto the recount before the swap
+    private Queue<Consumer<Recount>> pendingWrites;
+
+    public TagCountsResponse getCounts() {
+        Map<NoteTagEnum, Long> snapshot = new EnumMap<>(NoteTagEnum.class);
+        counts.forEach((tag, count) -> snapshot.put(tag, count.get()));
+        return new TagCountsResponse(snapshot);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Writes racing a reconcile are replayed onto its result through a {@link NoteVersionFence}, so a write the
+     * cursor has already seen is not counted twice.
+     */
+    @Scheduled(
+            initialDelayString = "${noteapp.tag-counts.reconcile-interval}",
+            fixedDelayString = "${noteapp.tag-counts.reconcile-interval}"
+    )
+    public synchronized void reconcile() {
+        setPendingWrites(new ConcurrentLinkedQueue<>());
+
+        Recount recount = new Recount();
+        try (Stream<Note> notes = noteRepository.streamSummaries()) {
+            notes.forEach(note -> {
+                if (recount.fence.read(note)) {
+                    recount.add(note.getTags(), 1);
+                }
+            });
+        } catch (RuntimeException e) {
+            setPendingWrites(null);
+            log.error("Failed to reconcile tag counts, keeping the current counters", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingWrites.forEach(write -> write.accept(recount));
+            pendingWrites = null;
+            recount.counted.forEach((tag, count) -> counts.get(tag).set(count));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Tag counts reconciled: {}", recount.counted);
+    }
+
+    @EventListener
+    public void onNotesCreated(NotesCreatedEvent event) {
+        write(() -> event.notes().forEach(note -> add(note.getTags(), 1)),
+                recount -> event.notes().forEach(recount::create));
+    }
+
+    @EventListener
+    public void onNoteUpdated(NoteUpdatedEvent event) {
+        Note before = event.before();
+        List<NoteTagEnum> tags = event.patch().tags();
+        // Patches leaving the tags as they are still move a reconcile's fence on to the new version
+        write(() -> move(before.getTags(), tags), recount -> recount.update(before, tags));
+    }
+
+    @EventListener
+    public void onNotesRemoved(NotesRemovedEvent event) {
+        write(() -> event.notes().forEach(note -> add(note.getTags(), -1)),
+                recount -> event.notes().forEach(recount::remove));
+    }
+
+    private void write(Runnable write, Consumer<Recount> replay) {
+        lock.readLock().lock();
+        try {
+            write.run();
+            if (pendingWrites != null) {
+                pendingWrites.add(replay);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void move(List<NoteTagEnum> before, List<NoteTagEnum> tags) {
+        if (tags == null) {
+            return;
+        }
+
+        Set<NoteTagEnum> removed = distinct(before);
+        Set<NoteTagEnum> added = distinct(tags);
+        removed.removeAll(distinct(tags));
+        added.removeAll(distinct(before));
+        add(removed, -1);
+        add(added, 1);
+    }
+
+    private void add(Collection<NoteTagEnum> tags, long delta) {
+        for (NoteTagEnum tag : distinct(tags)) {
+            counts.get(tag).addAndGet(delta);
+        }
+    }
+
+    private void setPendingWrites(Queue<Consumer<Recount>> writes) {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = writes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Set<NoteTagEnum> distinct(Collection<NoteTagEnum> tags) {
+        return tags == null || tags.isEmpty() ? EnumSet.noneOf(NoteTagEnum.class) : EnumSet.copyOf(tags);
+    }
+
+    private static Map<NoteTagEnum, AtomicLong> counters() {
+        Map<NoteTagEnum, AtomicLong> counters = new EnumMap<>(NoteTagEnum.class);
+        for (NoteTagEnum tag : NoteTagEnum.values()) {
+            counters.put(tag, new AtomicLong());
+        }
+        return counters;
+    }
+
+    /**
+     * Counts of a reconcile in progress; only the reconciling thread touches it, the replay included.
+     */
+    private static final class Recount {
+        private final Map<NoteTagEnum, Long> counted = new EnumMap<>(NoteTagEnum.class);
+        private final NoteVersionFence fence = new NoteVersionFence();
+
+        Recount() {
+            for (NoteTagEnum tag : NoteTagEnum.values()) {
+                counted.put(tag, 0L);
+            }
+        }
+
+        void create(Note note) {
+            if (fence.admitCreate(note)) {
+                add(note.getTags(), 1);
+            }
+        }
+
+        void update(Note before, List<NoteTagEnum> tags) {
+            if (fence.admitUpdate(before) && tags != null) {
+                add(before.getTags(), -1);
+                add(tags, 1);
+            }
+        }
+
+        void remove(Note note) {
+            if (fence.admitRemove(note)) {
+                add(note.getTags(), -1);
+            }
+        }
+
+        void add(Collection<NoteTagEnum> tags, long delta) {
+            for (NoteTagEnum tag : distinct(tags)) {
+                counted.merge(tag, delta, Long::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.noteapp.service;
+
+import com.noteapp.model.WordCount;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Single-pass word counter backed by an open-addressing table with primitive counts.
+ * <p>
+ * Tokenization is identical to {@code text.toLowerCase(Locale.ROOT).split("\\W+")}: a word is a run of
+ * ASCII letters, digits and underscores after lower-casing. Characters are lower-cased one at a time into
+ * a reusable buffer, so a word only allocates a {@link String} the first time it is seen.
+ */
+public final class WordCounter {
+    public static final Comparator<WordCount> ORDER = Comparator.comparingLong(WordCount::count).reversed()
+            .thenComparing(WordCount::word);
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Lower-cases to "i" plus a combining dot that is not a word character, so the word ends after the "i"
+    private static final char DOTTED_CAPITAL_I = '\u0130';
+
+    private String[] words;
+    private int[] hashes;
+    private long[] counts;
+    private int size;
+    private char[] buffer = new char[32];
+
+    public WordCounter() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public static WordCounter of(CharSequence text) {
+        WordCounter counter = new WordCounter();
+        if (text != null) {
+            counter.addAll(text, 0, text.length());
+        }
+        return counter;
+    }
+
+    public static boolean isWordChar(char c) {
+        return toWordChar(c) != 0;
+    }
+
+    public void addAll(CharSequence text, int from, int to) {
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            char wordChar = toWordChar(c);
+            if (wordChar != 0) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, length * 2);
+                }
+                buffer[length++] = wordChar;
+                if (c == DOTTED_CAPITAL_I) {
+                    increment(buffer, length);
+                    length = 0;
+                }
+            } else if (length > 0) {
+                increment(buffer, length);
+                length = 0;
+            }
+        }
+        if (length > 0) {
+            increment(buffer, length);
+        }
+    }
+
+    /**
+     * Adds {@code count} occurrences of an already tokenized word.
+     */
+    public void add(String word, long count) {
+        // increment() hashes the buffer exactly like String.hashCode()
+        add(word, word.hashCode(), count);
+    }
+
+    public void merge(WordCounter other) {
+        for (int slot = 0; slot < other.words.length; slot++) {
+            if (other.words[slot] != null) {
+                add(other.words[slot], other.hashes[slot], other.counts[slot]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<WordCount> toSortedList() {
+        WordCount[] result = new WordCount[size];
+        int index = 0;
+        for (int slot = 0; slot < words.length; slot++) {
+            if (words[slot] != null) {
+                result[index++] = new WordCount(words[slot], counts[slot]);
+            }
+        }
+        Arrays.sort(result, ORDER);
+        return List.of(result);
+    }
+
+    /**
+     * Returns the {@code limit} most frequent words in {@link #ORDER} using a bounded heap of table slots,
+     * so only the kept entries are ever sorted.
+     */
+    public List<WordCount> top(int limit) {
+        if (limit >= size) {
+            return toSortedList();
+        }
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        int[] heap = new int[limit];
+        int heapSize = 0;
+        for (int slot = 0; slot < words.length; slot++) {
+            if (words[slot] == null) continue;
+
+            if (heapSize < limit) {
+                heap[heapSize] = slot;
+                siftUp(heap, heapSize++);
+            } else if (ranksBefore(slot, heap[0])) {
+                heap[0] = slot;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        WordCount[] result = new WordCount[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            result[i] = new WordCount(words[heap[i]], counts[heap[i]]);
+        }
+        Arrays.sort(result, ORDER);
+        return List.of(result);
+    }
+
+    private static char toWordChar(char c) {
+        if (c < 128) {
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_') return c;
+            if (c >= 'A' && c <= 'Z') return (char) (c + ('a' - 'A'));
+            return 0;
+        }
+        // A handful of non-ASCII letters (e.g. the Kelvin sign) lower-case into ASCII word characters
+        char lower = Character.toLowerCase(c);
+        return lower < 128 ? toWordChar(lower) : 0;
+    }
+
+    private void increment(char[] chars, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        int mask = words.length - 1;
+        int slot = spread(hash) & mask;
+        while (words[slot] != null) {
+            if (hashes[slot] == hash && matches(words[slot], chars, length)) {
+                counts[slot]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        insert(slot, new String(chars, 0, length), hash, 1);
+    }
+
+    private void add(String word, int hash, long count) {
+        int mask = words.length - 1;
+        int slot = spread(hash) & mask;
+        while (words[slot] != null) {
+            if (hashes[slot] == hash && words[slot].equals(word)) {
+                counts[slot] += count;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        insert(slot, word, hash, count);
+    }
+
+    private void insert(int slot, String word, int hash, long count) {
+        words[slot] = word;
+        hashes[slot] = hash;
+        counts[slot] = count;
+        if (++size * 4 >= words.length * 3) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        String[] oldWords = words;
+        int[] oldHashes = hashes;
+        long[] oldCounts = counts;
+        allocate(oldWords.length * 2);
+
+        int mask = words.length - 1;
+        for (int i = 0; i < oldWords.length; i++) {
+            if (oldWords[i] == null) continue;
+
+            int slot = spread(oldHashes[i]) & mask;
+            while (words[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            words[slot] = oldWords[i];
+            hashes[slot] = oldHashes[i];
+            counts[slot] = oldCounts[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        words = new String[capacity];
+        hashes = new int[capacity];
+        counts = new long[capacity];
+    }
+
+    private boolean ranksBefore(int slot, int otherSlot) {
+        if (counts[slot] != counts[otherSlot]) {
+            return counts[slot] > counts[otherSlot];
+        }
+        return words[slot].compareTo(words[otherSlot]) < 0;
+    }
+
+    // heap[0] holds the lowest-ranked kept slot
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksBefore(heap[parent], heap[index])) break;
+
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int heapSize) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= heapSize) break;
+
+            int right = left + 1;
+            int worst = right < heapSize && ranksBefore(heap[left], heap[right]) ? right : left;
+            if (!ranksBefore(heap[index], heap[worst])) break;
+
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    private static boolean matches(String word, char[] chars, int length) {
+        if (word.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (word.charAt(i) != chars[i]) return false;
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,91 @@
+package com.noteapp.controller;
+
+import com.noteapp.config.BulkheadProperties;
+import com.noteapp.exception.BulkheadFullException;
+import com.noteapp.service.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadInterceptorTest {
+
+    private BulkheadRegistry bulkheadRegistry;
+    private BulkheadInterceptor interceptor;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        BulkheadProperties properties = new BulkheadProperties(true,
+                new BulkheadProperties.Limits(64, Duration.ZERO),
+                new BulkheadProperties.Limits(2, Duration.ZERO),
+                Map.of("NoteTransferController.exportNotes", new BulkheadProperties.Limits(1, Duration.ZERO)));
+        bulkheadRegistry = new BulkheadRegistry(properties, new SimpleMeterRegistry());
+        interceptor = new BulkheadInterceptor(bulkheadRegistry);
+    }
+
+    @Test
+    void preHandle_usesTheLimitsOfTheHandlerAndReleasesOnCompletion() {
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        HandlerMethod handler = handler("exportNotes");
+
+        interceptor.preHandle(first, response, handler);
+
+        assertThatThrownBy(() -> interceptor.preHandle(second, response, handler))
+                .isInstanceOf(BulkheadFullException.class);
+
+        interceptor.afterCompletion(first, response, handler, null);
+
+        assertThat(interceptor.preHandle(second, response, handler)).isTrue();
+    }
+
+    @Test
+    void preHandle_keepsTheSlotAcrossTheAsyncDispatch() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        HandlerMethod handler = handler("exportNotes");
+
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterConcurrentHandlingStarted(request, response, handler);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, handler);
+
+        assertThat(bulkheadRegistry.get("NoteTransferController.exportNotes").activeCalls()).isEqualTo(1);
+
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertThat(bulkheadRegistry.get("NoteTransferController.exportNotes").activeCalls()).isZero();
+    }
+
+    @Test
+    void preHandle_rejectsOverTheTotalLimitAndGivesTheHandlerSlotBack() {
+        HandlerMethod handler = handler("importNotes");
+        interceptor.preHandle(new MockHttpServletRequest(), response, handler);
+        interceptor.preHandle(new MockHttpServletRequest(), response, handler);
+
+        assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest(), response, handler))
+                .isInstanceOf(BulkheadFullException.class);
+
+        assertThat(bulkheadRegistry.get("NoteTransferController.importNotes").activeCalls()).isEqualTo(2);
+        assertThat(bulkheadRegistry.total().activeCalls()).isEqualTo(2);
+    }
+
+    private HandlerMethod handler(String name) {
+        Method method = Arrays.stream(NoteTransferController.class.getMethods())
+                .filter(candidate -> candidate.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+        return new HandlerMethod(new NoteTransferController(null), method);
+    }
+}
@@ -1,14 +1,21 @@
 package com.noteapp.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noteapp.dto.BulkDeleteResponse;
 import com.noteapp.dto.CreateNoteRequest;
 import com.noteapp.dto.NoteDto;
 import com.noteapp.dto.NoteParams;
+import com.noteapp.dto.NotePreviewCursorPage;
 import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.dto.NotePreviewSlice;
+import com.noteapp.dto.NoteSearchHit;
 import com.noteapp.dto.NoteStatsEntry;
 import com.noteapp.dto.NoteStatsResponse;
 import com.noteapp.dto.NoteTextResponse;
 import com.noteapp.dto.UpdateNoteRequest;
+import com.noteapp.exception.NotFoundException;
+import com.noteapp.exception.PreconditionFailedException;
+import com.noteapp.exception.SearchIndexNotReadyException;
 import com.noteapp.model.NoteTagEnum;
 import com.noteapp.service.NoteService;
 import org.junit.jupiter.api.Test;
@@ -34,12 +41,16 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -67,7 +78,7 @@ class NoteControllerTest {
     void createNote_returnsSavedNote() throws Exception {
         CreateNoteRequest request = new CreateNoteRequest("Sprint plan", "Outline tasks", List.of(NoteTagEnum.BUSINESS));
         Instant created = Instant.parse("2024-05-10T10:15:30Z");
-        NoteDto dto = new NoteDto("note-id", request.title(), request.text(), request.tags(), created);
+        NoteDto dto = new NoteDto("note-id", request.title(), request.text(), request.tags(), created, 0L);
         when(noteService.createNote(any(CreateNoteRequest.class))).thenReturn(dto);
 
         mockMvc.perform(post("/api/notes")
@@ -144,29 +155,184 @@ class NoteControllerTest {
         assertThat(pageable.getPageSize()).isEqualTo(10);
     }
 
+    @Test
+    void searchNotes_returnsRankedHitsPage() throws Exception {
+        Page<NoteSearchHit> hits = new PageImpl<>(
+                List.of(new NoteSearchHit("n1", "Release checklist", Instant.parse("2024-06-15T08:00:00Z"), 2.5)),
+                PageRequest.of(1, 5), 6);
+        when(noteService.searchNotes(eq("release notes"), any(Pageable.class))).thenReturn(hits);
+
+        mockMvc.perform(get("/api/notes/search")
+                        .param("q", "release notes")
+                        .param("page", "1")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("n1"))
+                .andExpect(jsonPath("$.content[0].score").value(2.5));
+
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(noteService).searchNotes(eq("release notes"), pageableCaptor.capture());
+        assertThat(pageableCaptor.getValue().getPageNumber()).isEqualTo(1);
+        assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(5);
+    }
+
+    @Test
+    void searchNotes_returnsServiceUnavailableWhileTheIndexIsBuilding() throws Exception {
+        when(noteService.searchNotes(eq("release"), any(Pageable.class)))
+                .thenThrow(new SearchIndexNotReadyException("Search index is still being built"));
+
+        mockMvc.perform(get("/api/notes/search").param("q", "release"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void getAllNotes_usesEstimatedTotalWhenRequested() throws Exception {
+        Page<NotePreviewDto> page = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
+        when(noteService.getNotePreviewsWithEstimatedTotal(any(NoteParams.class), any(Pageable.class))).thenReturn(page);
+
+        mockMvc.perform(get("/api/notes")
+                        .param("total", "ESTIMATED"))
+                .andExpect(status().isOk());
+
+        verify(noteService).getNotePreviewsWithEstimatedTotal(any(NoteParams.class), any(Pageable.class));
+        verify(noteService, never()).getNotePreviews(any(NoteParams.class), any(Pageable.class));
+    }
+
+    @Test
+    void getAllNotes_returnsSliceWhenRequested() throws Exception {
+        Instant created = Instant.parse("2024-06-15T08:00:00Z");
+        NotePreviewSlice slice = new NotePreviewSlice(List.of(new NotePreviewDto("n3", "Slice note", created)), 1, 5, true);
+        when(noteService.getNotePreviewSlice(any(NoteParams.class), any(Pageable.class))).thenReturn(slice);
+
+        mockMvc.perform(get("/api/notes")
+                        .param("slice", "true")
+                        .param("page", "1")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("n3"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(noteService).getNotePreviewSlice(any(NoteParams.class), pageableCaptor.capture());
+        assertThat(pageableCaptor.getValue().getPageNumber()).isEqualTo(1);
+        assertThat(pageableCaptor.getValue().getSort().getOrderFor("createdDate")).isNotNull();
+    }
+
+    @Test
+    void getAllNotes_usesCursorModeWhenAfterPresent() throws Exception {
+        Instant created = Instant.parse("2024-06-15T08:00:00Z");
+        NotePreviewCursorPage cursorPage = new NotePreviewCursorPage(
+                List.of(new NotePreviewDto("n2", "Older note", created)), "next-token");
+        when(noteService.getNotePreviewsAfter(any(NoteParams.class), eq("token"), eq(5))).thenReturn(cursorPage);
+
+        mockMvc.perform(get("/api/notes")
+                        .param("tags", "IMPORTANT")
+                        .param("after", "token")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("n2"))
+                .andExpect(jsonPath("$.next").value("next-token"));
+
+        ArgumentCaptor<NoteParams> paramsCaptor = ArgumentCaptor.forClass(NoteParams.class);
+        verify(noteService).getNotePreviewsAfter(paramsCaptor.capture(), eq("token"), eq(5));
+        assertThat(paramsCaptor.getValue().tags()).containsExactly(NoteTagEnum.IMPORTANT);
+    }
+
+    @Test
+    void getAllNotes_prefersCursorModeOverSliceMode() throws Exception {
+        when(noteService.getNotePreviewsAfter(any(NoteParams.class), eq("token"), eq(10)))
+                .thenReturn(new NotePreviewCursorPage(List.of(), null));
+
+        mockMvc.perform(get("/api/notes")
+                        .param("slice", "true")
+                        .param("after", "token"))
+                .andExpect(status().isOk());
+
+        verify(noteService, never()).getNotePreviewSlice(any(NoteParams.class), any(Pageable.class));
+    }
+
     @Test
     void getNote_returnsNoteDto() throws Exception {
-        NoteDto dto = new NoteDto("read-id", "Notebook", "Full text", List.of(NoteTagEnum.PERSONAL), Instant.parse("2024-06-01T00:00:00Z"));
+        NoteDto dto = new NoteDto("read-id", "Notebook", "Full text", List.of(NoteTagEnum.PERSONAL), Instant.parse("2024-06-01T00:00:00Z"), 2L);
         when(noteService.getNoteDtoById("read-id")).thenReturn(dto);
 
         mockMvc.perform(get("/api/notes/{id}", "read-id"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value("read-id"))
                 .andExpect(jsonPath("$.text").value("Full text"))
-                .andExpect(jsonPath("$.tags[0]").value("PERSONAL"));
+                .andExpect(jsonPath("$.tags[0]").value("PERSONAL"))
+                .andExpect(header().string("ETag", "W/\"2\""));
 
         verify(noteService).getNoteDtoById("read-id");
     }
 
+    @Test
+    void getNote_returnsNotModifiedForCurrentVersionWithoutLoadingNote() throws Exception {
+        when(noteService.getVersion("read-id")).thenReturn(2L);
+
+        mockMvc.perform(get("/api/notes/{id}", "read-id")
+                        .header("If-None-Match", "\"2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"2\""));
+
+        verify(noteService, never()).getNoteDtoById(anyString());
+    }
+
+    @Test
+    void getNote_returnsNoteForStaleVersion() throws Exception {
+        NoteDto dto = new NoteDto("read-id", "Notebook", "Full text", List.of(), Instant.parse("2024-06-01T00:00:00Z"), 3L);
+        when(noteService.getVersion("read-id")).thenReturn(3L);
+        when(noteService.getNoteDtoById("read-id")).thenReturn(dto);
+
+        mockMvc.perform(get("/api/notes/{id}", "read-id")
+                        .header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"3\""));
+    }
+
+    @Test
+    void getNote_returnsNotFoundForConditionalGetOfMissingNote() throws Exception {
+        when(noteService.getVersion("missing")).thenThrow(new NotFoundException("Note not found"));
+
+        mockMvc.perform(get("/api/notes/{id}", "missing")
+                        .header("If-None-Match", "\"2\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getNoteText_returnsNotModifiedForCurrentVersion() throws Exception {
+        when(noteService.getVersion("text-id")).thenReturn(3L);
+
+        mockMvc.perform(get("/api/notes/{id}/text", "text-id")
+                        .header("If-None-Match", "W/\"3\""))
+                .andExpect(status().isNotModified());
+
+        verify(noteService, never()).getText(anyString());
+    }
+
+    @Test
+    void getNoteStats_returnsNotModifiedForCurrentVersion() throws Exception {
+        when(noteService.getVersion("stats-id")).thenReturn(4L);
+
+        mockMvc.perform(get("/api/notes/{id}/stats", "stats-id")
+                        .header("If-None-Match", "\"4\""))
+                .andExpect(status().isNotModified());
+
+        verify(noteService, never()).getStats(anyString(), any());
+    }
+
     @Test
     void getNoteText_returnsTextResponse() throws Exception {
-        NoteTextResponse response = new NoteTextResponse("text-id", "Individual text");
+        NoteTextResponse response = new NoteTextResponse("text-id", "Individual text", 3L);
         when(noteService.getText("text-id")).thenReturn(response);
 
         mockMvc.perform(get("/api/notes/{id}/text", "text-id"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value("text-id"))
-                .andExpect(jsonPath("$.text").value("Individual text"));
+                .andExpect(jsonPath("$.text").value("Individual text"))
+                .andExpect(header().string("ETag", "W/\"3\""));
 
         verify(noteService).getText("text-id");
     }
@@ -174,32 +340,101 @@ class NoteControllerTest {
     @Test
     void getNoteStats_returnsStatsResponse() throws Exception {
         List<NoteStatsEntry> stats = List.of(new NoteStatsEntry("note", 2), new NoteStatsEntry("is", 1));
-        NoteStatsResponse response = new NoteStatsResponse("stats-id", stats);
-        when(noteService.getStats("stats-id")).thenReturn(response);
+        NoteStatsResponse response = new NoteStatsResponse("stats-id", stats, 4L);
+        when(noteService.getStats("stats-id", null)).thenReturn(response);
 
         mockMvc.perform(get("/api/notes/{id}/stats", "stats-id"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.noteId").value("stats-id"))
                 .andExpect(jsonPath("$.stats[0].word").value("note"))
-                .andExpect(jsonPath("$.stats[0].count").value(2));
+                .andExpect(jsonPath("$.stats[0].count").value(2))
+                .andExpect(header().string("ETag", "W/\"4\""));
+
+        verify(noteService).getStats("stats-id", null);
+    }
+
+    @Test
+    void getNoteStats_passesLimit() throws Exception {
+        NoteStatsResponse response = new NoteStatsResponse("stats-id", List.of(new NoteStatsEntry("note", 2)), 4L);
+        when(noteService.getStats("stats-id", 1)).thenReturn(response);
+
+        mockMvc.perform(get("/api/notes/{id}/stats", "stats-id")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stats.length()").value(1));
 
-        verify(noteService).getStats("stats-id");
+        verify(noteService).getStats("stats-id", 1);
     }
 
     @Test
     void updateNote_returnsUpdatedDto() throws Exception {
         UpdateNoteRequest request = new UpdateNoteRequest("Updated", "Edited text", List.of(NoteTagEnum.BUSINESS));
-        NoteDto dto = new NoteDto("edit-id", "Updated", "Edited text", request.tags(), Instant.parse("2024-07-01T00:00:00Z"));
-        when(noteService.updateNote(any(UpdateNoteRequest.class), anyString())).thenReturn(dto);
+        NoteDto dto = new NoteDto("edit-id", "Updated", "Edited text", request.tags(), Instant.parse("2024-07-01T00:00:00Z"), 5L);
+        when(noteService.updateNote(any(UpdateNoteRequest.class), anyString(), isNull())).thenReturn(dto);
 
         mockMvc.perform(patch("/api/notes/{id}", "edit-id")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value("edit-id"))
-                .andExpect(jsonPath("$.title").value("Updated"));
+                .andExpect(jsonPath("$.title").value("Updated"))
+                .andExpect(header().string("ETag", "W/\"5\""));
+
+        verify(noteService).updateNote(any(UpdateNoteRequest.class), eq("edit-id"), isNull());
+    }
+
+    @Test
+    void updateNote_passesIfMatchVersion() throws Exception {
+        UpdateNoteRequest request = new UpdateNoteRequest(null, null, List.of(NoteTagEnum.IMPORTANT));
+        NoteDto dto = new NoteDto("edit-id", "Title", "Text", request.tags(), Instant.parse("2024-07-01T00:00:00Z"), 5L);
+        when(noteService.updateNote(any(UpdateNoteRequest.class), eq("edit-id"), eq(4L))).thenReturn(dto);
+
+        mockMvc.perform(patch("/api/notes/{id}", "edit-id")
+                        .header("If-Match", "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"5\""));
+
+        verify(noteService).updateNote(any(UpdateNoteRequest.class), eq("edit-id"), eq(4L));
+    }
+
+    @Test
+    void updateNote_returnsPreconditionFailedOnVersionConflict() throws Exception {
+        UpdateNoteRequest request = new UpdateNoteRequest("Updated", null, null);
+        when(noteService.updateNote(any(UpdateNoteRequest.class), eq("edit-id"), eq(4L)))
+                .thenThrow(new PreconditionFailedException("Note was modified concurrently"));
+
+        mockMvc.perform(patch("/api/notes/{id}", "edit-id")
+                        .header("If-Match", "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+    }
+
+    @Test
+    void updateNote_acceptsTheWeakTagOfAGet() throws Exception {
+        UpdateNoteRequest request = new UpdateNoteRequest("Updated", null, null);
+        NoteDto dto = new NoteDto("edit-id", "Updated", "Text", List.of(), Instant.parse("2024-07-01T00:00:00Z"), 5L);
+        when(noteService.updateNote(any(UpdateNoteRequest.class), eq("edit-id"), eq(4L))).thenReturn(dto);
+
+        mockMvc.perform(patch("/api/notes/{id}", "edit-id")
+                        .header("If-Match", "W/\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        verify(noteService).updateNote(any(UpdateNoteRequest.class), eq("edit-id"), eq(4L));
+    }
 
-        verify(noteService).updateNote(any(UpdateNoteRequest.class), eq("edit-id"));
+    @Test
+    void updateNote_rejectsMalformedIfMatch() throws Exception {
+        mockMvc.perform(patch("/api/notes/{id}", "edit-id")
+                        .header("If-Match", "\"v4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -226,4 +461,36 @@ class NoteControllerTest {
 
         verify(noteService).deleteNote("del-id");
     }
+
+    @Test
+    void deleteNote_returnsNotFoundWhenMissing() throws Exception {
+        doThrow(new NotFoundException("Note not found")).when(noteService).deleteNote("missing");
+
+        mockMvc.perform(delete("/api/notes/{id}", "missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteNotes_reportsDeletedCount() throws Exception {
+        when(noteService.deleteNotes(eq(List.of("a", "b")), any(NoteParams.class))).thenReturn(new BulkDeleteResponse(2));
+
+        mockMvc.perform(delete("/api/notes")
+                        .param("ids", "a", "b"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+    }
+
+    @Test
+    void deleteNotes_passesTagFilter() throws Exception {
+        when(noteService.deleteNotes(isNull(), any(NoteParams.class))).thenReturn(new BulkDeleteResponse(3));
+
+        mockMvc.perform(delete("/api/notes")
+                        .param("tags", "BUSINESS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(3));
+
+        ArgumentCaptor<NoteParams> paramsCaptor = ArgumentCaptor.forClass(NoteParams.class);
+        verify(noteService).deleteNotes(isNull(), paramsCaptor.capture());
+        assertThat(paramsCaptor.getValue().tags()).containsExactly(NoteTagEnum.BUSINESS);
+    }
 }
@@ -0,0 +1,28 @@
+package com.noteapp.repository;
+
+import com.noteapp.config.EmbeddedStorageProperties;
+import com.noteapp.repository.embedded.EmbeddedNoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+class EmbeddedNoteRepositoryContractTest extends NoteRepositoryContractTest {
+
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    void setUp() {
+        repository = new EmbeddedNoteRepository(new EmbeddedStorageProperties(
+                directory, DataSize.ofKilobytes(4), true, Duration.ofMinutes(1), 0.5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ((EmbeddedNoteRepository) repository).close();
+    }
+}
@@ -0,0 +1,65 @@
+package com.noteapp.repository;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoCommandMetricsListenerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoCommandMetricsListener listener = new MongoCommandMetricsListener(meterRegistry);
+
+    @Test
+    void commandSucceeded_recordsBatchSizeAndReplyBytesOfCursorReplies() {
+        RawBsonDocument reply = RawBsonDocument.parse("""
+                {"cursor": {"firstBatch": [{"_id": "a"}, {"_id": "b"}], "id": 0, "ns": "noteapp.notes"}, "ok": 1}
+                """);
+
+        listener.commandSucceeded(succeeded("find", reply));
+        listener.commandSucceeded(succeeded("getMore", RawBsonDocument.parse("""
+                {"cursor": {"nextBatch": [{"_id": "c"}], "id": 0, "ns": "noteapp.notes"}, "ok": 1}
+                """)));
+
+        assertThat(documents("find").totalAmount()).isEqualTo(2);
+        assertThat(documents("getMore").totalAmount()).isEqualTo(1);
+        assertThat(meterRegistry.get("noteapp.mongo.command.reply").tag("command", "find").summary().totalAmount())
+                .isEqualTo(reply.getByteBuffer().remaining());
+    }
+
+    @Test
+    void commandSucceeded_recordsAffectedDocumentsOfWrites() {
+        listener.commandSucceeded(succeeded("delete", BsonDocument.parse("{\"n\": 3, \"ok\": 1}")));
+
+        assertThat(documents("delete").totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get("noteapp.mongo.command.reply").tag("command", "delete").summary().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void commandSucceeded_skipsDocumentsForRepliesWithoutThem() {
+        listener.commandSucceeded(succeeded("ping", BsonDocument.parse("{\"ok\": 1}")));
+
+        assertThat(meterRegistry.find("noteapp.mongo.command.documents").tag("command", "ping").summary().count())
+                .isZero();
+        assertThat(meterRegistry.get("noteapp.mongo.command.reply").tag("command", "ping").summary().count())
+                .isEqualTo(1);
+    }
+
+    private DistributionSummary documents(String command) {
+        return meterRegistry.get("noteapp.mongo.command.documents").tag("command", command).summary();
+    }
+
+    private CommandSucceededEvent succeeded(String command, BsonDocument reply) {
+        ConnectionDescription connection = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+        return new CommandSucceededEvent(null, 1L, 1, connection, "noteapp", command, reply, 1_000L);
+    }
+}
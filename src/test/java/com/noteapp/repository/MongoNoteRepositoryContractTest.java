@@ -0,0 +1,24 @@
+package com.noteapp.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+
+@EnabledIfEnvironmentVariable(named = "SPRING_DATA_MONGODB_URI", matches = ".+",
+        disabledReason = "Contract test against MongoDB requires a running instance")
+// A database of its own, as every test starts by deleting all notes
+@DataMongoTest(properties = "spring.data.mongodb.database=noteapp-contract-test")
+@Import(NoteReadRouting.class)
+class MongoNoteRepositoryContractTest extends NoteRepositoryContractTest {
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @BeforeEach
+    void setUp() {
+        noteRepository.deleteAll();
+        repository = noteRepository;
+    }
+}
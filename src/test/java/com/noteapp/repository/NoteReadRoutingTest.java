@@ -0,0 +1,69 @@
+package com.noteapp.repository;
+
+import com.mongodb.ReadPreference;
+import com.noteapp.config.MongoClientProperties;
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.model.Note;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NoteReadRoutingTest {
+    private static final ReadPreference SECONDARY = ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS);
+
+    private final NoteReadRouting readRouting = new NoteReadRouting(new MongoClientProperties(null, null, null, null, null,
+            new MongoClientProperties.Reads("secondaryPreferred", Duration.ofSeconds(90), Duration.ofSeconds(100), 2)));
+
+    @Test
+    void forNote_readsRecentWritesFromThePrimaryUntilTheBoundIsReached() {
+        readRouting.onNotesCreated(new NotesCreatedEvent(List.of(note("a"))));
+        readRouting.onNoteUpdated(new NoteUpdatedEvent(note("b"), null));
+
+        assertThat(readRouting.forNote("a")).isEqualTo(ReadPreference.primary());
+        assertThat(readRouting.forNote("other")).isEqualTo(SECONDARY);
+        assertThat(readRouting.forQueries()).isEqualTo(SECONDARY);
+    }
+
+    @Test
+    void forNote_readsEverythingFromThePrimaryOnceWritesExceedTheBound() {
+        for (String id : List.of("a", "b", "c")) {
+            readRouting.onNotesCreated(new NotesCreatedEvent(List.of(note(id))));
+        }
+
+        assertThat(readRouting.forNote("c")).isEqualTo(ReadPreference.primary());
+        assertThat(readRouting.forNote("other")).isEqualTo(ReadPreference.primary());
+        assertThat(readRouting.forQueries()).isEqualTo(ReadPreference.primary());
+    }
+
+    @Test
+    void forNote_readsNotesYoungerThanABulkCreateFromThePrimary() {
+        String created = new ObjectId().toHexString();
+        String old = new ObjectId(Date.from(Instant.now().minus(Duration.ofDays(1)))).toHexString();
+
+        assertThat(readRouting.forNote(created)).isEqualTo(SECONDARY);
+        readRouting.onNotesCreated(new NotesCreatedEvent(List.of(note(created), note(new ObjectId().toHexString()),
+                note("x"))));
+
+        assertThat(readRouting.forNote(created)).isEqualTo(ReadPreference.primary());
+        assertThat(readRouting.forNote("not-an-object-id")).isEqualTo(ReadPreference.primary());
+        assertThat(readRouting.forNote(old)).isEqualTo(SECONDARY);
+        // A bulk create records no ids, so single writes still fit under the bound
+        readRouting.onNotesCreated(new NotesCreatedEvent(List.of(note("a"))));
+        readRouting.onNotesCreated(new NotesCreatedEvent(List.of(note("b"))));
+        assertThat(readRouting.forQueries()).isEqualTo(SECONDARY);
+    }
+
+    private static Note note(String id) {
+        Note note = new Note();
+        note.setId(id);
+        return note;
+    }
+}
@@ -0,0 +1,180 @@
+package com.noteapp.repository;
+
+import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.model.WordCount;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Behaviour the services rely on from every {@link NoteRepository} backend; each backend runs it through a
+ * subclass that provides an empty repository.
+ */
+abstract class NoteRepositoryContractTest {
+    static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdDate");
+
+    NoteRepository repository;
+
+    @Test
+    void save_assignsIdAndVersionAndReadsTheNoteBack() {
+        Note saved = repository.save(note("Title", T0, NoteTagEnum.BUSINESS));
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getVersion()).isZero();
+        Note found = repository.findById(saved.getId()).orElseThrow();
+        assertThat(found.getTitle()).isEqualTo("Title");
+        assertThat(found.getText()).isEqualTo("one two two");
+        assertThat(found.getStats()).containsExactly(new WordCount("two", 2), new WordCount("one", 1));
+        assertThat(found.getTags()).containsExactly(NoteTagEnum.BUSINESS);
+        assertThat(found.getCreatedDate()).isEqualTo(T0);
+    }
+
+    @Test
+    void save_rejectsStaleVersionsAndDuplicateIds() {
+        Note saved = repository.save(note("Title", T0));
+        Note stale = repository.findById(saved.getId()).orElseThrow();
+        repository.save(saved);
+
+        assertThatThrownBy(() -> repository.save(stale)).isInstanceOf(OptimisticLockingFailureException.class);
+
+        Note duplicate = note("Other", T0);
+        duplicate.setId(saved.getId());
+        assertThatThrownBy(() -> repository.save(duplicate)).isInstanceOf(DuplicateKeyException.class);
+        assertThat(repository.findVersionById(saved.getId()).orElseThrow().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void patch_returnsTheBeforeImageOnlyWhileAtTheExpectedVersion() {
+        String id = repository.save(note("Old", T0, NoteTagEnum.BUSINESS)).getId();
+
+        Note before = repository.patch(id, 0L, new NotePatch("New", null, null, List.of(NoteTagEnum.PERSONAL)));
+
+        assertThat(before.getTitle()).isEqualTo("Old");
+        assertThat(before.getVersion()).isZero();
+        assertThat(repository.patch(id, 0L, new NotePatch("Stale", null, null, null))).isNull();
+        Note after = repository.findById(id).orElseThrow();
+        assertThat(after.getTitle()).isEqualTo("New");
+        assertThat(after.getVersion()).isEqualTo(1L);
+        assertThat(repository.countByTags(List.of(NoteTagEnum.BUSINESS))).isZero();
+        assertThat(repository.countByTags(List.of(NoteTagEnum.PERSONAL))).isEqualTo(1);
+    }
+
+    @Test
+    void findPreviews_ordersNewestFirstAndMatchesAnyTag() {
+        String business = repository.save(note("a", T0, NoteTagEnum.BUSINESS)).getId();
+        String both = repository.save(note("b", T0.plusSeconds(1), NoteTagEnum.BUSINESS, NoteTagEnum.PERSONAL)).getId();
+        repository.save(note("c", T0.plusSeconds(2), NoteTagEnum.IMPORTANT));
+
+        Page<NotePreviewDto> page = repository.findPreviews(List.of(NoteTagEnum.PERSONAL, NoteTagEnum.BUSINESS), PageRequest.of(0, 10, NEWEST_FIRST));
+
+        assertThat(page.getContent()).extracting(NotePreviewDto::id).containsExactly(both, business);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(repository.findPreviewSlice(null, PageRequest.of(1, 2, NEWEST_FIRST)).getContent())
+                .extracting(NotePreviewDto::id).containsExactly(business);
+    }
+
+    @Test
+    void findPreviewsBefore_continuesAfterTheKey() {
+        Note first = repository.save(note("a", T0));
+        Note second = repository.save(note("b", T0));
+        Note newer = repository.save(note("c", T0.plusSeconds(1)));
+        Note seekFrom = first.getId().compareTo(second.getId()) > 0 ? first : second;
+        Note older = seekFrom == first ? second : first;
+
+        assertThat(repository.findPreviewsBefore(null, null, null, 1)).extracting(NotePreviewDto::id)
+                .containsExactly(newer.getId());
+        assertThat(repository.findPreviewsBefore(null, T0, seekFrom.getId(), 10)).extracting(NotePreviewDto::id)
+                .containsExactly(older.getId());
+    }
+
+    @Test
+    void findPreviewsBefore_pagesThroughSubMillisecondDatesWithMillisecondCursors() {
+        Instant createdDate = Instant.parse("2024-01-01T00:00:00.123456Z");
+        for (int i = 0; i < 5; i++) {
+            repository.save(note("n" + i, createdDate));
+        }
+
+        List<String> seen = new ArrayList<>();
+        List<NotePreviewDto> page = repository.findPreviewsBefore(null, null, null, 2);
+        while (!page.isEmpty()) {
+            page.forEach(preview -> seen.add(preview.id()));
+            NotePreviewDto last = page.get(page.size() - 1);
+            // A cursor keeps only epoch millis, as NoteCursor encodes it
+            Instant cursorDate = Instant.ofEpochMilli(last.createdDate().toEpochMilli());
+            page = repository.findPreviewsBefore(null, cursorDate, last.id(), 2);
+        }
+
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+        assertThat(repository.findAll()).extracting(Note::getCreatedDate)
+                .containsOnly(Instant.parse("2024-01-01T00:00:00.123Z"));
+    }
+
+    @Test
+    void streamNotes_returnsTheRangeOldestFirstWithoutStats() {
+        repository.save(note("before", T0));
+        String from = repository.save(note("from", T0.plusSeconds(1))).getId();
+        String inside = repository.save(note("inside", T0.plusSeconds(2))).getId();
+        repository.save(note("to", T0.plusSeconds(3)));
+
+        try (Stream<Note> notes = repository.streamNotes(null, T0.plusSeconds(1), T0.plusSeconds(3))) {
+            assertThat(notes.toList())
+                    .allSatisfy(note -> assertThat(note.getStats()).isNull())
+                    .extracting(Note::getId).containsExactly(from, inside);
+        }
+    }
+
+    @Test
+    void insertAllAndUpdateAll_reportPerItemOutcomes() {
+        Note existing = repository.save(note("a", T0));
+        Note duplicate = note("dup", T0);
+        duplicate.setId(existing.getId());
+
+        BulkWriteOutcome inserted = repository.insertAll(List.of(note("b", T0), duplicate));
+        BulkWriteOutcome updated = repository.updateAll(List.of(
+                new NoteBulkUpdate(existing.getId(), 0L, new NotePatch("A", null, null, null)),
+                new NoteBulkUpdate(existing.getId(), 0L, new NotePatch("stale", null, null, null))
+        ));
+
+        assertThat(inserted.count()).isEqualTo(1);
+        assertThat(inserted.errors()).containsOnlyKeys(1);
+        assertThat(updated.count()).isEqualTo(1);
+        assertThat(repository.findById(existing.getId()).orElseThrow().getTitle()).isEqualTo("A");
+    }
+
+    @Test
+    void removeById_returnsTheSummaryAndForgetsTheNote() {
+        String id = repository.save(note("a", T0, NoteTagEnum.IMPORTANT)).getId();
+
+        Note removed = repository.removeById(id);
+
+        assertThat(removed.getTags()).containsExactly(NoteTagEnum.IMPORTANT);
+        assertThat(removed.getText()).isNull();
+        assertThat(repository.existsById(id)).isFalse();
+        assertThat(repository.removeById(id)).isNull();
+        assertThat(repository.countByTags(List.of(NoteTagEnum.IMPORTANT))).isZero();
+    }
+
+    static Note note(String title, Instant createdDate, NoteTagEnum... tags) {
+        Note note = new Note();
+        note.setTitle(title);
+        note.setText("one two two");
+        note.setStats(List.of(new WordCount("two", 2), new WordCount("one", 1)));
+        note.setTags(List.of(tags));
+        note.setCreatedDate(createdDate);
+        return note;
+    }
+}
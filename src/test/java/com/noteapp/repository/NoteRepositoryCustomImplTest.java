@@ -0,0 +1,304 @@
+package com.noteapp.repository;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+import com.noteapp.config.MongoClientProperties;
+import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.model.WordCount;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NoteRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private NoteReadRouting readRouting = new NoteReadRouting(new MongoClientProperties(null, null, null, null, null,
+            new MongoClientProperties.Reads("secondaryPreferred", Duration.ofSeconds(90), Duration.ofSeconds(100), 1000)));
+
+    @InjectMocks
+    private NoteRepositoryCustomImpl noteRepository;
+
+    @Test
+    void findForRead_readsRecentlyWrittenNotesFromThePrimary() {
+        Note written = new Note();
+        written.setId("written");
+        readRouting.onNotesCreated(new NotesCreatedEvent(List.of(written)));
+
+        noteRepository.findForRead("written");
+        noteRepository.findForRead("other");
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).findOne(captor.capture(), eq(Note.class));
+        assertThat(captor.getAllValues().get(0).getReadPreference()).isEqualTo(ReadPreference.primary());
+        assertThat(captor.getAllValues().get(1).getReadPreference())
+                .isEqualTo(ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS));
+        assertThat(captor.getValue().getFieldsObject()).isEqualTo(new Document("stats", 0));
+    }
+
+    @Test
+    void findPreviews_fetchesOnlyPreviewFields() {
+        PageRequest pageable = PageRequest.of(2, 5, Sort.by(Sort.Direction.DESC, "createdDate"));
+        when(mongoTemplate.count(any(Query.class), eq(Note.class))).thenReturn(42L);
+
+        Page<NotePreviewDto> page = noteRepository.findPreviews(List.of(NoteTagEnum.BUSINESS), pageable);
+
+        Query query = capturedQuery();
+        assertThat(query.getFieldsObject()).containsOnlyKeys("title", "createdDate");
+        assertThat(query.getFieldsObject()).doesNotContainKeys("text", "stats");
+        assertThat(query.getQueryObject()).containsKey("tags");
+        assertThat(query.getSkip()).isEqualTo(10);
+        assertThat(query.getLimit()).isEqualTo(5);
+        assertThat(query.getReadPreference()).isEqualTo(ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS));
+        assertThat(page.getTotalElements()).isEqualTo(42);
+    }
+
+    @Test
+    void findPreviewSlice_readsOneExtraPreviewInsteadOfCounting() {
+        PageRequest pageable = PageRequest.of(1, 2);
+        List<NotePreviewDto> previews = List.of(
+                new NotePreviewDto("a", "A", Instant.parse("2024-01-03T00:00:00Z")),
+                new NotePreviewDto("b", "B", Instant.parse("2024-01-02T00:00:00Z")),
+                new NotePreviewDto("c", "C", Instant.parse("2024-01-01T00:00:00Z"))
+        );
+        when(mongoTemplate.find(any(Query.class), eq(NotePreviewDto.class), any())).thenReturn(previews);
+
+        Slice<NotePreviewDto> slice = noteRepository.findPreviewSlice(null, pageable);
+
+        Query query = capturedQuery();
+        assertThat(query.getSkip()).isEqualTo(2);
+        assertThat(query.getLimit()).isEqualTo(3);
+        assertThat(slice.getContent()).extracting(NotePreviewDto::id).containsExactly("a", "b");
+        assertThat(slice.hasNext()).isTrue();
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Note.class));
+    }
+
+    @Test
+    void countByTags_usesEstimateWithoutTags() {
+        when(mongoTemplate.estimatedCount(Note.class)).thenReturn(1_000L);
+
+        assertThat(noteRepository.countByTags(List.of())).isEqualTo(1_000L);
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Note.class));
+    }
+
+    @Test
+    void findPreviewsBefore_seeksOnCreatedDateAndIdWithTagFilter() {
+        Instant createdDate = Instant.parse("2024-03-01T12:00:00Z");
+
+        noteRepository.findPreviewsBefore(List.of(NoteTagEnum.BUSINESS), createdDate, "cursor-id", 11);
+
+        Query query = capturedQuery();
+        assertThat(query.getQueryObject()).containsKeys("tags", "$or");
+        List<Document> seek = query.getQueryObject().getList("$or", Document.class);
+        assertThat(seek.get(0).get("createdDate", Document.class)).containsEntry("$lt", createdDate);
+        assertThat(seek.get(1)).containsEntry("createdDate", createdDate);
+        assertThat(seek.get(1).get("id", Document.class)).containsEntry("$lt", "cursor-id");
+        assertThat(query.getSortObject()).containsExactly(
+                Map.entry("createdDate", -1),
+                Map.entry("id", -1)
+        );
+        assertThat(query.getLimit()).isEqualTo(11);
+        assertThat(query.getFieldsObject()).containsOnlyKeys("title", "createdDate");
+    }
+
+    @Test
+    void findPreviewsBefore_startsFromNewestWithoutCursorOrTags() {
+        noteRepository.findPreviewsBefore(null, null, null, 5);
+
+        Query query = capturedQuery();
+        assertThat(query.getQueryObject()).isEmpty();
+        assertThat(query.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void streamNotes_filtersOnTagsAndCreatedDateRangeWithoutStats() {
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-02-01T00:00:00Z");
+
+        noteRepository.streamNotes(List.of(NoteTagEnum.BUSINESS), from, to);
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(captor.capture(), eq(Note.class));
+        Query query = captor.getValue();
+        assertThat(query.getQueryObject()).containsKey("tags");
+        assertThat(query.getQueryObject().get("createdDate", Document.class))
+                .containsEntry("$gte", from)
+                .containsEntry("$lt", to);
+        assertThat(query.getFieldsObject()).containsEntry("stats", 0);
+        assertThat(query.getSortObject()).containsExactly(
+                Map.entry("createdDate", 1),
+                Map.entry("id", 1)
+        );
+    }
+
+    @Test
+    void patch_setsOnlyProvidedFieldsAndChecksVersion() {
+        noteRepository.patch("note-id", 3L, new NotePatch(null, null, null, List.of(NoteTagEnum.IMPORTANT)));
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> optionsCaptor = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(queryCaptor.capture(), updateCaptor.capture(), optionsCaptor.capture(), eq(Note.class));
+
+        assertThat(queryCaptor.getValue().getQueryObject())
+                .containsEntry("id", "note-id")
+                .containsEntry("version", 3L);
+        Document update = updateCaptor.getValue().getUpdateObject();
+        assertThat(update.get("$set", Document.class)).containsOnlyKeys("tags");
+        assertThat(update.get("$inc", Document.class)).containsEntry("version", 1);
+        assertThat(optionsCaptor.getValue().isReturnNew()).isFalse();
+    }
+
+    @Test
+    void patch_setsStatsTogetherWithText() {
+        List<WordCount> stats = List.of(new WordCount("body", 1));
+
+        noteRepository.patch("note-id", null, new NotePatch(null, "body", stats, null));
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(queryCaptor.capture(), updateCaptor.capture(), any(FindAndModifyOptions.class), eq(Note.class));
+
+        assertThat(queryCaptor.getValue().getQueryObject()).doesNotContainKey("version");
+        assertThat(updateCaptor.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("text", "body")
+                .containsEntry("stats", stats);
+    }
+
+    @Test
+    void insertAll_reportsFailedNotesByIndex() {
+        BulkOperations bulk = mock(BulkOperations.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        BulkOperationException exception = mock(BulkOperationException.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)).thenReturn(bulk);
+        when(result.getInsertedCount()).thenReturn(2);
+        when(exception.getResult()).thenReturn(result);
+        when(exception.getErrors()).thenReturn(List.of(new BulkWriteError(121, "Document failed validation", new BsonDocument(), 1)));
+        when(bulk.execute()).thenThrow(exception);
+
+        List<Note> notes = List.of(new Note(), new Note(), new Note());
+        BulkWriteOutcome outcome = noteRepository.insertAll(notes);
+
+        verify(bulk).insert(notes);
+        assertThat(outcome.count()).isEqualTo(2);
+        assertThat(outcome.errors()).containsOnly(Map.entry(1, "Document failed validation"));
+    }
+
+    @Test
+    void updateAll_conditionsEveryUpdateOnItsVersion() {
+        BulkOperations bulk = mock(BulkOperations.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)).thenReturn(bulk);
+        when(bulk.execute()).thenReturn(result);
+        when(result.getMatchedCount()).thenReturn(1);
+
+        BulkWriteOutcome outcome = noteRepository.updateAll(List.of(
+                new NoteBulkUpdate("note-id", 4L, new NotePatch("Title", null, null, null))
+        ));
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(bulk).updateOne(queryCaptor.capture(), updateCaptor.capture());
+        assertThat(queryCaptor.getValue().getQueryObject())
+                .containsEntry("id", "note-id")
+                .containsEntry("version", 4L);
+        Document update = updateCaptor.getValue().getUpdateObject();
+        assertThat(update.get("$set", Document.class)).containsOnlyKeys("title");
+        assertThat(update.get("$inc", Document.class)).containsEntry("version", 1);
+        assertThat(outcome).isEqualTo(new BulkWriteOutcome(1, Map.of()));
+    }
+
+    @Test
+    void findVersions_readsOnlyTheVersionField() {
+        Note note = new Note();
+        note.setId("note-id");
+        note.setVersion(2L);
+        when(mongoTemplate.find(any(Query.class), eq(Note.class))).thenReturn(List.of(note));
+
+        Map<String, Long> versions = noteRepository.findVersions(List.of("note-id", "missing-id"));
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(Note.class));
+        assertThat(captor.getValue().getFieldsObject()).containsOnlyKeys("version");
+        assertThat(versions).containsOnly(Map.entry("note-id", 2L));
+    }
+
+    @Test
+    void removeById_returnsSummaryOfRemovedNoteFromSingleRoundTrip() {
+        Note removed = new Note();
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Note.class))).thenReturn(removed);
+
+        assertThat(noteRepository.removeById("note-id")).isSameAs(removed);
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndRemove(captor.capture(), eq(Note.class));
+        assertThat(captor.getValue().getQueryObject()).containsEntry("id", "note-id");
+        assertThat(captor.getValue().getFieldsObject()).containsOnlyKeys("version", "tags", "stats");
+    }
+
+    @Test
+    void removeByIds_returnsDeletedCount() {
+        when(mongoTemplate.remove(any(Query.class), eq(Note.class))).thenReturn(DeleteResult.acknowledged(2));
+
+        assertThat(noteRepository.removeByIds(List.of("a", "b"))).isEqualTo(2);
+    }
+
+    @Test
+    void streamSummariesByTags_skipsTitleAndText() {
+        Note note = new Note();
+        when(mongoTemplate.stream(any(Query.class), eq(Note.class))).thenReturn(Stream.of(note));
+
+        assertThat(noteRepository.streamSummariesByTags(List.of(NoteTagEnum.PERSONAL))).containsExactly(note);
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(captor.capture(), eq(Note.class));
+        assertThat(captor.getValue().getQueryObject()).containsKey("tags");
+        assertThat(captor.getValue().getFieldsObject()).containsOnlyKeys("version", "tags", "stats");
+    }
+
+    private Query capturedQuery() {
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(NotePreviewDto.class), any());
+        return captor.getValue();
+    }
+}
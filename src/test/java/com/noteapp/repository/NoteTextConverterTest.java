@@ -0,0 +1,69 @@
+package com.noteapp.repository;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NoteTextConverterTest {
+
+    private final NoteTextConverter converter = new NoteTextConverter(64, 6);
+
+    @Test
+    void write_keepsShortTextAsString() {
+        assertThat(converter.write("short note", null)).isEqualTo("short note");
+    }
+
+    @Test
+    void write_compressesLongTextAndReadRestoresIt() {
+        String text = "Meeting notes, ünïcödé included. ".repeat(100);
+
+        Object stored = converter.write(text, null);
+
+        assertThat(stored).isInstanceOf(Document.class);
+        Document document = (Document) stored;
+        assertThat(document.getString("codec")).isEqualTo("deflate");
+        assertThat(document.getInteger("length")).isEqualTo(text.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(document.get("data", Binary.class).length()).isLessThan(text.length());
+        assertThat(converter.read(stored, null)).isEqualTo(text);
+    }
+
+    @Test
+    void write_keepsTextThatDoesNotShrink() {
+        // Too short and too random for deflate to beat its own framing
+        Random random = new Random(1);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 70) {
+            text.append((char) ('!' + random.nextInt(94)));
+        }
+
+        assertThat(converter.write(text.toString(), null)).isEqualTo(text.toString());
+    }
+
+    @Test
+    void read_passesPlainStringsThrough() {
+        assertThat(converter.read("written before compression", null)).isEqualTo("written before compression");
+    }
+
+    @Test
+    void read_rejectsUnknownCodec() {
+        Document stored = new Document("codec", "zstd").append("length", 4).append("data", new Binary(new byte[]{1}));
+
+        assertThatThrownBy(() -> converter.read(stored, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Unknown note text codec zstd");
+    }
+
+    @Test
+    void read_rejectsCorruptData() {
+        Document stored = new Document("codec", "deflate").append("length", 4).append("data", new Binary(new byte[]{1, 2, 3}));
+
+        assertThatThrownBy(() -> converter.read(stored, null))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
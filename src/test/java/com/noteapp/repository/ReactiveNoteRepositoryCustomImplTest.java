@@ -0,0 +1,79 @@
+package com.noteapp.repository;
+
+import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveNoteRepositoryCustomImplTest {
+
+    @Mock
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @InjectMocks
+    private ReactiveNoteRepositoryCustomImpl noteRepository;
+
+    @Test
+    void findPreviews_countsTheFilteredNotesForAFullPage() {
+        PageRequest pageable = PageRequest.of(2, 2, Sort.by(Sort.Direction.DESC, "createdDate"));
+        when(reactiveMongoTemplate.getCollectionName(Note.class)).thenReturn("notes");
+        when(reactiveMongoTemplate.find(any(Query.class), eq(NotePreviewDto.class), eq("notes")))
+                .thenReturn(Flux.just(preview("a"), preview("b")));
+        when(reactiveMongoTemplate.count(any(Query.class), eq(Note.class))).thenReturn(Mono.just(42L));
+
+        StepVerifier.create(noteRepository.findPreviews(List.of(NoteTagEnum.BUSINESS), pageable))
+                .assertNext(page -> {
+                    assertThat(page.getContent()).extracting(NotePreviewDto::id).containsExactly("a", "b");
+                    assertThat(page.getTotalElements()).isEqualTo(42);
+                    assertThat(page.getNumber()).isEqualTo(2);
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(reactiveMongoTemplate).count(captor.capture(), eq(Note.class));
+        assertThat(captor.getValue().getQueryObject()).containsKey("tags");
+        assertThat(captor.getValue().getSkip()).isNotPositive();
+        assertThat(captor.getValue().isLimited()).isFalse();
+    }
+
+    @Test
+    void findPreviews_derivesTheTotalFromAPartialLastPage() {
+        PageRequest pageable = PageRequest.of(3, 10);
+        when(reactiveMongoTemplate.getCollectionName(Note.class)).thenReturn("notes");
+        when(reactiveMongoTemplate.find(any(Query.class), eq(NotePreviewDto.class), eq("notes")))
+                .thenReturn(Flux.just(preview("a")));
+
+        StepVerifier.create(noteRepository.findPreviews(null, pageable))
+                .assertNext(page -> assertThat(page.getTotalElements()).isEqualTo(31))
+                .verifyComplete();
+
+        verify(reactiveMongoTemplate, never()).count(any(Query.class), eq(Note.class));
+    }
+
+    private static NotePreviewDto preview(String id) {
+        return new NotePreviewDto(id, id.toUpperCase(), Instant.parse("2024-01-01T00:00:00Z"));
+    }
+}
@@ -0,0 +1,179 @@
+package com.noteapp.repository.embedded;
+
+import com.noteapp.config.EmbeddedStorageProperties;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.model.WordCount;
+import com.noteapp.repository.NotePatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddedNoteRepositoryTest {
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    private EmbeddedNoteRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = open();
+    }
+
+    @Test
+    void reopen_replaysTheLog() {
+        String kept = repository.save(note("a", T0, NoteTagEnum.BUSINESS)).getId();
+        String removed = repository.save(note("b", T0)).getId();
+        repository.patch(kept, null, new NotePatch("A", null, null, null));
+        repository.removeById(removed);
+        repository.close();
+
+        EmbeddedNoteRepository reopened = open();
+
+        assertThat(reopened.count()).isEqualTo(1);
+        assertThat(reopened.existsById(removed)).isFalse();
+        Note note = reopened.findById(kept).orElseThrow();
+        assertThat(note.getTitle()).isEqualTo("A");
+        assertThat(note.getVersion()).isEqualTo(1L);
+        assertThat(reopened.countByTags(List.of(NoteTagEnum.BUSINESS))).isEqualTo(1);
+    }
+
+    @Test
+    void reopen_dropsARecordThatFailsItsChecksum() throws IOException {
+        String kept = repository.save(note("a", T0)).getId();
+        Path segment = segments().getFirst();
+        byte[] beforeSecond = Files.readAllBytes(segment);
+        String torn = repository.save(note("b", T0)).getId();
+        byte[] afterSecond = Files.readAllBytes(segment);
+
+        int offset = 0;
+        while (beforeSecond[offset] == afterSecond[offset]) {
+            offset++;
+        }
+        afterSecond[offset + 16] ^= 0x7f;
+        Files.write(segment, afterSecond);
+
+        EmbeddedNoteRepository reopened = open();
+
+        assertThat(reopened.existsById(kept)).isTrue();
+        assertThat(reopened.existsById(torn)).isFalse();
+        String next = reopened.save(note("c", T0)).getId();
+        assertThat(open().findById(next)).isPresent();
+    }
+
+    @Test
+    void compact_rewritesLiveNotesAndDeletesMostlyDeadSegments() throws IOException {
+        String id = repository.save(note("a", T0)).getId();
+        String other = repository.save(note("b", T0)).getId();
+        for (int i = 0; i < 20; i++) {
+            repository.patch(id, null, new NotePatch(null, "x".repeat(500) + i, List.of(), null));
+        }
+        int segmentsBefore = segments().size();
+
+        repository.compact();
+
+        assertThat(segments().size()).isLessThan(segmentsBefore);
+        assertThat(repository.findById(id).orElseThrow().getText()).endsWith("19");
+        assertThat(repository.findById(other)).isPresent();
+        EmbeddedNoteRepository reopened = open();
+        assertThat(reopened.findById(id).orElseThrow().getVersion()).isEqualTo(20L);
+        assertThat(reopened.findById(other)).isPresent();
+    }
+
+    @Test
+    void compact_dropsATombstoneOnceNoOlderSegmentHoldsItsNote() throws IOException {
+        String kept = repository.save(note("w", T0, "w".repeat(3000))).getId();
+        String removed = repository.save(note("x", T0, "x".repeat(3000))).getId();
+        String filler = repository.save(note("f", T0, "f".repeat(2000))).getId();
+        repository.removeById(removed);
+        repository.removeById(filler);
+        String next = repository.save(note("g", T0, "g".repeat(3000))).getId();
+
+        repository.compact();
+
+        // The segment of the kept note is older than the tombstones but never held the removed ones
+        for (Path segment : segments()) {
+            String content = new String(Files.readAllBytes(segment), StandardCharsets.ISO_8859_1);
+            assertThat(content).doesNotContain(removed).doesNotContain(filler);
+        }
+        EmbeddedNoteRepository reopened = open();
+        assertThat(reopened.findAll()).extracting(Note::getId).containsExactlyInAnyOrder(kept, next);
+    }
+
+    @Test
+    void compact_keepsATombstoneWhileAnOlderSegmentHoldsItsNote() {
+        String kept = repository.save(note("w", T0, "w".repeat(2400))).getId();
+        String removed = repository.save(note("x", T0, "x".repeat(1000))).getId();
+        String filler = repository.save(note("f", T0, "f".repeat(2000))).getId();
+        repository.removeById(removed);
+        repository.removeById(filler);
+        repository.save(note("g", T0, "g".repeat(3000)));
+
+        repository.compact();
+        repository.compact();
+
+        EmbeddedNoteRepository reopened = open();
+        assertThat(reopened.existsById(kept)).isTrue();
+        assertThat(reopened.existsById(removed)).isFalse();
+        assertThat(reopened.existsById(filler)).isFalse();
+    }
+
+    @Test
+    void compact_keepsTheTombstoneOfARecreatedAndRemovedNote() {
+        String kept = repository.save(note("w", T0, "w".repeat(2400))).getId();
+        Note first = repository.save(note("x", T0, "x".repeat(1000)));
+        repository.removeById(first.getId());
+        Note again = note("x again", T0, "y".repeat(2000));
+        again.setId(first.getId());
+        repository.save(again);
+        repository.removeById(first.getId());
+        repository.save(note("g", T0, "g".repeat(3000)));
+
+        repository.compact();
+
+        EmbeddedNoteRepository reopened = open();
+        assertThat(reopened.existsById(kept)).isTrue();
+        assertThat(reopened.existsById(first.getId())).isFalse();
+    }
+
+    private EmbeddedNoteRepository open() {
+        return new EmbeddedNoteRepository(new EmbeddedStorageProperties(
+                directory, DataSize.ofKilobytes(4), true, Duration.ofMinutes(1), 0.5));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private Note note(String title, Instant createdDate, String text) {
+        Note note = note(title, createdDate);
+        note.setText(text);
+        return note;
+    }
+
+    private Note note(String title, Instant createdDate, NoteTagEnum... tags) {
+        Note note = new Note();
+        note.setTitle(title);
+        note.setText("one two two");
+        note.setStats(List.of(new WordCount("two", 2), new WordCount("one", 1)));
+        note.setTags(List.of(tags));
+        note.setCreatedDate(createdDate);
+        return note;
+    }
+}
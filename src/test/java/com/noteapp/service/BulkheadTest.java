@@ -0,0 +1,67 @@
+package com.noteapp.service;
+
+import com.noteapp.exception.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void acquire_rejectsCallsBeyondTheLimitAndRecordsOutcomes() {
+        Bulkhead bulkhead = new Bulkhead("NoteController.getNote", 2, Duration.ZERO, meterRegistry);
+
+        bulkhead.acquire();
+        bulkhead.acquire();
+
+        assertThat(bulkhead.activeCalls()).isEqualTo(2);
+        assertThatThrownBy(bulkhead::acquire)
+                .isInstanceOf(BulkheadFullException.class)
+                .hasMessageContaining("NoteController.getNote");
+
+        bulkhead.release();
+        bulkhead.acquire();
+
+        assertThat(counter("permitted")).isEqualTo(3);
+        assertThat(counter("rejected")).isEqualTo(1);
+        assertThat(meterRegistry.get("noteapp.bulkhead.active").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void acquire_queuesUntilASlotIsReleasedWithinMaxWait() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("NoteController.getNote", 1, Duration.ofSeconds(5), meterRegistry);
+        bulkhead.acquire();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> {
+            started.countDown();
+            bulkhead.acquire();
+        });
+        started.await();
+        bulkhead.release();
+
+        queued.get(5, TimeUnit.SECONDS);
+        assertThat(bulkhead.activeCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_rejectsAfterMaxWait() {
+        Bulkhead bulkhead = new Bulkhead("NoteController.getNote", 1, Duration.ofMillis(10), meterRegistry);
+        bulkhead.acquire();
+
+        assertThatThrownBy(bulkhead::acquire).isInstanceOf(BulkheadFullException.class);
+    }
+
+    private double counter(String outcome) {
+        return meterRegistry.get("noteapp.bulkhead.calls").tag("outcome", outcome).counter().count();
+    }
+}
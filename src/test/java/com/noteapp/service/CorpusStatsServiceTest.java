@@ -0,0 +1,205 @@
+package com.noteapp.service;
+
+import com.noteapp.config.BatchProperties;
+import com.noteapp.dto.CorpusStatsResponse;
+import com.noteapp.dto.NoteStatsEntry;
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.event.NotesRemovedEvent;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.repository.NotePatch;
+import com.noteapp.repository.NoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CorpusStatsServiceTest {
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    private CorpusStatsService corpusStatsService;
+
+    @BeforeEach
+    void setUp() {
+        corpusStatsService = new CorpusStatsService(noteRepository, new BatchProperties(10_000, 2, 4, 1 << 20));
+    }
+
+    @Test
+    void onNotesCreated_addsStatsToCorpusAndEachTag() {
+        corpusStatsService.onNotesCreated(new NotesCreatedEvent(List.of(
+                note("a", "alpha beta beta", NoteTagEnum.BUSINESS, NoteTagEnum.BUSINESS),
+                note("b", "beta gamma", NoteTagEnum.PERSONAL)
+        )));
+
+        assertThat(corpusStatsService.getStats(null, 10).stats()).containsExactly(
+                new NoteStatsEntry("beta", 3),
+                new NoteStatsEntry("alpha", 1),
+                new NoteStatsEntry("gamma", 1)
+        );
+        assertThat(corpusStatsService.getStats(NoteTagEnum.BUSINESS, 10).stats()).containsExactly(
+                new NoteStatsEntry("beta", 2),
+                new NoteStatsEntry("alpha", 1)
+        );
+        assertThat(corpusStatsService.getStats(NoteTagEnum.IMPORTANT, 10).stats()).isEmpty();
+        assertThat(corpusStatsService.getStats(null, 1).stats()).containsExactly(new NoteStatsEntry("beta", 3));
+    }
+
+    @Test
+    void onNoteUpdated_appliesDifferenceBetweenOldAndNewStats() {
+        Note before = note("a", "alpha beta", NoteTagEnum.BUSINESS);
+        corpusStatsService.onNotesCreated(new NotesCreatedEvent(List.of(before)));
+
+        corpusStatsService.onNoteUpdated(new NoteUpdatedEvent(before,
+                new NotePatch(null, "beta beta", WordCounter.of("beta beta").toSortedList(), List.of(NoteTagEnum.PERSONAL))));
+
+        assertThat(corpusStatsService.getStats(null, 10).stats()).containsExactly(new NoteStatsEntry("beta", 2));
+        assertThat(corpusStatsService.getStats(NoteTagEnum.BUSINESS, 10).stats()).isEmpty();
+        assertThat(corpusStatsService.getStats(NoteTagEnum.PERSONAL, 10).stats()).containsExactly(new NoteStatsEntry("beta", 2));
+    }
+
+    @Test
+    void onNoteUpdated_ignoresTitleOnlyPatches() {
+        Note before = note("a", "alpha", NoteTagEnum.BUSINESS);
+        corpusStatsService.onNotesCreated(new NotesCreatedEvent(List.of(before)));
+
+        corpusStatsService.onNoteUpdated(new NoteUpdatedEvent(before, new NotePatch("Title", null, null, null)));
+
+        assertThat(corpusStatsService.getStats(null, 10).stats()).containsExactly(new NoteStatsEntry("alpha", 1));
+    }
+
+    @Test
+    void onNotesRemoved_subtractsStatsAndDropsWordsThatReachZero() {
+        Note a = note("a", "alpha beta", NoteTagEnum.BUSINESS);
+        Note b = note("b", "beta", NoteTagEnum.BUSINESS);
+        corpusStatsService.onNotesCreated(new NotesCreatedEvent(List.of(a, b)));
+
+        corpusStatsService.onNotesRemoved(new NotesRemovedEvent(List.of(a)));
+
+        assertThat(corpusStatsService.getStats(null, 10).stats()).containsExactly(new NoteStatsEntry("beta", 1));
+        assertThat(corpusStatsService.getStats(NoteTagEnum.BUSINESS, 10).stats()).containsExactly(new NoteStatsEntry("beta", 1));
+    }
+
+    @Test
+    void recompute_replacesTotalsWithCollectionContents() {
+        corpusStatsService.onNotesCreated(new NotesCreatedEvent(List.of(note("stale", "drift"))));
+        when(noteRepository.streamSummaries()).thenReturn(Stream.of(note("a", "fresh words", NoteTagEnum.IMPORTANT)));
+
+        corpusStatsService.recompute();
+
+        assertThat(corpusStatsService.getStats(null, 10).stats()).containsExactly(
+                new NoteStatsEntry("fresh", 1),
+                new NoteStatsEntry("words", 1)
+        );
+        assertThat(corpusStatsService.getStats(NoteTagEnum.IMPORTANT, 10).stats()).hasSize(2);
+    }
+
+    @Test
+    void recompute_replaysWritesRacingTheCursorOnlyWhenTheSnapshotMissedThem() {
+        Note seen = note("a", "alpha", NoteTagEnum.BUSINESS);
+        seen.setVersion(1L);
+        Note seenBefore = note("a", "old", NoteTagEnum.BUSINESS);
+        seenBefore.setVersion(0L);
+        Note missedBefore = note("a", "alpha", NoteTagEnum.BUSINESS);
+        missedBefore.setVersion(1L);
+        Note created = note("b", "beta");
+        created.setVersion(0L);
+        when(noteRepository.streamSummaries()).thenReturn(Stream.of(seen).peek(note -> {
+            // Already reflected by the streamed version
+            corpusStatsService.onNoteUpdated(new NoteUpdatedEvent(seenBefore,
+                    new NotePatch(null, "alpha", WordCounter.of("alpha").toSortedList(), null)));
+            // Applied after the cursor read the note
+            corpusStatsService.onNoteUpdated(new NoteUpdatedEvent(missedBefore,
+                    new NotePatch(null, "gamma", WordCounter.of("gamma").toSortedList(), null)));
+            corpusStatsService.onNotesCreated(new NotesCreatedEvent(List.of(created)));
+        }));
+
+        corpusStatsService.recompute();
+
+        assertThat(corpusStatsService.getStats(null, 10).stats()).containsExactly(
+                new NoteStatsEntry("beta", 1),
+                new NoteStatsEntry("gamma", 1)
+        );
+        assertThat(corpusStatsService.getStats(NoteTagEnum.BUSINESS, 10).stats()).containsExactly(new NoteStatsEntry("gamma", 1));
+    }
+
+    @Test
+    void recompute_countsNotesWithoutStatsFromTheirTextAndBackfillsThem() {
+        Note legacy = note("a", "alpha alpha", NoteTagEnum.PERSONAL);
+        legacy.setStats(null);
+        when(noteRepository.streamSummaries()).thenReturn(Stream.of(legacy));
+        when(noteRepository.findAllById(List.of("a"))).thenReturn(List.of(legacy));
+        when(noteRepository.setStatsIfUnset(eq("a"), any(), anyList())).thenReturn(true);
+
+        corpusStatsService.recompute();
+
+        assertThat(corpusStatsService.getStats(NoteTagEnum.PERSONAL, 10).stats()).containsExactly(new NoteStatsEntry("alpha", 2));
+        verify(noteRepository).setStatsIfUnset("a", null, WordCounter.of("alpha alpha").toSortedList());
+    }
+
+    @Test
+    void recompute_reloadsNoteWhoseBackfillLostToAnUpdate() {
+        Note legacy = note("a", "alpha", NoteTagEnum.PERSONAL);
+        legacy.setStats(null);
+        Note updated = note("a", "beta", NoteTagEnum.PERSONAL);
+        updated.setVersion(1L);
+        when(noteRepository.streamSummaries()).thenReturn(Stream.of(legacy));
+        when(noteRepository.findAllById(List.of("a"))).thenReturn(List.of(legacy));
+        when(noteRepository.setStatsIfUnset(eq("a"), any(), anyList())).thenReturn(false);
+        when(noteRepository.findById("a")).thenReturn(Optional.of(updated));
+
+        corpusStatsService.recompute();
+
+        assertThat(corpusStatsService.getStats(null, 10).stats()).containsExactly(new NoteStatsEntry("beta", 1));
+    }
+
+    @Test
+    void recompute_keepsCurrentTotalsWhenTheCollectionCannotBeRead() {
+        corpusStatsService.onNotesCreated(new NotesCreatedEvent(List.of(note("a", "kept"))));
+        when(noteRepository.streamSummaries()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        corpusStatsService.recompute();
+
+        assertThat(corpusStatsService.getStats(null, 10).stats()).containsExactly(new NoteStatsEntry("kept", 1));
+    }
+
+    @Test
+    void getStats_rejectsNonPositiveLimit() {
+        assertThatThrownBy(() -> corpusStatsService.getStats(null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Limit must be positive");
+    }
+
+    @Test
+    void getStats_echoesRequestedTag() {
+        CorpusStatsResponse response = corpusStatsService.getStats(NoteTagEnum.PERSONAL, 5);
+
+        assertThat(response.tag()).isEqualTo(NoteTagEnum.PERSONAL);
+    }
+
+    private Note note(String id, String text, NoteTagEnum... tags) {
+        Note note = new Note();
+        note.setId(id);
+        note.setText(text);
+        note.setTags(List.of(tags));
+        note.setStats(WordCounter.of(text).toSortedList());
+        return note;
+    }
+}
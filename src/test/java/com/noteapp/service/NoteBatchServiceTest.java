@@ -0,0 +1,207 @@
+package com.noteapp.service;
+
+import com.noteapp.config.BatchProperties;
+import com.noteapp.config.NoteCacheProperties;
+import com.noteapp.dto.BatchItemResult;
+import com.noteapp.dto.BatchResponse;
+import com.noteapp.dto.BatchUpdateNoteRequest;
+import com.noteapp.dto.CreateNoteRequest;
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.event.NotesRemovedEvent;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.model.WordCount;
+import com.noteapp.repository.BulkWriteOutcome;
+import com.noteapp.repository.NoteBulkUpdate;
+import com.noteapp.repository.NotePatch;
+import com.noteapp.repository.NoteRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NoteBatchServiceTest {
+    private static ValidatorFactory validatorFactory;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private NoteCache noteCache;
+
+    private NoteBatchService noteBatchService;
+
+    @BeforeAll
+    static void createValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = validatorFactory.getValidator();
+        noteCache = spy(new NoteCache(new NoteCacheProperties(false, 0, Duration.ZERO), Runnable::run));
+        noteBatchService = new NoteBatchService(noteRepository, noteCache, eventPublisher, validator, new BatchProperties(5, 2, 1, 1 << 20));
+    }
+
+    @Test
+    void createNotes_insertsValidItemsInChunksAndReportsEachItem() {
+        List<CreateNoteRequest> items = Arrays.asList(
+                new CreateNoteRequest("First", "one two two", List.of(NoteTagEnum.BUSINESS)),
+                new CreateNoteRequest(" ", "text", List.of()),
+                new CreateNoteRequest("Second", "text", List.of()),
+                null,
+                new CreateNoteRequest("Third", "text", List.of())
+        );
+        when(noteRepository.insertAll(anyList()))
+                .thenReturn(new BulkWriteOutcome(1, Map.of(1, "E11000 duplicate key")))
+                .thenReturn(new BulkWriteOutcome(1, Map.of()));
+
+        BatchResponse response = noteBatchService.createNotes(items);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Note>> captor = ArgumentCaptor.forClass(List.class);
+        verify(noteRepository, times(2)).insertAll(captor.capture());
+        List<Note> firstChunk = captor.getAllValues().get(0);
+        assertThat(firstChunk).extracting(Note::getTitle).containsExactly("First", "Second");
+        assertThat(firstChunk.get(0).getId()).isNotBlank();
+        assertThat(firstChunk.get(0).getVersion()).isZero();
+        assertThat(firstChunk.get(0).getStats()).first().extracting(WordCount::word).isEqualTo("two");
+
+        assertThat(response.succeeded()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(3);
+        assertThat(response.items()).extracting(BatchItemResult::status).containsExactly(201, 400, 400, 400, 201);
+        assertThat(response.items().get(0).id()).isEqualTo(firstChunk.get(0).getId());
+        assertThat(response.items().get(1).error()).isEqualTo("title: must not be blank");
+        assertThat(response.items().get(2).error()).isEqualTo("Note saving error");
+        assertThat(response.items().get(3).error()).isEqualTo("Item must not be null");
+
+        ArgumentCaptor<NotesCreatedEvent> events = ArgumentCaptor.forClass(NotesCreatedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues().get(0).notes()).extracting(Note::getTitle).containsExactly("First");
+        assertThat(events.getAllValues().get(1).notes()).extracting(Note::getTitle).containsExactly("Third");
+    }
+
+    @Test
+    void createNotes_rejectsEmptyAndOversizedBatches() {
+        CreateNoteRequest item = new CreateNoteRequest("Title", "text", List.of());
+
+        assertThatThrownBy(() -> noteBatchService.createNotes(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> noteBatchService.createNotes(Collections.nCopies(6, item)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Batch must not exceed 5 items");
+        verify(noteRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void updateNotes_reportsMissingAndStaleNotesWithoutWritingThem() {
+        List<BatchUpdateNoteRequest> items = List.of(
+                new BatchUpdateNoteRequest("a", "New title", null, null, null),
+                new BatchUpdateNoteRequest("missing", "New title", null, null, null),
+                new BatchUpdateNoteRequest("a", "Again", null, null, null),
+                new BatchUpdateNoteRequest("b", null, "new text", null, 1L)
+        );
+        Note a = summary("a", 3L);
+        when(noteRepository.findSummariesByIds(List.of("a", "missing"))).thenReturn(List.of(a));
+        when(noteRepository.findSummariesByIds(List.of("b"))).thenReturn(List.of(summary("b", 2L)));
+        when(noteRepository.updateAll(anyList())).thenReturn(new BulkWriteOutcome(1, Map.of()));
+
+        BatchResponse response = noteBatchService.updateNotes(items);
+
+        NotePatch patch = new NotePatch("New title", null, null, null);
+        verify(noteRepository).updateAll(List.of(new NoteBulkUpdate("a", 3L, patch)));
+        verify(noteCache).invalidateAll(List.of("a"));
+        verify(eventPublisher).publishEvent(new NoteUpdatedEvent(a, patch));
+        assertThat(response.items()).extracting(BatchItemResult::status).containsExactly(200, 404, 400, 412);
+        assertThat(response.items().get(2).error()).isEqualTo("Duplicate id in batch");
+    }
+
+    @Test
+    void updateNotes_attributesLostUpdatesByReReadingVersions() {
+        List<BatchUpdateNoteRequest> items = List.of(
+                new BatchUpdateNoteRequest("a", "A", null, null, null),
+                new BatchUpdateNoteRequest("b", "B", null, null, null)
+        );
+        Note a = summary("a", 1L);
+        when(noteRepository.findSummariesByIds(List.of("a", "b"))).thenReturn(List.of(a, summary("b", 1L)));
+        when(noteRepository.updateAll(anyList())).thenReturn(new BulkWriteOutcome(1, Map.of()));
+        when(noteRepository.findVersions(List.of("a", "b"))).thenReturn(Map.of("a", 2L, "b", 3L));
+
+        BatchResponse response = noteBatchService.updateNotes(items);
+
+        assertThat(response.items()).extracting(BatchItemResult::status).containsExactly(200, 412);
+        verify(eventPublisher).publishEvent(new NoteUpdatedEvent(a, new NotePatch("A", null, null, null)));
+    }
+
+    @Test
+    void updateNotes_reportsConflictWhenLostUpdatesAreAmbiguous() {
+        List<BatchUpdateNoteRequest> items = List.of(
+                new BatchUpdateNoteRequest("a", "A", null, null, null),
+                new BatchUpdateNoteRequest("b", "B", null, null, null)
+        );
+        when(noteRepository.findSummariesByIds(List.of("a", "b"))).thenReturn(List.of(summary("a", 1L), summary("b", 1L)));
+        when(noteRepository.updateAll(anyList())).thenReturn(new BulkWriteOutcome(1, Map.of()));
+        when(noteRepository.findVersions(List.of("a", "b"))).thenReturn(Map.of("a", 2L, "b", 2L));
+
+        BatchResponse response = noteBatchService.updateNotes(items);
+
+        assertThat(response.items()).extracting(BatchItemResult::status).containsExactly(409, 409);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void deleteNotes_removesExistingNotesAndReportsMissingOnes() {
+        Note a = summary("a", null);
+        when(noteRepository.removeById("a")).thenReturn(a);
+
+        BatchResponse response = noteBatchService.deleteNotes(List.of("a", "missing", "a", ""));
+
+        verify(noteRepository).removeById("missing");
+        verify(eventPublisher).publishEvent(new NotesRemovedEvent(List.of(a)));
+        verify(noteCache).invalidateAll(List.of("a", "missing"));
+        assertThat(response.items()).extracting(BatchItemResult::status).containsExactly(200, 404, 400, 400);
+        assertThat(response.succeeded()).isEqualTo(1);
+    }
+
+    private Note summary(String id, Long version) {
+        Note note = new Note();
+        note.setId(id);
+        note.setVersion(version);
+        note.setTags(List.of(NoteTagEnum.PERSONAL));
+        note.setStats(List.of(new WordCount("word", 1)));
+        return note;
+    }
+}
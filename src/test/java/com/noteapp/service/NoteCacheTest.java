@@ -0,0 +1,166 @@
+package com.noteapp.service;
+
+import com.noteapp.config.NoteCacheProperties;
+import com.noteapp.dto.CacheStatsResponse;
+import com.noteapp.model.Note;
+import com.noteapp.model.WordCount;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NoteCacheTest {
+
+    @Test
+    void get_loadsOnceAndCountsHitsAndMisses() {
+        NoteCache cache = enabledCache(10_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", id -> { loads.incrementAndGet(); return note(id, 10); });
+        cache.get("a", id -> { loads.incrementAndGet(); return note(id, 10); });
+
+        CacheStatsResponse stats = cache.stats();
+        assertThat(loads).hasValue(1);
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.size()).isEqualTo(1);
+    }
+
+    @Test
+    void get_sharesOneLoadBetweenConcurrentMissesAndLetsALaterPutWin() throws Exception {
+        NoteCache cache = enabledCache(10_000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Note updated = note("a", 20);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Note>> reads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                reads.add(executor.submit(() -> cache.get("a", id -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    awaitQuietly(release);
+                    return note(id, 10);
+                })));
+            }
+            loading.await();
+            Future<?> write = executor.submit(() -> cache.put(updated));
+            release.countDown();
+            write.get();
+
+            for (Future<Note> read : reads) {
+                assertThat(read.get()).isNotNull();
+            }
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getIfPresent("a")).isSameAs(updated);
+    }
+
+    @Test
+    void put_replacesCachedNote() {
+        NoteCache cache = enabledCache(10_000);
+        cache.get("a", id -> note(id, 10));
+        Note updated = note("a", 20);
+
+        cache.put(updated);
+
+        assertThat(cache.getIfPresent("a")).isSameAs(updated);
+    }
+
+    @Test
+    void put_keepsTheHigherVersionWhenWritersRace() {
+        NoteCache cache = enabledCache(10_000);
+        Note newer = note("a", 20);
+        newer.setVersion(2L);
+        Note older = note("a", 10);
+        older.setVersion(1L);
+
+        cache.put(newer);
+        cache.put(older);
+
+        assertThat(cache.getIfPresent("a")).isSameAs(newer);
+    }
+
+    @Test
+    void invalidate_removesEntries() {
+        NoteCache cache = enabledCache(10_000);
+        cache.put(note("a", 1));
+        cache.put(note("b", 1));
+        cache.put(note("c", 1));
+
+        cache.invalidate("a");
+        cache.invalidateAll(List.of("b"));
+
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.getIfPresent("c")).isNotNull();
+    }
+
+    @Test
+    void put_evictsWhenTextWeightExceedsBound() {
+        NoteCache cache = enabledCache(1_000);
+
+        cache.put(note("small", 100));
+        cache.put(note("large", 2_000));
+
+        CacheStatsResponse stats = cache.stats();
+        assertThat(stats.weight()).isLessThanOrEqualTo(1_000);
+        assertThat(stats.evictionCount()).isPositive();
+    }
+
+    @Test
+    void put_weighsStatsAlongWithTheText() {
+        NoteCache cache = enabledCache(10_000);
+        Note withStats = note("a", 100);
+        withStats.setStats(List.of(new WordCount("x".repeat(100), 1)));
+
+        cache.put(note("b", 100));
+        long withoutStatsWeight = cache.stats().weight();
+        cache.put(withStats);
+
+        assertThat(cache.stats().weight() - withoutStatsWeight).isGreaterThan(withoutStatsWeight + 100);
+    }
+
+    @Test
+    void disabledCache_alwaysLoads() {
+        NoteCache cache = new NoteCache(new NoteCacheProperties(false, 10_000, Duration.ofMinutes(1)), Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", id -> { loads.incrementAndGet(); return note(id, 10); });
+        cache.get("a", id -> { loads.incrementAndGet(); return note(id, 10); });
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.stats().enabled()).isFalse();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private NoteCache enabledCache(long maximumWeight) {
+        return new NoteCache(new NoteCacheProperties(true, maximumWeight, Duration.ofMinutes(1)), Runnable::run);
+    }
+
+    private Note note(String id, int textLength) {
+        Note note = new Note();
+        note.setId(id);
+        note.setTitle("t");
+        note.setText("x".repeat(textLength));
+        return note;
+    }
+}
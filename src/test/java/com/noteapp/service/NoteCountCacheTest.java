@@ -0,0 +1,46 @@
+package com.noteapp.service;
+
+import com.noteapp.config.CountCacheProperties;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.repository.NoteRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NoteCountCacheTest {
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Test
+    void getCount_reusesCountWithinTtlRegardlessOfTagOrder() {
+        NoteCountCache cache = new NoteCountCache(noteRepository, new CountCacheProperties(Duration.ofMinutes(1)));
+        when(noteRepository.countByTags(List.of(NoteTagEnum.BUSINESS, NoteTagEnum.IMPORTANT))).thenReturn(7L);
+
+        long first = cache.getCount(List.of(NoteTagEnum.IMPORTANT, NoteTagEnum.BUSINESS));
+        long second = cache.getCount(List.of(NoteTagEnum.BUSINESS, NoteTagEnum.IMPORTANT));
+
+        assertThat(first).isEqualTo(7);
+        assertThat(second).isEqualTo(7);
+        verify(noteRepository, times(1)).countByTags(List.of(NoteTagEnum.BUSINESS, NoteTagEnum.IMPORTANT));
+    }
+
+    @Test
+    void getCount_refreshesExpiredCount() {
+        NoteCountCache cache = new NoteCountCache(noteRepository, new CountCacheProperties(Duration.ZERO));
+        when(noteRepository.countByTags(List.of())).thenReturn(10L, 12L);
+
+        assertThat(cache.getCount(null)).isEqualTo(10);
+        assertThat(cache.getCount(List.of())).isEqualTo(12);
+    }
+}
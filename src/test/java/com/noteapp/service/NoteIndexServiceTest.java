@@ -0,0 +1,81 @@
+package com.noteapp.service;
+
+import com.noteapp.dto.IndexStatusResponse;
+import com.noteapp.model.Note;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NoteIndexServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @InjectMocks
+    private NoteIndexService noteIndexService;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.indexOps(Note.class)).thenReturn(indexOperations);
+    }
+
+    @Test
+    void ensureIndexes_createsOnlyMissingIndexes() {
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(
+                indexInfo("_id_", new Document("_id", 1)),
+                indexInfo("manual", new Document("createdDate", -1).append("_id", -1))
+        ));
+
+        noteIndexService.ensureIndexes();
+
+        verify(indexOperations, never()).createIndex(NoteIndexService.CREATED_DATE_INDEX);
+        verify(indexOperations).createIndex(NoteIndexService.TAGS_CREATED_DATE_INDEX);
+    }
+
+    @Test
+    void ensureIndexes_keepsGoingWhenIndexBuildFails() {
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(indexInfo("_id_", new Document("_id", 1))));
+        when(indexOperations.createIndex(NoteIndexService.CREATED_DATE_INDEX))
+                .thenThrow(new DataIntegrityViolationException("index build failed"));
+
+        noteIndexService.ensureIndexes();
+
+        verify(indexOperations).createIndex(NoteIndexService.TAGS_CREATED_DATE_INDEX);
+    }
+
+    @Test
+    void getIndexStatus_reportsPresentAndMissingIndexes() {
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(
+                indexInfo("_id_", new Document("_id", 1)),
+                indexInfo("tags_createdDate_id", new Document("tags", 1).append("createdDate", -1).append("_id", -1))
+        ));
+
+        IndexStatusResponse status = noteIndexService.getIndexStatus();
+
+        assertThat(status.present()).containsExactly("tags_createdDate_id");
+        assertThat(status.missing()).containsExactly("createdDate_id");
+    }
+
+    private IndexInfo indexInfo(String name, Document keys) {
+        return IndexInfo.indexInfoOf(new Document("name", name).append("key", keys));
+    }
+}
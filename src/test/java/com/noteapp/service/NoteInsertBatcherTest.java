@@ -0,0 +1,145 @@
+package com.noteapp.service;
+
+import com.noteapp.config.GroupCommitProperties;
+import com.noteapp.exception.BulkheadFullException;
+import com.noteapp.model.Note;
+import com.noteapp.repository.BulkWriteOutcome;
+import com.noteapp.repository.NoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NoteInsertBatcherTest {
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NoteInsertBatcher batcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (batcher != null) {
+            batcher.stop();
+        }
+    }
+
+    @Test
+    void insert_coalescesConcurrentCallsIntoOneInsert() throws Exception {
+        start(3, Duration.ofSeconds(5));
+        when(noteRepository.insertAll(anyList())).thenAnswer(invocation -> new BulkWriteOutcome(3, Map.of()));
+
+        List<CompletableFuture<Note>> saved = List.of(insertAsync("a"), insertAsync("b"), insertAsync("c"));
+
+        for (CompletableFuture<Note> note : saved) {
+            assertThat(note.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+        }
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Note>> captor = ArgumentCaptor.forClass(List.class);
+        verify(noteRepository).insertAll(captor.capture());
+        assertThat(captor.getValue()).extracting(Note::getTitle).containsExactlyInAnyOrder("a", "b", "c");
+        assertThat(meterRegistry.get("noteapp.group-commit.batch.size").summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get("noteapp.group-commit.flushes").tag("trigger", "size").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void insert_flushesALoneNoteOnceTheDelayPasses() {
+        start(100, Duration.ofMillis(10));
+        when(noteRepository.insertAll(anyList())).thenReturn(new BulkWriteOutcome(1, Map.of()));
+
+        Note saved = batcher.insert(note("alone"));
+
+        assertThat(saved.getVersion()).isZero();
+        assertThat(meterRegistry.get("noteapp.group-commit.flushes").tag("trigger", "deadline").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("noteapp.group-commit.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void insert_failsOnlyTheCallerWhoseNoteWasRejected() throws Exception {
+        start(2, Duration.ofSeconds(5));
+        when(noteRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Note> notes = invocation.getArgument(0);
+            Map<Integer, String> errors = new HashMap<>();
+            for (int i = 0; i < notes.size(); i++) {
+                if (notes.get(i).getTitle().equals("bad")) errors.put(i, "duplicate key");
+            }
+            return new BulkWriteOutcome(notes.size() - errors.size(), errors);
+        });
+
+        CompletableFuture<Note> good = insertAsync("good");
+        CompletableFuture<Note> bad = insertAsync("bad");
+
+        assertThat(good.get(5, TimeUnit.SECONDS).getTitle()).isEqualTo("good");
+        assertThatThrownBy(() -> bad.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class)
+                .hasRootCauseMessage("Note saving error");
+    }
+
+    @Test
+    void insert_rejectsWhenNotStarted() {
+        batcher = new NoteInsertBatcher(noteRepository, new GroupCommitProperties(false, 10, Duration.ofMillis(2), 10), meterRegistry);
+        batcher.start();
+
+        assertThatThrownBy(() -> batcher.insert(note("any")))
+                .isInstanceOf(BulkheadFullException.class);
+    }
+
+    @Test
+    void insert_rejectsOnceStopped() throws InterruptedException {
+        start(10, Duration.ofMillis(2));
+        batcher.stop();
+
+        assertThatThrownBy(() -> batcher.insert(note("late")))
+                .isInstanceOf(BulkheadFullException.class);
+    }
+
+    @Test
+    void insert_failsWaitingCallersWhenTheWriterDies() throws Exception {
+        start(10, Duration.ofMillis(2));
+        when(noteRepository.insertAll(anyList())).thenThrow(new LinkageError("writer broken"));
+
+        CompletableFuture<Note> saved = insertAsync("a");
+
+        assertThatThrownBy(() -> saved.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(BulkheadFullException.class);
+        assertThatThrownBy(() -> batcher.insert(note("b")))
+                .isInstanceOf(BulkheadFullException.class);
+    }
+
+    private void start(int maxBatchSize, Duration maxDelay) {
+        batcher = new NoteInsertBatcher(noteRepository, new GroupCommitProperties(true, maxBatchSize, maxDelay, 100), meterRegistry);
+        batcher.start();
+    }
+
+    private CompletableFuture<Note> insertAsync(String title) {
+        // Every caller blocks until its batch is written, so each needs its own thread
+        return CompletableFuture.supplyAsync(() -> batcher.insert(note(title)), task -> Thread.ofPlatform().start(task));
+    }
+
+    private Note note(String title) {
+        Note note = new Note();
+        note.setTitle(title);
+        return note;
+    }
+}
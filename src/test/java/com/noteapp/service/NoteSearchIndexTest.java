@@ -0,0 +1,231 @@
+package com.noteapp.service;
+
+import com.noteapp.dto.NoteSearchHit;
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.event.NotesRemovedEvent;
+import com.noteapp.exception.SearchIndexNotReadyException;
+import com.noteapp.model.Note;
+import com.noteapp.repository.NotePatch;
+import com.noteapp.repository.NoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NoteSearchIndexTest {
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    private NoteSearchIndex noteSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        noteSearchIndex = new NoteSearchIndex(noteRepository);
+        when(noteRepository.streamSearchFields()).thenReturn(Stream.empty());
+        noteSearchIndex.rebuild();
+    }
+
+    @Test
+    void search_isRefusedUntilTheFirstRebuildFinished() {
+        NoteSearchIndex building = new NoteSearchIndex(noteRepository);
+
+        assertThatThrownBy(() -> building.search("anything", PageRequest.of(0, 10)))
+                .isInstanceOf(SearchIndexNotReadyException.class);
+    }
+
+    @Test
+    void search_ranksNotesByTermFrequencyAcrossTitleAndText() {
+        index(note("a", "Groceries", "milk eggs bread"));
+        index(note("b", "Release", "release the release notes"));
+        index(note("c", "Notes", "meeting notes"));
+
+        Page<NoteSearchHit> hits = noteSearchIndex.search("Release", PageRequest.of(0, 10));
+
+        assertThat(hits.getTotalElements()).isEqualTo(1);
+        assertThat(hits.getContent()).extracting(NoteSearchHit::id).containsExactly("b");
+        assertThat(noteSearchIndex.search("notes", PageRequest.of(0, 10)).getContent())
+                .extracting(NoteSearchHit::id)
+                .containsExactly("c", "b");
+    }
+
+    @Test
+    void search_pagesThroughRankedHits() {
+        index(note("a", "Todo", "todo todo todo"));
+        index(note("b", "Todo", "todo todo"));
+        index(note("c", "Todo", "something else entirely"));
+
+        Page<NoteSearchHit> secondPage = noteSearchIndex.search("todo", PageRequest.of(1, 2));
+
+        assertThat(secondPage.getTotalElements()).isEqualTo(3);
+        assertThat(secondPage.getContent()).extracting(NoteSearchHit::id).containsExactly("c");
+        assertThat(noteSearchIndex.search("todo", PageRequest.of(2, 2)).getContent()).isEmpty();
+    }
+
+    @Test
+    void onNoteUpdated_replacesOnlyPatchedTerms() {
+        index(note("a", "Draft", "alpha beta"));
+
+        update("a", 0, new NotePatch("Final", null, null, null));
+
+        assertThat(noteSearchIndex.search("draft", PageRequest.of(0, 10))).isEmpty();
+        assertThat(noteSearchIndex.search("final", PageRequest.of(0, 10))).hasSize(1);
+        assertThat(noteSearchIndex.search("beta", PageRequest.of(0, 10))).hasSize(1);
+
+        update("a", 1, new NotePatch(null, "gamma", WordCounter.of("gamma").toSortedList(), null));
+
+        assertThat(noteSearchIndex.search("beta", PageRequest.of(0, 10))).isEmpty();
+        assertThat(noteSearchIndex.search("final gamma", PageRequest.of(0, 10))).hasSize(1);
+    }
+
+    @Test
+    void onNoteUpdated_dropsAnUpdateTheIndexIsAlreadyPast() {
+        index(note("a", "Draft", "alpha"));
+        update("a", 0, new NotePatch(null, "beta", WordCounter.of("beta").toSortedList(), null));
+
+        update("a", 0, new NotePatch(null, "gamma", WordCounter.of("gamma").toSortedList(), null));
+
+        assertThat(noteSearchIndex.search("beta", PageRequest.of(0, 10))).hasSize(1);
+        assertThat(noteSearchIndex.search("gamma", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void onNoteUpdated_reloadsTheNoteWhenAnEarlierUpdateIsMissing() {
+        index(note("a", "Draft", "alpha"));
+        Note current = note("a", "Final", "gamma");
+        current.setVersion(2L);
+        when(noteRepository.findById("a")).thenReturn(Optional.of(current));
+
+        update("a", 1, new NotePatch(null, "gamma", WordCounter.of("gamma").toSortedList(), null));
+
+        assertThat(noteSearchIndex.search("final gamma", PageRequest.of(0, 10))).hasSize(1);
+        assertThat(noteSearchIndex.search("alpha", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void onNotesCreated_doesNotBringBackARemovedNote() {
+        Note note = note("a", "Alpha", "shared");
+        noteSearchIndex.onNotesRemoved(new NotesRemovedEvent(List.of(note)));
+
+        index(note);
+
+        assertThat(noteSearchIndex.size()).isZero();
+    }
+
+    @Test
+    void onNotesRemoved_dropsNoteFromPostings() {
+        index(note("a", "Alpha", "shared"));
+        index(note("b", "Beta", "shared"));
+
+        noteSearchIndex.onNotesRemoved(new NotesRemovedEvent(List.of(note("a", null, null))));
+
+        assertThat(noteSearchIndex.search("shared", PageRequest.of(0, 10)).getContent())
+                .extracting(NoteSearchHit::id)
+                .containsExactly("b");
+        assertThat(noteSearchIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuild_appliesWritesRacingTheStreamExactlyOnce() {
+        Note streamed = withStats(note("a", "Fresh", "alpha"));
+        streamed.setVersion(1L);
+        // The current index does not know the note yet and reloads it
+        when(noteRepository.findById("a")).thenReturn(Optional.of(streamed));
+        when(noteRepository.streamSearchFields()).thenAnswer(invocation -> {
+            // The update below was applied to the collection before the cursor read the note
+            update("a", 0, new NotePatch(null, "alpha", WordCounter.of("alpha").toSortedList(), null));
+            return Stream.of(streamed);
+        });
+
+        noteSearchIndex.rebuild();
+
+        assertThat(noteSearchIndex.search("alpha", PageRequest.of(0, 10)).getContent())
+                .extracting(NoteSearchHit::id)
+                .containsExactly("a");
+        assertThat(noteSearchIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuild_replacesIndexWithCollectionContents() {
+        index(note("stale", "Stale", "gone"));
+        when(noteRepository.streamSearchFields())
+                .thenReturn(Stream.of(withStats(note("a", "Fresh", "from the collection"))));
+
+        noteSearchIndex.rebuild();
+
+        assertThat(noteSearchIndex.search("gone", PageRequest.of(0, 10))).isEmpty();
+        assertThat(noteSearchIndex.search("collection", PageRequest.of(0, 10)).getContent())
+                .extracting(NoteSearchHit::id)
+                .containsExactly("a");
+    }
+
+    @Test
+    void rebuild_loadsOnlyNotesStoredWithoutStats() {
+        Note legacy = note("a", "Legacy", "unset stats");
+        when(noteRepository.streamSearchFields()).thenReturn(Stream.of(note("a", "Legacy", null)));
+        when(noteRepository.findById("a")).thenReturn(Optional.of(legacy));
+
+        noteSearchIndex.rebuild();
+
+        assertThat(noteSearchIndex.search("stats", PageRequest.of(0, 10)).getContent())
+                .extracting(NoteSearchHit::id)
+                .containsExactly("a");
+    }
+
+    @Test
+    void search_skipsPostingsLeftBehindByRepeatedUpdates() {
+        index(note("a", "First", "alpha beta"));
+        index(note("b", "Second", "alpha"));
+        for (int version = 0; version < 10; version++) {
+            update("a", version, new NotePatch(null, "beta gamma", WordCounter.of("beta gamma").toSortedList(), null));
+        }
+        update("a", 10, new NotePatch("Renamed", null, null, null));
+
+        assertThat(noteSearchIndex.search("alpha", PageRequest.of(0, 10)).getContent())
+                .extracting(NoteSearchHit::id)
+                .containsExactly("b");
+        assertThat(noteSearchIndex.search("gamma", PageRequest.of(0, 10)).getContent())
+                .extracting(NoteSearchHit::title)
+                .containsExactly("Renamed");
+        assertThat(noteSearchIndex.search("beta", PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+    }
+
+    private void index(Note note) {
+        noteSearchIndex.onNotesCreated(new NotesCreatedEvent(List.of(note)));
+    }
+
+    private void update(String id, long beforeVersion, NotePatch patch) {
+        Note before = note(id, null, null);
+        before.setVersion(beforeVersion);
+        noteSearchIndex.onNoteUpdated(new NoteUpdatedEvent(before, patch));
+    }
+
+    private Note withStats(Note note) {
+        note.setStats(WordCounter.of(note.getText()).toSortedList());
+        note.setText(null);
+        return note;
+    }
+
+    private Note note(String id, String title, String text) {
+        Note note = new Note();
+        note.setId(id);
+        note.setTitle(title);
+        note.setText(text);
+        note.setCreatedDate(Instant.parse("2024-01-01T00:00:00Z"));
+        return note;
+    }
+}
@@ -1,38 +1,61 @@
 package com.noteapp.service;
 
+import com.noteapp.config.BatchProperties;
+import com.noteapp.config.NoteCacheProperties;
+import com.noteapp.config.WordCountProperties;
+import com.noteapp.dto.BulkDeleteResponse;
 import com.noteapp.dto.CreateNoteRequest;
 import com.noteapp.dto.NoteDto;
 import com.noteapp.dto.NoteParams;
+import com.noteapp.dto.NotePreviewCursorPage;
 import com.noteapp.dto.NotePreviewDto;
+import com.noteapp.dto.NotePreviewSlice;
+import com.noteapp.dto.NoteSearchHit;
 import com.noteapp.dto.NoteStatsEntry;
 import com.noteapp.dto.NoteStatsResponse;
 import com.noteapp.dto.NoteTextResponse;
 import com.noteapp.dto.UpdateNoteRequest;
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.event.NotesRemovedEvent;
 import com.noteapp.exception.NotFoundException;
+import com.noteapp.exception.PreconditionFailedException;
 import com.noteapp.mapper.NoteMapper;
 import com.noteapp.model.Note;
 import com.noteapp.model.NoteTagEnum;
+import com.noteapp.model.WordCount;
+import com.noteapp.repository.NotePatch;
 import com.noteapp.repository.NoteRepository;
+import com.noteapp.repository.NoteStatsView;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -45,6 +68,27 @@ class NoteServiceTest {
     @Mock
     private NoteMapper noteMapper;
 
+    @Mock
+    private NoteCountCache noteCountCache;
+
+    @Mock
+    private NoteSearchIndex noteSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private NoteInsertBatcher insertBatcher;
+
+    @Spy
+    private ParallelWordCounter wordCounter = new ParallelWordCounter(new WordCountProperties(1_048_576, 262_144, 1));
+
+    @Spy
+    private BatchProperties batchProperties = new BatchProperties(10_000, 2, 4, 1 << 20);
+
+    @Spy
+    private NoteCache noteCache = new NoteCache(new NoteCacheProperties(false, 0, Duration.ZERO), Runnable::run);
+
     @InjectMocks
     private NoteService noteService;
 
@@ -53,7 +97,7 @@ class NoteServiceTest {
         List<NoteTagEnum> tags = List.of(NoteTagEnum.BUSINESS, NoteTagEnum.IMPORTANT);
         CreateNoteRequest request = new CreateNoteRequest("Daily note", "Focus on delivery", tags);
         Note savedNote = noteWithId("note-id");
-        NoteDto dto = new NoteDto(savedNote.getId(), savedNote.getTitle(), savedNote.getText(), savedNote.getTags(), savedNote.getCreatedDate());
+        NoteDto dto = new NoteDto(savedNote.getId(), savedNote.getTitle(), savedNote.getText(), savedNote.getTags(), savedNote.getCreatedDate(), 0L);
 
         when(noteRepository.save(any(Note.class))).thenReturn(savedNote);
         when(noteMapper.toDto(savedNote)).thenReturn(dto);
@@ -69,7 +113,28 @@ class NoteServiceTest {
         assertThat(persisted.getText()).isEqualTo(request.text());
         assertThat(persisted.getTags()).containsExactlyElementsOf(tags);
         assertThat(persisted.getCreatedDate()).isNotNull();
+        assertThat(persisted.getStats()).containsExactly(
+                new WordCount("delivery", 1),
+                new WordCount("focus", 1),
+                new WordCount("on", 1)
+        );
         verify(noteMapper).toDto(savedNote);
+        verify(eventPublisher).publishEvent(new NotesCreatedEvent(List.of(savedNote)));
+    }
+
+    @Test
+    void createNote_insertsThroughGroupCommitWhenEnabled() {
+        CreateNoteRequest request = new CreateNoteRequest("Daily note", "Focus on delivery", List.of());
+        Note savedNote = noteWithId("note-id");
+        NoteDto dto = new NoteDto(savedNote.getId(), savedNote.getTitle(), savedNote.getText(), savedNote.getTags(), savedNote.getCreatedDate(), 0L);
+        when(insertBatcher.isEnabled()).thenReturn(true);
+        when(insertBatcher.insert(any(Note.class))).thenReturn(savedNote);
+        when(noteMapper.toDto(savedNote)).thenReturn(dto);
+
+        assertThat(noteService.createNote(request)).isEqualTo(dto);
+
+        verify(noteRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(new NotesCreatedEvent(List.of(savedNote)));
     }
 
     @Test
@@ -85,21 +150,21 @@ class NoteServiceTest {
     @Test
     void getText_returnsNoteTextResponse() {
         Note note = noteWithId("text-id");
-        NoteTextResponse response = new NoteTextResponse("text-id", "body");
-        when(noteRepository.findById("text-id")).thenReturn(Optional.of(note));
+        NoteTextResponse response = new NoteTextResponse("text-id", "body", 0L);
+        when(noteRepository.findForRead("text-id")).thenReturn(Optional.of(note));
         when(noteMapper.toNoteTextResponse(note)).thenReturn(response);
 
         NoteTextResponse result = noteService.getText("text-id");
 
         assertThat(result).isEqualTo(response);
-        verify(noteRepository).findById("text-id");
+        verify(noteRepository).findForRead("text-id");
     }
 
     @Test
     void getNoteDtoById_returnsMappedDto() {
         Note note = noteWithId("dto-id");
-        NoteDto dto = new NoteDto("dto-id", "title", "text", note.getTags(), note.getCreatedDate());
-        when(noteRepository.findById("dto-id")).thenReturn(Optional.of(note));
+        NoteDto dto = new NoteDto("dto-id", "title", "text", note.getTags(), note.getCreatedDate(), 0L);
+        when(noteRepository.findForRead("dto-id")).thenReturn(Optional.of(note));
         when(noteMapper.toDto(note)).thenReturn(dto);
 
         NoteDto result = noteService.getNoteDtoById("dto-id");
@@ -109,30 +174,99 @@ class NoteServiceTest {
 
     @Test
     void getNoteDtoById_throwsWhenNotFound() {
-        when(noteRepository.findById("missing")).thenReturn(Optional.empty());
+        when(noteRepository.findForRead("missing")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> noteService.getNoteDtoById("missing"))
                 .isInstanceOf(NotFoundException.class);
     }
 
     @Test
-    void updateNote_updatesProvidedFields() {
-        Note note = noteWithId("update-id");
-        note.setTitle("old title");
-        note.setText("old text");
-        note.setTags(new ArrayList<>(List.of(NoteTagEnum.PERSONAL)));
-        UpdateNoteRequest request = new UpdateNoteRequest("new title", "new text", List.of(NoteTagEnum.BUSINESS));
-        NoteDto dto = new NoteDto("update-id", "new title", "new text", request.tags(), note.getCreatedDate());
-        when(noteRepository.findById("update-id")).thenReturn(Optional.of(note));
-        when(noteRepository.save(note)).thenReturn(note);
-        when(noteMapper.toDto(note)).thenReturn(dto);
+    void updateNote_setsOnlyProvidedFieldsInOneRoundTrip() {
+        Note before = noteWithId("update-id");
+        before.setVersion(2L);
+        UpdateNoteRequest request = new UpdateNoteRequest("new title", "new text", null);
+        NoteDto dto = new NoteDto("update-id", "new title", "new text", before.getTags(), before.getCreatedDate(), 3L);
+        when(noteRepository.patch(eq("update-id"), isNull(), any(NotePatch.class))).thenReturn(before);
+        when(noteMapper.toDto(any(Note.class))).thenReturn(dto);
 
-        NoteDto result = noteService.updateNote(request, "update-id");
+        NoteDto result = noteService.updateNote(request, "update-id", null);
 
         assertThat(result).isEqualTo(dto);
-        assertThat(note.getTitle()).isEqualTo("new title");
-        assertThat(note.getText()).isEqualTo("new text");
-        assertThat(note.getTags()).containsExactlyElementsOf(request.tags());
+        ArgumentCaptor<NotePatch> captor = ArgumentCaptor.forClass(NotePatch.class);
+        verify(noteRepository).patch(eq("update-id"), isNull(), captor.capture());
+        NotePatch patch = captor.getValue();
+        assertThat(patch.title()).isEqualTo("new title");
+        assertThat(patch.text()).isEqualTo("new text");
+        assertThat(patch.tags()).isNull();
+        assertThat(patch.stats()).containsExactly(
+                new WordCount("new", 1),
+                new WordCount("text", 1)
+        );
+        verify(noteRepository, never()).findById(any());
+        verify(noteRepository, never()).save(any());
+
+        ArgumentCaptor<Note> updatedCaptor = ArgumentCaptor.forClass(Note.class);
+        verify(noteCache).put(updatedCaptor.capture());
+        Note updated = updatedCaptor.getValue();
+        assertThat(updated.getTitle()).isEqualTo("new title");
+        assertThat(updated.getText()).isEqualTo("new text");
+        assertThat(updated.getStats()).isEqualTo(patch.stats());
+        assertThat(updated.getTags()).isEqualTo(before.getTags());
+        assertThat(updated.getVersion()).isEqualTo(3L);
+        verify(noteMapper).toDto(updated);
+        verify(eventPublisher).publishEvent(new NoteUpdatedEvent(before, patch));
+    }
+
+    @Test
+    void updateNote_leavesStatsUntouchedWithoutText() {
+        Note updated = noteWithId("tags-id");
+        UpdateNoteRequest request = new UpdateNoteRequest(null, null, List.of(NoteTagEnum.BUSINESS));
+        when(noteRepository.patch(eq("tags-id"), isNull(), any(NotePatch.class))).thenReturn(updated);
+
+        noteService.updateNote(request, "tags-id", null);
+
+        ArgumentCaptor<NotePatch> captor = ArgumentCaptor.forClass(NotePatch.class);
+        verify(noteRepository).patch(eq("tags-id"), isNull(), captor.capture());
+        assertThat(captor.getValue().tags()).containsExactly(NoteTagEnum.BUSINESS);
+        assertThat(captor.getValue().text()).isNull();
+        assertThat(captor.getValue().stats()).isNull();
+    }
+
+    @Test
+    void updateNote_passesExpectedVersion() {
+        Note updated = noteWithId("versioned-id");
+        when(noteRepository.patch(eq("versioned-id"), eq(4L), any(NotePatch.class))).thenReturn(updated);
+
+        noteService.updateNote(new UpdateNoteRequest("title", null, null), "versioned-id", 4L);
+
+        verify(noteRepository).patch(eq("versioned-id"), eq(4L), any(NotePatch.class));
+    }
+
+    @Test
+    void updateNote_throwsPreconditionFailedOnVersionMismatch() {
+        when(noteRepository.patch(eq("stale-id"), eq(1L), any(NotePatch.class))).thenReturn(null);
+        when(noteRepository.existsById("stale-id")).thenReturn(true);
+
+        assertThatThrownBy(() -> noteService.updateNote(new UpdateNoteRequest("title", null, null), "stale-id", 1L))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+
+    @Test
+    void updateNote_throwsWhenNotFound() {
+        when(noteRepository.patch(eq("missing"), isNull(), any(NotePatch.class))).thenReturn(null);
+
+        assertThatThrownBy(() -> noteService.updateNote(new UpdateNoteRequest("title", null, null), "missing", null))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void updateNote_wrapsDataIntegrityViolations() {
+        when(noteRepository.patch(eq("invalid-id"), isNull(), any(NotePatch.class)))
+                .thenThrow(new DataIntegrityViolationException("validation failed"));
+
+        assertThatThrownBy(() -> noteService.updateNote(new UpdateNoteRequest("title", null, null), "invalid-id", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Note saving error");
     }
 
     @Test
@@ -142,35 +276,211 @@ class NoteServiceTest {
         note.setText("content");
         note.setTags(new ArrayList<>(List.of(NoteTagEnum.IMPORTANT)));
         UpdateNoteRequest request = new UpdateNoteRequest(null, null, null);
-        NoteDto dto = new NoteDto("partial-id", "stable", "content", note.getTags(), note.getCreatedDate());
+        NoteDto dto = new NoteDto("partial-id", "stable", "content", note.getTags(), note.getCreatedDate(), 0L);
         when(noteRepository.findById("partial-id")).thenReturn(Optional.of(note));
-        when(noteRepository.save(note)).thenReturn(note);
         when(noteMapper.toDto(note)).thenReturn(dto);
 
-        noteService.updateNote(request, "partial-id");
+        NoteDto result = noteService.updateNote(request, "partial-id", null);
 
-        assertThat(note.getTitle()).isEqualTo("stable");
-        assertThat(note.getText()).isEqualTo("content");
-        assertThat(note.getTags()).containsExactlyElementsOf(List.of(NoteTagEnum.IMPORTANT));
+        assertThat(result).isEqualTo(dto);
+        verify(noteRepository, never()).patch(any(), any(), any());
+        verify(noteRepository, never()).save(any());
     }
 
     @Test
-    void deleteNote_removesRetrievedEntity() {
-        Note note = noteWithId("delete-id");
-        when(noteRepository.findById("delete-id")).thenReturn(Optional.of(note));
+    void deleteNote_removesWithoutLoadingNote() {
+        Note removed = noteWithId("delete-id");
+        when(noteRepository.removeById("delete-id")).thenReturn(removed);
 
         noteService.deleteNote("delete-id");
 
-        verify(noteRepository).delete(note);
+        verify(noteRepository).removeById("delete-id");
+        verify(noteRepository, never()).findById(any());
+        verify(noteCache).invalidate("delete-id");
+        verify(eventPublisher).publishEvent(new NotesRemovedEvent(List.of(removed)));
+    }
+
+    @Test
+    void deleteNote_throwsWhenNothingDeleted() {
+        when(noteRepository.removeById("missing")).thenReturn(null);
+
+        assertThatThrownBy(() -> noteService.deleteNote("missing"))
+                .isInstanceOf(NotFoundException.class);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void deleteNotes_removesByIdsAndPublishesOnlyTheNotesItDeleted() {
+        List<String> ids = List.of("a", "b", "c");
+        Note a = noteWithId("a");
+        Note b = noteWithId("b");
+        when(noteRepository.removeById("a")).thenReturn(a);
+        when(noteRepository.removeById("b")).thenReturn(b);
+        // Already deleted by a concurrent request, whose own event accounts for it
+        when(noteRepository.removeById("c")).thenReturn(null);
+
+        BulkDeleteResponse response = noteService.deleteNotes(ids, new NoteParams(null));
+
+        assertThat(response.deleted()).isEqualTo(2);
+        verify(noteCache).invalidateAll(ids);
+        verify(eventPublisher).publishEvent(new NotesRemovedEvent(List.of(a, b)));
+    }
+
+    @Test
+    void deleteNotes_removesByTagsInChunks() {
+        List<NoteTagEnum> tags = List.of(NoteTagEnum.PERSONAL);
+        Note a = noteWithId("a");
+        Note b = noteWithId("b");
+        Note c = noteWithId("c");
+        when(noteRepository.streamSummariesByTags(tags)).thenReturn(Stream.of(a, b, c));
+        when(noteRepository.removeById("a")).thenReturn(a);
+        when(noteRepository.removeById("b")).thenReturn(b);
+        when(noteRepository.removeById("c")).thenReturn(c);
+
+        BulkDeleteResponse response = noteService.deleteNotes(null, new NoteParams(tags));
+
+        assertThat(response.deleted()).isEqualTo(3);
+        verify(noteCache).invalidateAll(List.of("a", "b"));
+        verify(noteCache).invalidateAll(List.of("c"));
+        verify(eventPublisher).publishEvent(new NotesRemovedEvent(List.of(a, b)));
+        verify(eventPublisher).publishEvent(new NotesRemovedEvent(List.of(c)));
+    }
+
+    @Test
+    void searchNotes_delegatesToSearchIndex() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<NoteSearchHit> hits = new PageImpl<>(List.of(new NoteSearchHit("a", "Title", null, 1.5)), pageable, 1);
+        when(noteSearchIndex.search("title", pageable)).thenReturn(hits);
+
+        assertThat(noteService.searchNotes("title", pageable)).isSameAs(hits);
+    }
+
+    @Test
+    void searchNotes_rejectsBlankQuery() {
+        assertThatThrownBy(() -> noteService.searchNotes(" ", PageRequest.of(0, 10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Query must not be blank");
+    }
+
+    @Test
+    void deleteNotes_requiresExactlyOneFilter() {
+        assertThatThrownBy(() -> noteService.deleteNotes(List.of(), new NoteParams(null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Specify either ids or tags");
+        assertThatThrownBy(() -> noteService.deleteNotes(List.of("a"), new NoteParams(List.of(NoteTagEnum.BUSINESS))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getVersion_readsOnlyTheVersion() {
+        when(noteRepository.findVersionById("versioned")).thenReturn(Optional.of(() -> 3L));
+
+        assertThat(noteService.getVersion("versioned")).isEqualTo(3L);
+        verify(noteRepository, never()).findForRead(any());
+    }
+
+    @Test
+    void getVersion_throwsWhenNotFound() {
+        when(noteRepository.findVersionById("missing")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> noteService.getVersion("missing"))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void getStats_returnsPersistedStatsWithoutLoadingNote() {
+        List<WordCount> stats = List.of(new WordCount("note", 2), new WordCount("is", 1));
+        when(noteRepository.findStatsById("stored-stats")).thenReturn(Optional.of(statsView(stats, 1L)));
+
+        NoteStatsResponse response = noteService.getStats("stored-stats", null);
+
+        assertThat(response.stats()).containsExactly(
+                new NoteStatsEntry("note", 2),
+                new NoteStatsEntry("is", 1)
+        );
+        assertThat(response.version()).isEqualTo(1L);
+        verify(noteRepository, never()).findForRead(any());
+    }
+
+    @Test
+    void getStats_usesCachedNoteWithoutQuerying() {
+        Note note = noteWithId("cached-stats");
+        note.setStats(List.of(new WordCount("sample", 1), new WordCount("text", 1)));
+        doReturn(note).when(noteCache).getIfPresent("cached-stats");
+
+        NoteStatsResponse response = noteService.getStats("cached-stats", null);
+
+        assertThat(response.stats()).containsExactly(
+                new NoteStatsEntry("sample", 1),
+                new NoteStatsEntry("text", 1)
+        );
+        verify(noteRepository, never()).findStatsById(any());
+    }
+
+    @Test
+    void getStats_queriesStatsWhenTheCachedNoteCameWithoutThem() {
+        doReturn(noteWithId("read-only")).when(noteCache).getIfPresent("read-only");
+        List<WordCount> stats = List.of(new WordCount("note", 1));
+        when(noteRepository.findStatsById("read-only")).thenReturn(Optional.of(statsView(stats, 1L)));
+
+        NoteStatsResponse response = noteService.getStats("read-only", null);
+
+        assertThat(response.stats()).containsExactly(new NoteStatsEntry("note", 1));
+        verify(noteRepository, never()).findForRead(any());
+    }
+
+    @Test
+    void getStats_limitsPersistedStats() {
+        List<WordCount> stats = List.of(new WordCount("note", 2), new WordCount("is", 1), new WordCount("just", 1));
+        when(noteRepository.findStatsById("limited-stats")).thenReturn(Optional.of(statsView(stats, 1L)));
+
+        NoteStatsResponse response = noteService.getStats("limited-stats", 2);
+
+        assertThat(response.stats()).containsExactly(
+                new NoteStatsEntry("note", 2),
+                new NoteStatsEntry("is", 1)
+        );
+    }
+
+    @Test
+    void getStats_returnsTopWordsWhenComputingWithLimit() {
+        Note note = noteWithId("top-stats");
+        note.setText("b a c b a b d");
+        when(noteRepository.findStatsById("top-stats")).thenReturn(Optional.of(statsView(null, 1L)));
+        when(noteRepository.findForRead("top-stats")).thenReturn(Optional.of(note));
+
+        NoteStatsResponse response = noteService.getStats("top-stats", 3);
+
+        assertThat(response.stats()).containsExactly(
+                new NoteStatsEntry("b", 3),
+                new NoteStatsEntry("a", 2),
+                new NoteStatsEntry("c", 1)
+        );
+    }
+
+    @Test
+    void getStats_rejectsNonPositiveLimit() {
+        assertThatThrownBy(() -> noteService.getStats("any-id", 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Limit must be positive");
+    }
+
+    @Test
+    void getStats_throwsWhenNotFound() {
+        when(noteRepository.findStatsById("missing")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> noteService.getStats("missing", null))
+                .isInstanceOf(NotFoundException.class);
     }
 
     @Test
     void getStats_returnsOrderedWordOccurrences() {
         Note note = noteWithId("stats-id");
         note.setText("Note is just a note, NOTE!");
-        when(noteRepository.findById("stats-id")).thenReturn(Optional.of(note));
+        when(noteRepository.findStatsById("stats-id")).thenReturn(Optional.of(statsView(null, 1L)));
+        when(noteRepository.findForRead("stats-id")).thenReturn(Optional.of(note));
 
-        NoteStatsResponse response = noteService.getStats("stats-id");
+        NoteStatsResponse response = noteService.getStats("stats-id", null);
 
         assertThat(response.noteId()).isEqualTo("stats-id");
         assertThat(response.stats()).containsExactly(
@@ -185,31 +495,116 @@ class NoteServiceTest {
     void getStats_returnsEmptyWhenNoText() {
         Note note = noteWithId("empty-stats");
         note.setText("");
-        when(noteRepository.findById("empty-stats")).thenReturn(Optional.of(note));
+        when(noteRepository.findStatsById("empty-stats")).thenReturn(Optional.of(statsView(null, 1L)));
+        when(noteRepository.findForRead("empty-stats")).thenReturn(Optional.of(note));
 
-        NoteStatsResponse response = noteService.getStats("empty-stats");
+        NoteStatsResponse response = noteService.getStats("empty-stats", null);
 
         assertThat(response.stats()).isEmpty();
     }
 
     @Test
-    void getNotePreviews_returnsMappedPage() {
+    void getNotePreviews_returnsProjectedPage() {
         List<NoteTagEnum> tags = List.of(NoteTagEnum.BUSINESS);
         NoteParams params = new NoteParams(tags);
         Pageable pageable = PageRequest.of(1, 5);
-        Note note = noteWithId("preview-id");
-        Page<Note> notePage = new PageImpl<>(List.of(note), pageable, 12);
-        List<NotePreviewDto> previews = List.of(new NotePreviewDto("preview-id", "Daily", note.getCreatedDate()));
+        List<NotePreviewDto> previews = List.of(new NotePreviewDto("preview-id", "Daily", Instant.parse("2024-01-01T00:00:00Z")));
+        Page<NotePreviewDto> previewPage = new PageImpl<>(previews, pageable, 12);
 
-        when(noteRepository.findByTagsIn(tags, pageable)).thenReturn(notePage);
-        when(noteMapper.toPreviewDtoList(notePage)).thenReturn(previews);
+        when(noteRepository.findPreviews(tags, pageable)).thenReturn(previewPage);
 
         Page<NotePreviewDto> result = noteService.getNotePreviews(params, pageable);
 
         assertThat(result.getContent()).isEqualTo(previews);
         assertThat(result.getTotalElements()).isEqualTo(12);
         assertThat(result.getPageable()).isEqualTo(pageable);
-        verify(noteRepository).findByTagsIn(tags, pageable);
+        verify(noteRepository).findPreviews(tags, pageable);
+    }
+
+    @Test
+    void getNotePreviewsWithEstimatedTotal_usesCachedCountWhenMorePagesExist() {
+        List<NoteTagEnum> tags = List.of(NoteTagEnum.PERSONAL);
+        Pageable pageable = PageRequest.of(0, 1);
+        List<NotePreviewDto> previews = List.of(new NotePreviewDto("first-id", "Sample", Instant.parse("2024-01-01T00:00:00Z")));
+        when(noteRepository.findPreviewSlice(tags, pageable)).thenReturn(new SliceImpl<>(previews, pageable, true));
+        when(noteCountCache.getCount(tags)).thenReturn(40L);
+
+        Page<NotePreviewDto> result = noteService.getNotePreviewsWithEstimatedTotal(new NoteParams(tags), pageable);
+
+        assertThat(result.getContent()).isEqualTo(previews);
+        assertThat(result.getTotalElements()).isEqualTo(40);
+    }
+
+    @Test
+    void getNotePreviewsWithEstimatedTotal_derivesTotalOnLastPage() {
+        Pageable pageable = PageRequest.of(3, 5);
+        List<NotePreviewDto> previews = List.of(new NotePreviewDto("last-id", "Sample", Instant.parse("2024-01-01T00:00:00Z")));
+        when(noteRepository.findPreviewSlice(null, pageable)).thenReturn(new SliceImpl<>(previews, pageable, false));
+
+        Page<NotePreviewDto> result = noteService.getNotePreviewsWithEstimatedTotal(new NoteParams(null), pageable);
+
+        assertThat(result.getTotalElements()).isEqualTo(16);
+        verify(noteCountCache, never()).getCount(any());
+    }
+
+    @Test
+    void getNotePreviewsWithEstimatedTotal_neverReportsFewerNotesThanSeen() {
+        Pageable pageable = PageRequest.of(4, 1);
+        List<NotePreviewDto> previews = List.of(new NotePreviewDto("stale-id", "Sample", Instant.parse("2024-01-01T00:00:00Z")));
+        when(noteRepository.findPreviewSlice(null, pageable)).thenReturn(new SliceImpl<>(previews, pageable, true));
+        when(noteCountCache.getCount(null)).thenReturn(3L);
+
+        Page<NotePreviewDto> result = noteService.getNotePreviewsWithEstimatedTotal(new NoteParams(null), pageable);
+
+        assertThat(result.getTotalElements()).isEqualTo(6);
+    }
+
+    @Test
+    void getNotePreviewSlice_returnsHasNextWithoutCount() {
+        Pageable pageable = PageRequest.of(2, 5);
+        List<NotePreviewDto> previews = List.of(new NotePreviewDto("slice-id", "Sample", Instant.parse("2024-01-01T00:00:00Z")));
+        when(noteRepository.findPreviewSlice(null, pageable)).thenReturn(new SliceImpl<>(previews, pageable, true));
+
+        NotePreviewSlice result = noteService.getNotePreviewSlice(new NoteParams(null), pageable);
+
+        assertThat(result).isEqualTo(new NotePreviewSlice(previews, 2, 5, true));
+        verify(noteCountCache, never()).getCount(any());
+    }
+
+    @Test
+    void getNotePreviewsAfter_startsFromNewestAndReturnsNextCursor() {
+        List<NoteTagEnum> tags = List.of(NoteTagEnum.BUSINESS);
+        Instant createdDate = Instant.parse("2024-01-01T00:00:00Z");
+        NotePreviewDto first = new NotePreviewDto("first-id", "Sample", createdDate.plusSeconds(2));
+        NotePreviewDto second = new NotePreviewDto("second-id", "Sample", createdDate.plusSeconds(1));
+        NotePreviewDto extra = new NotePreviewDto("extra-id", "Sample", createdDate);
+        when(noteRepository.findPreviewsBefore(tags, null, null, 3)).thenReturn(List.of(first, second, extra));
+
+        NotePreviewCursorPage result = noteService.getNotePreviewsAfter(new NoteParams(tags), null, 2);
+
+        assertThat(result.content()).containsExactly(first, second);
+        assertThat(result.next()).isNotNull();
+        assertThat(NoteCursor.decode(result.next())).isEqualTo(new NoteCursor(second.createdDate(), "second-id"));
+    }
+
+    @Test
+    void getNotePreviewsAfter_seeksFromCursorAndStopsOnLastPage() {
+        Instant createdDate = Instant.parse("2024-03-01T12:00:00Z");
+        String after = new NoteCursor(createdDate, "cursor-id").encode();
+        NotePreviewDto last = new NotePreviewDto("last-id", "Sample", createdDate.minusSeconds(1));
+        when(noteRepository.findPreviewsBefore(null, createdDate, "cursor-id", 11)).thenReturn(List.of(last));
+
+        NotePreviewCursorPage result = noteService.getNotePreviewsAfter(new NoteParams(null), after, 10);
+
+        assertThat(result.content()).containsExactly(last);
+        assertThat(result.next()).isNull();
+    }
+
+    @Test
+    void getNotePreviewsAfter_rejectsMalformedCursor() {
+        assertThatThrownBy(() -> noteService.getNotePreviewsAfter(new NoteParams(null), "not a cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
     }
 
     private Note noteWithId(String id) {
@@ -221,4 +616,18 @@ class NoteServiceTest {
         note.setCreatedDate(Instant.parse("2024-01-01T00:00:00Z"));
         return note;
     }
+
+    private NoteStatsView statsView(List<WordCount> stats, Long version) {
+        return new NoteStatsView() {
+            @Override
+            public List<WordCount> getStats() {
+                return stats;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
 }
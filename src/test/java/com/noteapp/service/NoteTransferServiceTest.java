@@ -0,0 +1,180 @@
+package com.noteapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.noteapp.config.BatchProperties;
+import com.noteapp.dto.ImportSummaryResponse;
+import com.noteapp.dto.NoteDto;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.mapper.NoteMapper;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.repository.BulkWriteOutcome;
+import com.noteapp.repository.NoteRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NoteTransferServiceTest {
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private NoteMapper noteMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ValidatorFactory validatorFactory;
+
+    private NoteTransferService noteTransferService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        noteTransferService = new NoteTransferService(noteRepository, noteMapper, eventPublisher, objectMapper,
+                validatorFactory.getValidator(), new BatchProperties(10, 2, 1, 100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void exportNotes_writesOneJsonLinePerNoteAndClosesCursor() throws Exception {
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-02-01T00:00:00Z");
+        List<NoteTagEnum> tags = List.of(NoteTagEnum.BUSINESS);
+        Note first = new Note();
+        Note second = new Note();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(noteRepository.streamNotes(tags, from, to)).thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        when(noteMapper.toDto(first)).thenReturn(new NoteDto("a", "First", "one", tags, from, 0L));
+        when(noteMapper.toDto(second)).thenReturn(new NoteDto("b", "Second", "two", tags, from, 3L));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = noteTransferService.exportNotes(tags, from, to, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], NoteDto.class).title()).isEqualTo("First");
+        assertThat(objectMapper.readValue(lines[1], NoteDto.class).version()).isEqualTo(3L);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void checkExportRange_rejectsEmptyRange() {
+        Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+
+        assertThatThrownBy(() -> noteTransferService.checkExportRange(instant, instant))
+                .isInstanceOf(IllegalArgumentException.class);
+        noteTransferService.checkExportRange(instant, null);
+    }
+
+    @Test
+    void importNotes_insertsValidLinesInChunksAndReportsRejectedLines() throws Exception {
+        String body = String.join("\n",
+                "{\"title\":\"One\",\"text\":\"first note\",\"tags\":[\"BUSINESS\"]}",
+                "",
+                "{not json",
+                "{\"title\":\" \",\"text\":\"blank title\",\"tags\":[]}",
+                "{\"title\":\"Duplicate\",\"text\":\"rejected by the database\",\"tags\":[]}",
+                "{\"title\":\"Three\",\"text\":\"last note\",\"tags\":[],\"id\":\"ignored\"}"
+        );
+        when(noteRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Note> chunk = invocation.getArgument(0);
+            Map<Integer, String> errors = new HashMap<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunk.get(i).getTitle().equals("Duplicate")) errors.put(i, "E11000 duplicate key");
+            }
+            return new BulkWriteOutcome(chunk.size() - errors.size(), errors);
+        });
+
+        ImportSummaryResponse summary = noteTransferService.importNotes(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        verify(noteRepository, times(2)).insertAll(anyList());
+        ArgumentCaptor<NotesCreatedEvent> events = ArgumentCaptor.forClass(NotesCreatedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).flatExtracting(NotesCreatedEvent::notes)
+                .extracting(Note::getTitle)
+                .containsExactlyInAnyOrder("One", "Three");
+        assertThat(summary.imported()).isEqualTo(2);
+        assertThat(summary.rejected()).isEqualTo(3);
+        assertThat(summary.rejectedLines()).containsExactly(3L, 4L, 5L);
+        assertThat(summary.rejectedLinesTruncated()).isFalse();
+    }
+
+    @Test
+    void importNotes_assignsIdsBeforeInsertingSoCreatedEventsCarryThem() throws Exception {
+        String body = "{\"title\":\"One\",\"text\":\"first\",\"tags\":[]}\n"
+                + "{\"title\":\"Two\",\"text\":\"second\",\"tags\":[]}\n";
+        // Like a MongoDB bulk insert, which does not copy the generated ids back onto the notes
+        when(noteRepository.insertAll(anyList())).thenAnswer(invocation ->
+                new BulkWriteOutcome(invocation.<List<Note>>getArgument(0).size(), Map.of()));
+
+        noteTransferService.importNotes(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        ArgumentCaptor<NotesCreatedEvent> event = ArgumentCaptor.forClass(NotesCreatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().notes()).extracting(Note::getId)
+                .doesNotContainNull()
+                .doesNotHaveDuplicates()
+                .hasSize(2);
+    }
+
+    @Test
+    void importNotes_rejectsLinesLongerThanTheLimitAndKeepsReading() throws Exception {
+        String body = "{\"title\":\"One\",\"text\":\"" + "x".repeat(500) + "\",\"tags\":[]}\r\n"
+                + "{\"title\":\"Two\",\"text\":\"second\",\"tags\":[]}\r\n"
+                + "{\"title\":\"Three\",\"text\":\"" + "y".repeat(500) + "\",\"tags\":[]}";
+        when(noteRepository.insertAll(anyList())).thenAnswer(invocation ->
+                new BulkWriteOutcome(invocation.<List<Note>>getArgument(0).size(), Map.of()));
+
+        ImportSummaryResponse summary = noteTransferService.importNotes(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(summary.imported()).isEqualTo(1);
+        assertThat(summary.rejectedLines()).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void importNotes_failsWhenAChunkCannotBeWritten() {
+        String body = "{\"title\":\"One\",\"text\":\"text\",\"tags\":[]}\n";
+        when(noteRepository.insertAll(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatThrownBy(() -> noteTransferService.importNotes(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.noteapp.service;
+
+import com.noteapp.config.WordCountProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelWordCounterTest {
+    // Small enough that every text below is split into many chunks
+    private final ParallelWordCounter counter = new ParallelWordCounter(new WordCountProperties(16, 8, 4));
+
+    @AfterEach
+    void tearDown() {
+        counter.shutdown();
+    }
+
+    @Test
+    void count_matchesSequentialCountingOnRandomText() {
+        String alphabet = "abcdefgABC_019 ,.-\n\t\u0130\u212A\u00e9\u00c9\u03a3\uD83D\uDE00";
+        Random random = new Random(42);
+
+        for (int run = 0; run < 300; run++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(5_000);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            WordCounter parallel = counter.count(text);
+            WordCounter sequential = WordCounter.of(text);
+            assertThat(parallel.toSortedList()).as("text: %s", text).isEqualTo(sequential.toSortedList());
+            assertThat(parallel.top(5)).isEqualTo(sequential.top(5));
+        }
+    }
+
+    @Test
+    void count_keepsAWordLongerThanAChunkWhole() {
+        String word = "x".repeat(100);
+
+        assertThat(counter.count(word + " y " + word).toSortedList())
+                .isEqualTo(WordCounter.of(word + " y " + word).toSortedList());
+    }
+
+    @Test
+    void count_handlesNullText() {
+        assertThat(counter.count(null).size()).isZero();
+    }
+
+    @Test
+    void boundary_neverSplitsAWord() {
+        String text = "alpha beta";
+
+        assertThat(ParallelWordCounter.boundary(text, 2, text.length())).isEqualTo(5);
+        assertThat(ParallelWordCounter.boundary(text, 5, text.length())).isEqualTo(5);
+        assertThat(ParallelWordCounter.boundary(text, 7, text.length())).isEqualTo(text.length());
+    }
+
+    @Test
+    void constructor_rejectsEmptyChunks() {
+        assertThatThrownBy(() -> new ParallelWordCounter(new WordCountProperties(16, 0, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
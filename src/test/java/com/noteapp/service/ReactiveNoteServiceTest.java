@@ -0,0 +1,206 @@
+package com.noteapp.service;
+
+import com.noteapp.dto.CreateNoteRequest;
+import com.noteapp.dto.NoteDto;
+import com.noteapp.dto.NoteParams;
+import com.noteapp.dto.NoteStatsEntry;
+import com.noteapp.dto.NoteStatsResponse;
+import com.noteapp.dto.UpdateNoteRequest;
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.event.NotesRemovedEvent;
+import com.noteapp.exception.NotFoundException;
+import com.noteapp.exception.PreconditionFailedException;
+import com.noteapp.mapper.NoteMapper;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.model.WordCount;
+import com.noteapp.repository.NotePatch;
+import com.noteapp.repository.NoteStatsView;
+import com.noteapp.repository.ReactiveNoteRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveNoteServiceTest {
+
+    @Mock
+    private ReactiveNoteRepository noteRepository;
+
+    @Mock
+    private NoteMapper noteMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ReactiveNoteService noteService;
+
+    @Test
+    void createNote_computesStatsAndPublishesTheSavedNote() {
+        Note saved = note("id", 0L);
+        NoteDto dto = new NoteDto("id", "Title", "one two two", List.of(), saved.getCreatedDate(), 0L);
+        when(noteRepository.save(any(Note.class))).thenReturn(Mono.just(saved));
+        when(noteMapper.toDto(saved)).thenReturn(dto);
+
+        StepVerifier.create(noteService.createNote(new CreateNoteRequest("Title", "one two two", List.of())))
+                .expectNext(dto)
+                .verifyComplete();
+
+        ArgumentCaptor<Note> captor = ArgumentCaptor.forClass(Note.class);
+        verify(noteRepository).save(captor.capture());
+        assertThat(captor.getValue().getStats()).containsExactly(new WordCount("two", 2), new WordCount("one", 1));
+        verify(eventPublisher).publishEvent(new NotesCreatedEvent(List.of(saved)));
+    }
+
+    @Test
+    void getNoteDtoById_failsWithNotFoundForMissingNote() {
+        when(noteRepository.findById("missing")).thenReturn(Mono.empty());
+
+        StepVerifier.create(noteService.getNoteDtoById("missing"))
+                .expectError(NotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void updateNote_patchesAndPublishesTheBeforeImage() {
+        Note before = note("id", 2L);
+        when(noteRepository.patch(eq("id"), eq(2L), any(NotePatch.class))).thenReturn(Mono.just(before));
+        when(noteMapper.toDto(any(Note.class))).thenAnswer(invocation -> {
+            Note note = invocation.getArgument(0);
+            return new NoteDto(note.getId(), note.getTitle(), note.getText(), note.getTags(), note.getCreatedDate(), note.getVersion());
+        });
+
+        StepVerifier.create(noteService.updateNote(new UpdateNoteRequest("New", null, null), "id", 2L))
+                .assertNext(dto -> {
+                    assertThat(dto.title()).isEqualTo("New");
+                    assertThat(dto.version()).isEqualTo(3L);
+                })
+                .verifyComplete();
+
+        verify(eventPublisher).publishEvent(new NoteUpdatedEvent(before, new NotePatch("New", null, null, null)));
+    }
+
+    @Test
+    void updateNote_failsWithPreconditionFailedForStaleVersion() {
+        when(noteRepository.patch(eq("id"), eq(1L), any(NotePatch.class))).thenReturn(Mono.empty());
+        when(noteRepository.existsById("id")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(noteService.updateNote(new UpdateNoteRequest("New", null, null), "id", 1L))
+                .expectError(PreconditionFailedException.class)
+                .verify();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void updateNote_failsWithNotFoundWithoutExpectedVersion() {
+        when(noteRepository.patch(eq("missing"), isNull(), any(NotePatch.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(noteService.updateNote(new UpdateNoteRequest("New", null, null), "missing", null))
+                .expectError(NotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void deleteNote_publishesRemovedNote() {
+        Note removed = note("id", 1L);
+        when(noteRepository.removeById("id")).thenReturn(Mono.just(removed));
+
+        StepVerifier.create(noteService.deleteNote("id")).verifyComplete();
+
+        verify(eventPublisher).publishEvent(new NotesRemovedEvent(List.of(removed)));
+    }
+
+    @Test
+    void getStats_truncatesPersistedStats() {
+        List<WordCount> stats = List.of(new WordCount("a", 3), new WordCount("b", 1));
+        NoteStatsView view = new NoteStatsView() {
+            @Override
+            public List<WordCount> getStats() {
+                return stats;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 4L;
+            }
+        };
+        when(noteRepository.findStatsById("id")).thenReturn(Mono.just(view));
+
+        StepVerifier.create(noteService.getStats("id", 1))
+                .expectNext(new NoteStatsResponse("id", List.of(new NoteStatsEntry("a", 3)), 4L))
+                .verifyComplete();
+    }
+
+    @Test
+    void getVersion_failsWithNotFoundForMissingNote() {
+        when(noteRepository.findVersionById("missing")).thenReturn(Mono.empty());
+
+        StepVerifier.create(noteService.getVersion("missing"))
+                .expectError(NotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void getStats_rejectsNonPositiveLimit() {
+        StepVerifier.create(noteService.getStats("id", 0))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void exportNotes_mapsEveryStreamedNote() {
+        Note first = note("a", 0L);
+        Note second = note("b", 0L);
+        NoteDto firstDto = new NoteDto("a", null, null, null, null, 0L);
+        NoteDto secondDto = new NoteDto("b", null, null, null, null, 0L);
+        when(noteRepository.streamNotes(List.of(NoteTagEnum.BUSINESS), null, null)).thenReturn(Flux.just(first, second));
+        when(noteMapper.toDto(first)).thenReturn(firstDto);
+        when(noteMapper.toDto(second)).thenReturn(secondDto);
+
+        StepVerifier.create(noteService.exportNotes(new NoteParams(List.of(NoteTagEnum.BUSINESS)), null, null), 1)
+                .expectNext(firstDto)
+                .thenRequest(1)
+                .expectNext(secondDto)
+                .verifyComplete();
+    }
+
+    @Test
+    void exportNotes_rejectsEmptyRange() {
+        Instant at = Instant.parse("2024-01-01T00:00:00Z");
+
+        StepVerifier.create(noteService.exportNotes(new NoteParams(null), at, at))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    private Note note(String id, Long version) {
+        Note note = new Note();
+        note.setId(id);
+        note.setTitle("Title");
+        note.setText("text");
+        note.setTags(List.of());
+        note.setCreatedDate(Instant.parse("2024-01-01T00:00:00Z"));
+        note.setVersion(version);
+        return note;
+    }
+}
@@ -0,0 +1,157 @@
+package com.noteapp.service;
+
+import com.noteapp.event.NoteUpdatedEvent;
+import com.noteapp.event.NotesCreatedEvent;
+import com.noteapp.event.NotesRemovedEvent;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteTagEnum;
+import com.noteapp.repository.NotePatch;
+import com.noteapp.repository.NoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TagCountServiceTest {
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    private TagCountService tagCountService;
+
+    @BeforeEach
+    void setUp() {
+        tagCountService = new TagCountService(noteRepository);
+    }
+
+    @Test
+    void getCounts_reportsEveryTag() {
+        assertThat(tagCountService.getCounts().counts()).containsExactly(
+                Map.entry(NoteTagEnum.BUSINESS, 0L),
+                Map.entry(NoteTagEnum.PERSONAL, 0L),
+                Map.entry(NoteTagEnum.IMPORTANT, 0L)
+        );
+    }
+
+    @Test
+    void onNotesCreated_countsEachDistinctTagOnce() {
+        tagCountService.onNotesCreated(new NotesCreatedEvent(List.of(
+                note(NoteTagEnum.BUSINESS, NoteTagEnum.BUSINESS, NoteTagEnum.IMPORTANT),
+                note(NoteTagEnum.BUSINESS),
+                note()
+        )));
+
+        assertThat(tagCountService.getCounts().counts())
+                .containsEntry(NoteTagEnum.BUSINESS, 2L)
+                .containsEntry(NoteTagEnum.PERSONAL, 0L)
+                .containsEntry(NoteTagEnum.IMPORTANT, 1L);
+    }
+
+    @Test
+    void onNoteUpdated_movesCountsBetweenChangedTags() {
+        Note before = note(NoteTagEnum.BUSINESS, NoteTagEnum.IMPORTANT);
+        tagCountService.onNotesCreated(new NotesCreatedEvent(List.of(before)));
+
+        tagCountService.onNoteUpdated(new NoteUpdatedEvent(before,
+                new NotePatch(null, null, null, List.of(NoteTagEnum.IMPORTANT, NoteTagEnum.PERSONAL))));
+        tagCountService.onNoteUpdated(new NoteUpdatedEvent(before, new NotePatch("Title", null, null, null)));
+
+        assertThat(tagCountService.getCounts().counts())
+                .containsEntry(NoteTagEnum.BUSINESS, 0L)
+                .containsEntry(NoteTagEnum.PERSONAL, 1L)
+                .containsEntry(NoteTagEnum.IMPORTANT, 1L);
+    }
+
+    @Test
+    void onNotesRemoved_decrementsTags() {
+        Note note = note(NoteTagEnum.PERSONAL);
+        tagCountService.onNotesCreated(new NotesCreatedEvent(List.of(note, note(NoteTagEnum.PERSONAL))));
+
+        tagCountService.onNotesRemoved(new NotesRemovedEvent(List.of(note)));
+
+        assertThat(tagCountService.getCounts().counts()).containsEntry(NoteTagEnum.PERSONAL, 1L);
+    }
+
+    @Test
+    void reconcile_replacesCountersWithCountsFromTheCollection() {
+        tagCountService.onNotesCreated(new NotesCreatedEvent(List.of(note(NoteTagEnum.BUSINESS))));
+        when(noteRepository.streamSummaries()).thenReturn(Stream.of(
+                note("a", 0, NoteTagEnum.BUSINESS, NoteTagEnum.IMPORTANT),
+                note("b", 0, NoteTagEnum.BUSINESS, NoteTagEnum.BUSINESS),
+                note("c", 3, NoteTagEnum.IMPORTANT)
+        ));
+
+        tagCountService.reconcile();
+
+        assertThat(tagCountService.getCounts().counts())
+                .containsEntry(NoteTagEnum.BUSINESS, 2L)
+                .containsEntry(NoteTagEnum.PERSONAL, 0L)
+                .containsEntry(NoteTagEnum.IMPORTANT, 2L);
+    }
+
+    @Test
+    void reconcile_replaysWritesRacingTheCursorOnlyWhenTheSnapshotMissedThem() {
+        Note seen = note("a", 1, NoteTagEnum.PERSONAL);
+        when(noteRepository.streamSummaries()).thenReturn(Stream.of(seen).peek(note -> {
+            // Already reflected by the streamed version
+            tagCountService.onNoteUpdated(new NoteUpdatedEvent(note("a", 0, NoteTagEnum.BUSINESS),
+                    new NotePatch(null, null, null, List.of(NoteTagEnum.PERSONAL))));
+            tagCountService.onNotesCreated(new NotesCreatedEvent(List.of(note("a", 0, NoteTagEnum.BUSINESS))));
+            // Applied after the cursor read the note
+            tagCountService.onNoteUpdated(new NoteUpdatedEvent(seen, new NotePatch("Title", null, null, null)));
+            tagCountService.onNoteUpdated(new NoteUpdatedEvent(note("a", 2, NoteTagEnum.PERSONAL),
+                    new NotePatch(null, null, null, List.of(NoteTagEnum.IMPORTANT))));
+            tagCountService.onNotesCreated(new NotesCreatedEvent(List.of(note("b", 0, NoteTagEnum.IMPORTANT))));
+        }));
+
+        tagCountService.reconcile();
+
+        assertThat(tagCountService.getCounts().counts())
+                .containsEntry(NoteTagEnum.BUSINESS, 0L)
+                .containsEntry(NoteTagEnum.PERSONAL, 0L)
+                .containsEntry(NoteTagEnum.IMPORTANT, 2L);
+    }
+
+    @Test
+    void reconcile_dropsRemovalsOfNotesTheCursorNeverSaw() {
+        when(noteRepository.streamSummaries()).thenReturn(Stream.of(note("a", 0, NoteTagEnum.PERSONAL)).peek(note ->
+                tagCountService.onNotesRemoved(new NotesRemovedEvent(List.of(note("gone", 0, NoteTagEnum.PERSONAL))))));
+
+        tagCountService.reconcile();
+
+        assertThat(tagCountService.getCounts().counts()).containsEntry(NoteTagEnum.PERSONAL, 1L);
+    }
+
+    @Test
+    void reconcile_keepsCurrentCountersWhenTheCollectionCannotBeRead() {
+        tagCountService.onNotesCreated(new NotesCreatedEvent(List.of(note(NoteTagEnum.BUSINESS))));
+        when(noteRepository.streamSummaries()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        tagCountService.reconcile();
+
+        assertThat(tagCountService.getCounts().counts()).containsEntry(NoteTagEnum.BUSINESS, 1L);
+    }
+
+    private Note note(NoteTagEnum... tags) {
+        Note note = new Note();
+        note.setTags(List.of(tags));
+        return note;
+    }
+
+    private Note note(String id, long version, NoteTagEnum... tags) {
+        Note note = note(tags);
+        note.setId(id);
+        note.setVersion(version);
+        return note;
+    }
+}
@@ -0,0 +1,94 @@
+package com.noteapp.service;
+
+import com.noteapp.model.WordCount;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WordCounterTest {
+
+    @Test
+    void toSortedList_ordersByCountThenWord() {
+        List<WordCount> result = WordCounter.of("Note is just a note, NOTE!").toSortedList();
+
+        assertThat(result).containsExactly(
+                new WordCount("note", 3),
+                new WordCount("a", 1),
+                new WordCount("is", 1),
+                new WordCount("just", 1)
+        );
+    }
+
+    @Test
+    void toSortedList_returnsEmptyForNullOrBlankText() {
+        assertThat(WordCounter.of(null).toSortedList()).isEmpty();
+        assertThat(WordCounter.of(" ,.! ").toSortedList()).isEmpty();
+    }
+
+    @Test
+    void toSortedList_matchesRegexTokenization() {
+        String alphabet = "abcdefgABC_019 ,.-\n\t\u0130\u212A\u00e9\u00c9\u03a3\uD83D\uDE00";
+        Random random = new Random(42);
+
+        for (int run = 0; run < 500; run++) {
+            String text = randomText(random, alphabet, random.nextInt(2_000));
+
+            assertThat(WordCounter.of(text).toSortedList())
+                    .as("text: %s", text)
+                    .isEqualTo(regexStats(text));
+        }
+    }
+
+    @Test
+    void top_returnsPrefixOfSortedList() {
+        Random random = new Random(7);
+
+        for (int run = 0; run < 200; run++) {
+            WordCounter counter = WordCounter.of(randomText(random, "abcdef _", random.nextInt(500)));
+            List<WordCount> sorted = counter.toSortedList();
+            int limit = random.nextInt(12) + 1;
+
+            assertThat(counter.top(limit)).isEqualTo(sorted.subList(0, Math.min(limit, sorted.size())));
+        }
+    }
+
+    @Test
+    void merge_addsCountsFromOtherCounter() {
+        WordCounter counter = WordCounter.of("alpha beta");
+        counter.merge(WordCounter.of("beta gamma beta"));
+
+        assertThat(counter.toSortedList()).containsExactly(
+                new WordCount("beta", 3),
+                new WordCount("alpha", 1),
+                new WordCount("gamma", 1)
+        );
+    }
+
+    private String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    private List<WordCount> regexStats(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("\\W+"))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(e -> new WordCount(e.getKey(), e.getValue()))
+                .toList();
+    }
+}